@@ -0,0 +1,369 @@
+package orderedSet;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This is a thread safe implementation of an OrderedInterface that may be shared between threads
+ * without any outside locking. The elements are held in a lock-free concurrent skip list, so
+ * add, remove and contains are linearizable and never block one another.
+ * <br>
+ * Iterators are <i>weakly consistent</i>: they never throw ConcurrentModificationException, they
+ * return every element that was present for the whole iteration exactly once, and they may or
+ * may not return elements added or removed while they run. The same is true of toString,
+ * printList, get, equals and the bulk operations, which are built on iteration.
+ * <br>
+ * <b>Direction:</b> the elements are always stored lowest to highest and the direction is a
+ * single volatile flag, so reverse() is atomic and constant time. An iterator reads the
+ * direction once, when it is created, and keeps it until it is exhausted; a reverse() performed
+ * during an iteration only affects iterators created afterwards.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public class ConcurrentOrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
+
+    /** The elements of the set in ascending order */
+    private final ConcurrentSkipListSet<R> elements;
+    /** Number of elements, kept here because counting the skip list is linear */
+    private final AtomicInteger numElements;
+    /** boolean representing whether the set is currently read highest to lowest */
+    private volatile boolean descending;
+
+    /** Create an empty ascending ConcurrentOrderedSet */
+    public ConcurrentOrderedSet(){
+        this.elements = new ConcurrentSkipListSet<>();
+        this.numElements = new AtomicInteger();
+        this.descending = false;
+    }
+
+    /**
+     * Creates an empty set.
+     * @param descending if set is to be descending
+     */
+    public ConcurrentOrderedSet(boolean descending){
+        this();
+        this.descending = descending;
+    }
+
+    /**
+     * Create a ConcurrentOrderedSet based on the values from any Collection.
+     * @param collection collection whose data to be added to this set
+     * @param descending if set is to be descending
+     * @throws IllegalArgumentException if collection is null
+     */
+    public ConcurrentOrderedSet(Collection<R> collection, boolean descending)throws IllegalArgumentException{
+        this(descending);
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        addAll(collection);
+    }
+
+    /**
+     * Adds the specified element to this set if it is not already present.
+     * @param element element to be added to this set
+     * @return true if the set did not already contain the element
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean add(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        boolean result = elements.add(element);
+        if(result){
+            numElements.incrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Adds all of the elements in the given collection to this set. Each element is added
+     * atomically but the collection as a whole is not.
+     * @param collection the elements to add
+     * @return true if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    public boolean addAll(Collection<? extends R> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        boolean result = false;
+        for(R element : collection){
+            if(add(element)){
+                result = true;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes every element from this set. Elements added concurrently with the call may
+     * survive it.
+     */
+    public void clear(){
+        while(elements.pollFirst() != null){
+            numElements.decrementAndGet();
+        }
+    }
+
+    /**
+     * Determine if a specific object is in the set.
+     * @param item object to search for
+     * @return true if the object is in the set, false otherwise
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean contains(Object item)throws IllegalArgumentException{
+        if(item == null){
+            throw new IllegalArgumentException();
+        }
+        boolean result = false;
+        if(item instanceof Comparable){
+            try{
+                result = elements.contains(item);
+            }
+            catch(ClassCastException e){
+                result = false;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns true if this set contains all of the elements of the specified collection.
+     * @param collection collection to be checked for containment in this set
+     * @return true if this set contains all the elements of the collection
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean containsAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        for(Object item : collection){
+            if(!contains(item)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determine if this set contains no elements.
+     * @return true if this set contains no elements
+     */
+    public boolean isEmpty(){
+        return elements.isEmpty();
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     * @param item element to remove from this set
+     * @return true if this set contained the element
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean remove(Comparable item)throws IllegalArgumentException{
+        if(!contains(item)){
+            return false;
+        }
+        boolean result = elements.remove(item);
+        if(result){
+            numElements.decrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Removes from this set all of its elements that are contained in the specified collection.
+     * @param collection the elements to remove
+     * @return true if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    public boolean removeAll(Collection<?> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        boolean result = false;
+        for(Object item : collection){
+            if(item instanceof Comparable && remove((Comparable) item)){
+                result = true;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the specified collection.
+     * @param collection collection containing elements to be retained in this set
+     * @return true if the set changed
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean retainAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        boolean result = false;
+        for(R element : elements){
+            if(!collection.contains(element) && elements.remove(element)){
+                numElements.decrementAndGet();
+                result = true;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of elements in this set. While other threads are modifying the set
+     * this is only a snapshot of a moving value.
+     * @return the number of elements in this set
+     */
+    public int size(){
+        return Math.max(0, numElements.get());
+    }
+
+    /**
+     * Get the item at the index position specified, counting from the front of the set in the
+     * current direction.
+     * @param location index to retrieve an item from
+     * @return the item from a particular index
+     * @throws NoSuchElementException if there is no element at location
+     */
+    public R get(int location)throws NoSuchElementException{
+        if(location < 0){
+            throw new NoSuchElementException();
+        }
+        Iterator<R> it = iterator();
+        for(int i = 0; i < location && it.hasNext(); i++){
+            it.next();
+        }
+        if(!it.hasNext()){
+            throw new NoSuchElementException();
+        }
+        return it.next();
+    }
+
+    /** Print each item in the set. */
+    public void printList(){
+        for(R data : this){
+            System.out.println(data);
+        }
+    }
+
+    /**
+     * Display this class as a String.
+     * @return elements in the set in displayable format
+     */
+    public String toString(){
+        StringBuilder sb = new StringBuilder();
+        sb.append("<");
+        Iterator<R> it = iterator();
+        while(it.hasNext()){
+            sb.append(it.next().toString());
+            if(it.hasNext()){
+                sb.append(", ");
+            }
+        }
+        sb.append(">");
+        return sb.toString();
+    }
+
+    /**
+     * Compares the specified object with this set for equality.
+     * @param other the specified object to be compared
+     * @return true if other is a Collection of the same size whose members are all in this set
+     */
+    public boolean equals(Object other){
+        boolean result = false;
+        if(other instanceof Collection){
+            Collection<?> temp = (Collection<?>) other;
+            result = this.size() == temp.size() && containsAll(temp);
+        }
+        return result;
+    }
+
+    /**
+     * Hash code consistent with equals, the sum of the hash codes of the elements.
+     * @return hash code of this set
+     */
+    public int hashCode(){
+        return elements.hashCode();
+    }
+
+    /**
+     * This function will return true if this set is descending and false if it is ascending.
+     * @return boolean indicating if set is descending or ascending
+     */
+    public boolean isReversed(){
+        return descending;
+    }
+
+    /**
+     * Reverse the order of the set. Only the direction flag changes, so the call is atomic and
+     * constant time; iterators that are already running keep the direction they started with.
+     */
+    public synchronized void reverse(){
+        descending = !descending;
+    }
+
+    /**
+     * Return a weakly consistent iterator over the set in the direction it has when this method
+     * is called.
+     * @return iterator over the elements of the set
+     */
+    public Iterator<R> iterator(){
+        return new CountingIterator(descending ? elements.descendingIterator() : elements.iterator());
+    }
+
+    /**
+     * Wraps an iterator of the skip list so that removing through it also keeps numElements up
+     * to date.
+     */
+    private class CountingIterator implements Iterator<R>{
+
+        /** The skip list iterator being wrapped */
+        private final Iterator<R> inner;
+        /** The last element returned by next, for remove */
+        private R last;
+
+        /**
+         * Creates a CountingIterator.
+         * @param inner the skip list iterator to wrap
+         */
+        private CountingIterator(Iterator<R> inner){
+            this.inner = inner;
+            this.last = null;
+        }
+
+        /** Is there another element in the set?
+         * @return true if there is another element
+         */
+        public boolean hasNext(){
+            return inner.hasNext();
+        }
+
+        /** Get the next element of the set.
+         * @return the next element
+         * @throws NoSuchElementException if the iteration is over
+         */
+        public R next(){
+            last = inner.next();
+            return last;
+        }
+
+        /** Remove the last element returned by next from the set, if no other thread already has.
+         * @throws IllegalStateException if next has not been called since the last remove
+         */
+        public void remove(){
+            if(last == null){
+                throw new IllegalStateException();
+            }
+            if(elements.remove(last)){
+                numElements.decrementAndGet();
+            }
+            last = null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package orderedSet;
+
+/**
+ * Decides how far an array backed set grows when it runs out of room. The default, DOUBLING,
+ * keeps adds amortized constant time at the cost of up to half the array standing empty; a
+ * smaller factor or a fixed increment trades some copying for a tighter fit.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public interface GrowthPolicy{
+
+    /** Double the capacity, starting from OrderedSet.DEFAULT_CAPACITY */
+    public static final GrowthPolicy DOUBLING = factor(2.0);
+
+    /**
+     * A policy that multiplies the capacity by a factor each time the set grows.
+     * @param factor the multiplier, greater than 1
+     * @return the policy
+     * @throws IllegalArgumentException if factor is not greater than 1
+     */
+    public static GrowthPolicy factor(final double factor)throws IllegalArgumentException{
+        if(!(factor > 1)){
+            throw new IllegalArgumentException();
+        }
+        return new GrowthPolicy(){
+            public int grow(int capacity, int required){
+                long grown = Math.max(OrderedSet.DEFAULT_CAPACITY, (long) (capacity * factor));
+                return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(grown, required));
+            }
+        };
+    }
+
+    /**
+     * A policy that adds a fixed number of slots each time the set grows.
+     * @param step the number of slots to add, at least 1
+     * @return the policy
+     * @throws IllegalArgumentException if step is less than 1
+     */
+    public static GrowthPolicy increment(final int step)throws IllegalArgumentException{
+        if(step < 1){
+            throw new IllegalArgumentException();
+        }
+        return new GrowthPolicy(){
+            public int grow(int capacity, int required){
+                long grown = (long) capacity + step;
+                return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(grown, required));
+            }
+        };
+    }
+
+    /**
+     * Pick the new capacity for a set that needs more room.
+     * @param capacity the current capacity
+     * @param required the smallest capacity that will do
+     * @return the new capacity, at least required
+     */
+    public int grow(int capacity, int required);
+}
@@ -0,0 +1,87 @@
+package orderedSet;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Translates keys of type K to and from a fixed number of bytes, so that they can be stored
+ * outside of the Java heap by an OffHeapOrderedSet. Every key must encode to exactly width()
+ * bytes.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+public interface KeyCodec<K extends Comparable<K>> {
+
+    /** Codec for Integer keys, four bytes each */
+    public static final KeyCodec<Integer> INTEGER = new KeyCodec<Integer>() {
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        public void encode(Integer key, ByteBuffer buffer, int offset) {
+            buffer.putInt(offset, key);
+        }
+
+        public Integer decode(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+
+        public int compare(ByteBuffer buffer, int offset, Integer key) {
+            return Integer.compare(buffer.getInt(offset), key);
+        }
+    };
+
+    /** Codec for Long keys, eight bytes each */
+    public static final KeyCodec<Long> LONG = new KeyCodec<Long>() {
+        public int width() {
+            return Long.BYTES;
+        }
+
+        public void encode(Long key, ByteBuffer buffer, int offset) {
+            buffer.putLong(offset, key);
+        }
+
+        public Long decode(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+
+        public int compare(ByteBuffer buffer, int offset, Long key) {
+            return Long.compare(buffer.getLong(offset), key);
+        }
+    };
+
+    /**
+     * The number of bytes every encoded key takes.
+     * @return the width of an encoded key
+     */
+    public int width();
+
+    /**
+     * Write a key into a buffer.
+     * @param key the key to write
+     * @param buffer the buffer to write into
+     * @param offset the absolute position of the first byte to write
+     */
+    public void encode(K key, ByteBuffer buffer, int offset);
+
+    /**
+     * Read a key back out of a buffer.
+     * @param buffer the buffer to read from
+     * @param offset the absolute position of the first byte of the key
+     * @return the decoded key
+     */
+    public K decode(ByteBuffer buffer, int offset);
+
+    /**
+     * Compare an encoded key with a key on the heap. Codecs for which the comparison can be made
+     * on the bytes themselves should override this to avoid decoding.
+     * @param buffer the buffer holding the encoded key
+     * @param offset the absolute position of the encoded key
+     * @param key the key to compare against
+     * @return a negative number, zero, or a positive number as the encoded key is lower than,
+     * equal to, or higher than key
+     */
+    public default int compare(ByteBuffer buffer, int offset, K key) {
+        return decode(buffer, offset).compareTo(key);
+    }
+}
@@ -0,0 +1,686 @@
+package orderedSet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This is an implementation of an OrderedInterface whose elements are kept outside of the Java
+ * heap, so that very large sets do not add to garbage collection pauses. Each element is written
+ * as a fixed number of bytes by a {@link KeyCodec} into either direct memory or a memory-mapped
+ * file, always lowest to highest, and lookups binary search the encoded keys where they lie.
+ * <br>
+ * The storage is split into segments of a fixed number of slots, so a set can grow past the
+ * 2GB limit of a single buffer and growing never copies existing elements: a new segment is just
+ * added at the end. A file backed set records its size, direction and layout in a small header,
+ * so {@link #open} can reopen it immediately without reading or sorting the elements.
+ * <br>
+ * Elements are decoded whenever they are read, so iteration and get return new objects equal to
+ * the ones that were added. The set is not thread safe.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public class OffHeapOrderedSet<R extends Comparable<R>> implements OrderedInterface<R>, Closeable{
+
+    /** Identifies a file written by this class */
+    private static final int MAGIC = 0x4F534554;
+    /** Version of the file layout */
+    private static final int VERSION = 1;
+    /** Bytes reserved at the start of a file for the header */
+    private static final int HEADER_BYTES = 32;
+    /** Header position of the key width */
+    private static final int WIDTH_AT = 8;
+    /** Header position of the number of slots per segment */
+    private static final int SEGMENT_AT = 12;
+    /** Header position of the flags */
+    private static final int FLAGS_AT = 16;
+    /** Header position of the number of elements */
+    private static final int COUNT_AT = 20;
+    /** Flag bit set when the set is descending */
+    private static final int DESCENDING_FLAG = 1;
+    /** Default number of slots in one segment */
+    public static final int DEFAULT_SEGMENT_SLOTS = 1 << 16;
+    /** Size of the scratch array used when moving elements */
+    private static final int SCRATCH_BYTES = 1 << 16;
+
+    /** Encodes and decodes the elements */
+    private final KeyCodec<R> codec;
+    /** Number of bytes per element */
+    private final int width;
+    /** Number of elements that fit in one segment */
+    private final int segmentSlots;
+    /** The storage, each segment holding segmentSlots encoded elements */
+    private ByteBuffer[] segments;
+    /** Header mirroring the count and flags, mapped at the start of the file when file backed */
+    private final ByteBuffer header;
+    /** The open file, or null when the set lives in direct memory */
+    private final FileChannel channel;
+    /** Scratch space used to move elements */
+    private final byte[] scratch;
+    /** boolean representing whether the set is descending */
+    private boolean descending;
+    /** Number of elements in the set */
+    private int numElements;
+
+    /**
+     * Creates an empty ascending set in direct memory.
+     * @param codec encodes the elements
+     * @param segmentSlots number of elements per storage segment
+     * @throws IllegalArgumentException if codec is null or segmentSlots is not positive
+     */
+    public OffHeapOrderedSet(KeyCodec<R> codec, int segmentSlots)throws IllegalArgumentException{
+        this(codec, segmentSlots, null, ByteBuffer.allocateDirect(HEADER_BYTES));
+        writeHeader();
+    }
+
+    /**
+     * Creates an empty ascending set in direct memory with the default segment size.
+     * @param codec encodes the elements
+     * @throws IllegalArgumentException if codec is null
+     */
+    public OffHeapOrderedSet(KeyCodec<R> codec)throws IllegalArgumentException{
+        this(codec, DEFAULT_SEGMENT_SLOTS);
+    }
+
+    /**
+     * Shared constructor.
+     * @param codec encodes the elements
+     * @param segmentSlots number of elements per storage segment
+     * @param channel the backing file, or null for direct memory
+     * @param header the header buffer
+     * @throws IllegalArgumentException if codec is null, segmentSlots is not positive, or a
+     * segment would be larger than a buffer can hold
+     */
+    private OffHeapOrderedSet(KeyCodec<R> codec, int segmentSlots, FileChannel channel,
+            ByteBuffer header)throws IllegalArgumentException{
+        if(codec == null || codec.width() <= 0 || segmentSlots <= 0
+                || (long) segmentSlots * codec.width() > Integer.MAX_VALUE){
+            throw new IllegalArgumentException();
+        }
+        this.codec = codec;
+        this.width = codec.width();
+        this.segmentSlots = segmentSlots;
+        this.channel = channel;
+        this.header = header;
+        this.segments = new ByteBuffer[0];
+        this.scratch = new byte[Math.max(width, SCRATCH_BYTES - SCRATCH_BYTES % width)];
+        this.descending = false;
+        this.numElements = 0;
+    }
+
+    /**
+     * Creates an empty ascending set stored in a file, replacing anything already in the file.
+     * @param file the file to store the set in
+     * @param codec encodes the elements
+     * @return the new set
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static <R extends Comparable<R>> OffHeapOrderedSet<R> create(Path file, KeyCodec<R> codec)
+            throws IOException{
+        return create(file, codec, DEFAULT_SEGMENT_SLOTS);
+    }
+
+    /**
+     * Creates an empty ascending set stored in a file, replacing anything already in the file.
+     * @param file the file to store the set in
+     * @param codec encodes the elements
+     * @param segmentSlots number of elements per mapped segment
+     * @return the new set
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static <R extends Comparable<R>> OffHeapOrderedSet<R> create(Path file, KeyCodec<R> codec,
+            int segmentSlots)throws IOException{
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try{
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            OffHeapOrderedSet<R> set = new OffHeapOrderedSet<>(codec, segmentSlots, channel, header);
+            set.writeHeader();
+            return set;
+        }
+        catch(IOException | RuntimeException e){
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reopens a set previously stored in a file. Only the header is read; the elements are
+     * mapped where they lie, so this takes the same time however large the set is.
+     * @param file the file holding the set
+     * @param codec encodes the elements, which must have the width the set was created with
+     * @return the reopened set
+     * @throws IOException if the file cannot be mapped or was not written by this class with a
+     * codec of the same width
+     */
+    public static <R extends Comparable<R>> OffHeapOrderedSet<R> open(Path file, KeyCodec<R> codec)
+            throws IOException{
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try{
+            if(channel.size() < HEADER_BYTES){
+                throw new IOException("Not an ordered set file: " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            if(header.getInt(0) != MAGIC || header.getInt(4) != VERSION){
+                throw new IOException("Not an ordered set file: " + file);
+            }
+            if(codec == null || header.getInt(WIDTH_AT) != codec.width()){
+                throw new IOException("Key width does not match the file: " + file);
+            }
+            OffHeapOrderedSet<R> set = new OffHeapOrderedSet<>(codec, header.getInt(SEGMENT_AT), channel, header);
+            set.descending = (header.getInt(FLAGS_AT) & DESCENDING_FLAG) != 0;
+            int count = header.getInt(COUNT_AT);
+            set.ensureCapacity(count);
+            set.numElements = count;
+            return set;
+        }
+        catch(IOException | RuntimeException e){
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Write the whole header. */
+    private void writeHeader(){
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(WIDTH_AT, width);
+        header.putInt(SEGMENT_AT, segmentSlots);
+        header.putInt(FLAGS_AT, descending ? DESCENDING_FLAG : 0);
+        header.putInt(COUNT_AT, numElements);
+    }
+
+    /**
+     * Record a new element count.
+     * @param count the new number of elements
+     */
+    private void setSize(int count){
+        numElements = count;
+        header.putInt(COUNT_AT, count);
+    }
+
+    /**
+     * Makes sure the storage has room for a number of elements by adding segments.
+     * @param size the number of elements that must fit
+     * @throws IllegalStateException if a file segment cannot be mapped
+     */
+    protected void ensureCapacity(int size)throws IllegalStateException{
+        int needed = (int) (((long) size + segmentSlots - 1) / segmentSlots);
+        if(needed <= segments.length){
+            return;
+        }
+        int oldCount = segments.length;
+        segments = Arrays.copyOf(segments, needed);
+        int segmentBytes = segmentSlots * width;
+        for(int i = oldCount; i < needed; i++){
+            if(channel == null){
+                segments[i] = ByteBuffer.allocateDirect(segmentBytes);
+            }
+            else{
+                try{
+                    segments[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        HEADER_BYTES + (long) i * segmentBytes, segmentBytes);
+                }
+                catch(IOException e){
+                    segments = Arrays.copyOf(segments, i);
+                    throw new IllegalStateException("Cannot map segment " + i, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of elements the storage can hold before another segment is added.
+     * @return the capacity of the set
+     */
+    public int capacity(){
+        return segments.length * segmentSlots;
+    }
+
+    /**
+     * Find the segment holding a slot.
+     * @param slot the slot
+     * @return the buffer holding the slot
+     */
+    private ByteBuffer segment(int slot){
+        return segments[slot / segmentSlots];
+    }
+
+    /**
+     * Find the position of a slot within its segment.
+     * @param slot the slot
+     * @return the byte offset of the slot within its segment
+     */
+    private int offset(int slot){
+        return (slot % segmentSlots) * width;
+    }
+
+    /**
+     * Decode the element in a slot.
+     * @param slot the slot, lowest to highest
+     * @return the element
+     */
+    private R read(int slot){
+        return codec.decode(segment(slot), offset(slot));
+    }
+
+    /**
+     * Encode an element into a slot.
+     * @param slot the slot, lowest to highest
+     * @param element the element to store
+     */
+    private void write(int slot, R element){
+        codec.encode(element, segment(slot), offset(slot));
+    }
+
+    /**
+     * Move a run of encoded elements to other slots. The runs may overlap.
+     * @param from the first slot to move
+     * @param to the slot the first element moves to
+     * @param count the number of elements to move
+     */
+    private void moveSlots(int from, int to, int count){
+        int perChunk = scratch.length / width;
+        boolean backwards = to > from;
+        int done = 0;
+        while(done < count){
+            int remaining = count - done;
+            int source = backwards ? from + remaining - 1 : from + done;
+            int target = backwards ? to + remaining - 1 : to + done;
+            int chunk = Math.min(remaining, perChunk);
+            if(backwards){
+                chunk = Math.min(chunk, Math.min(source % segmentSlots, target % segmentSlots) + 1);
+                source -= chunk - 1;
+                target -= chunk - 1;
+            }
+            else{
+                chunk = Math.min(chunk, segmentSlots - Math.max(source % segmentSlots, target % segmentSlots));
+            }
+            segment(source).get(offset(source), scratch, 0, chunk * width);
+            segment(target).put(offset(target), scratch, 0, chunk * width);
+            done += chunk;
+        }
+    }
+
+    /**
+     * Binary search for an element among the encoded keys.
+     * @param key the element to search for
+     * @return the slot of the element if it is in the set, otherwise (-(insertion point) - 1)
+     */
+    private int search(R key){
+        int low = 0;
+        int high = numElements - 1;
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            int cmp = codec.compare(segment(mid), offset(mid), key);
+            if(cmp < 0){
+                low = mid + 1;
+            }
+            else if(cmp > 0){
+                high = mid - 1;
+            }
+            else{
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Find the slot of an object.
+     * @param input the object to look for
+     * @return the slot holding input, or -1 if it is not in the set
+     * @throws IllegalArgumentException if input is null
+     */
+    private int getPosition(Object input)throws IllegalArgumentException{
+        if(input == null){
+            throw new IllegalArgumentException();
+        }
+        int result = -1;
+        if(input instanceof Comparable){
+            try{
+                int index = search((R) input);
+                if(index >= 0){
+                    result = index;
+                }
+            }
+            catch(ClassCastException e){
+                result = -1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Translate an index in the current direction of the set to a slot.
+     * @param index position counted from the front of the set
+     * @return the slot holding that position
+     */
+    private int physical(int index){
+        return descending ? numElements - 1 - index : index;
+    }
+
+    /**
+     * Adds the specified element to the set if it is not already in the set.
+     * @param element the element to add
+     * @return true if the element was added
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean add(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        int index = search(element);
+        if(index >= 0){
+            return false;
+        }
+        index = -(index + 1);
+        ensureCapacity(numElements + 1);
+        moveSlots(index, index + 1, numElements - index);
+        write(index, element);
+        setSize(numElements + 1);
+        return true;
+    }
+
+    /**
+     * Adds every element of a collection. The batch is sorted and stripped of duplicates, then
+     * merged into the storage from the back in a single pass.
+     * @param collection the elements to add
+     * @return true if the set changed
+     * @throws IllegalArgumentException if collection is null or contains null
+     */
+    public boolean addAll(Collection<? extends R> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        R[] batch = OrderedSupport.sortedDistinct(collection, false);
+        if(batch.length == 0){
+            return false;
+        }
+        int prevSize = numElements;
+        int total = numElements + batch.length;
+        ensureCapacity(total);
+        int write = total - 1;
+        int mine = numElements - 1;
+        int theirs = batch.length - 1;
+        while(theirs >= 0){
+            int cmp = mine < 0 ? -1 : codec.compare(segment(mine), offset(mine), batch[theirs]);
+            if(cmp > 0){
+                moveSlots(mine--, write--, 1);
+            }
+            else{
+                if(cmp == 0){
+                    mine--;
+                }
+                write(write--, batch[theirs--]);
+            }
+        }
+        int skipped = write + 1 - (mine + 1);
+        if(skipped > 0){
+            moveSlots(write + 1, mine + 1, total - write - 1);
+        }
+        setSize(total - skipped);
+        return numElements != prevSize;
+    }
+
+    /**
+     * Checks to see if the set contains a given item.
+     * @param item the object to look for
+     * @return true if the item is in the set
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean contains(Object item)throws IllegalArgumentException{
+        return getPosition(item) != -1;
+    }
+
+    /**
+     * Checks to see if this set contains all of the elements of a collection.
+     * @param collection the elements to look for
+     * @return true if they are all in the set
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean containsAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        for(Object item : collection){
+            if(!contains(item)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes a specified item from the set.
+     * @param item the item to remove
+     * @return true if the item was in the set
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean remove(Comparable item)throws IllegalArgumentException{
+        int index = getPosition(item);
+        if(index == -1){
+            return false;
+        }
+        moveSlots(index + 1, index, numElements - index - 1);
+        setSize(numElements - 1);
+        return true;
+    }
+
+    /**
+     * Removes every element found in a collection.
+     * @param collection the elements to remove
+     * @return true if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    public boolean removeAll(Collection<?> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        return sweep(collection, false);
+    }
+
+    /**
+     * Keeps only the elements found in a collection.
+     * @param collection the elements to keep
+     * @return true if the set changed
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean retainAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        return sweep(collection, true);
+    }
+
+    /**
+     * Keep or drop every element depending on whether it is in a collection, compacting the kept
+     * elements in one pass.
+     * @param collection the collection to test membership against
+     * @param retain true to keep the elements found in collection, false to keep the others
+     * @return true if any element was dropped
+     */
+    private boolean sweep(Collection<?> collection, boolean retain){
+        int write = 0;
+        for(int read = 0; read < numElements; read++){
+            if(collection.contains(read(read)) == retain){
+                if(write != read){
+                    moveSlots(read, write, 1);
+                }
+                write++;
+            }
+        }
+        boolean result = write != numElements;
+        setSize(write);
+        return result;
+    }
+
+    /** Removes every element. The storage is kept for reuse. */
+    public void clear(){
+        setSize(0);
+    }
+
+    /**
+     * Checks to see if the set is empty.
+     * @return true if the set holds no elements
+     */
+    public boolean isEmpty(){
+        return numElements == 0;
+    }
+
+    /**
+     * Gets the number of elements within the set.
+     * @return the number of elements
+     */
+    public int size(){
+        return numElements;
+    }
+
+    /**
+     * Get the element at a position, counting from the front of the set in its current direction.
+     * @param index position of the element
+     * @return a decoded copy of the element
+     * @throws NoSuchElementException if index is outside of the set
+     */
+    public R get(int index)throws NoSuchElementException{
+        if(index < 0 || index >= numElements){
+            throw new NoSuchElementException();
+        }
+        return read(physical(index));
+    }
+
+    /**
+     * This function will return true if this set is descending and false if it is not.
+     * @return true if descending
+     */
+    public boolean isReversed(){
+        return descending;
+    }
+
+    /**
+     * Reverse the order of the set. The stored elements do not move; only the direction flag,
+     * which is also recorded in the header, changes.
+     */
+    public void reverse(){
+        descending = !descending;
+        header.putInt(FLAGS_AT, descending ? DESCENDING_FLAG : 0);
+    }
+
+    /** Print each item in the set. */
+    public void printList(){
+        for(R data : this){
+            System.out.println(data);
+        }
+    }
+
+    /**
+     * Constructs a string with the elements in the form &lt;e, e, e&gt;
+     * @return the string representation of the set
+     */
+    public String toString(){
+        StringBuilder sb = new StringBuilder();
+        sb.append("<");
+        for(int i = 0; i < numElements; i++){
+            if(i != 0){
+                sb.append(", ");
+            }
+            sb.append(read(physical(i)).toString());
+        }
+        sb.append(">");
+        return sb.toString();
+    }
+
+    /**
+     * Compares this set with another collection for equality.
+     * @param other the object to compare with
+     * @return true if other is a Collection of the same size whose members are all in this set
+     */
+    public boolean equals(Object other){
+        boolean result = false;
+        if(other instanceof Collection){
+            Collection<?> temp = (Collection<?>) other;
+            result = size() == temp.size() && containsAll(temp);
+        }
+        return result;
+    }
+
+    /**
+     * Hash code consistent with equals, the sum of the hash codes of the elements.
+     * @return hash code of this set
+     */
+    public int hashCode(){
+        int hash = 0;
+        for(int i = 0; i < numElements; i++){
+            hash += read(i).hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Flush any changes to a file backed set out to the file. Does nothing for a set in direct
+     * memory.
+     */
+    public void force(){
+        if(channel != null){
+            ((MappedByteBuffer) header).force();
+            for(ByteBuffer segment : segments){
+                ((MappedByteBuffer) segment).force();
+            }
+        }
+    }
+
+    /**
+     * Flush and close the backing file. The set must not be used afterwards.
+     * @throws IOException if the file cannot be closed
+     */
+    public void close()throws IOException{
+        if(channel != null){
+            force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Provides an iterator that decodes the elements in the current order of the set.
+     * @return iterator over the set
+     */
+    public Iterator<R> iterator(){
+        return new SlotIterator();
+    }
+
+    /** Iterator over the slots in the current direction of the set. */
+    private class SlotIterator implements Iterator<R>{
+        /** location of the iterator */
+        private int index;
+
+        /** Create a new iterator at the start of the set. */
+        private SlotIterator(){
+            index = 0;
+        }
+
+        /** Determines if there are elements left in the set. */
+        public boolean hasNext(){
+            return index < numElements;
+        }
+
+        /** Returns the next element of the set. */
+        public R next(){
+            if(index >= numElements){
+                throw new NoSuchElementException();
+            }
+            R element = read(physical(index));
+            index++;
+            return element;
+        }
+    }
+}
@@ -0,0 +1,546 @@
+package orderedSet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This is a concrete implementation of a Set as a doubly linked list that is stored in parallel
+ * arrays instead of node objects. Like OrderedLink it models the mathematical set abstraction in
+ * which the set must not contain duplicates and the values in the set must be ordered
+ * (determined using the compareTo method of each object element).
+ * <br>
+ * Each element lives in a slot: values[slot] holds the element and next[slot] and prev[slot] hold
+ * the slots of its higher and lower neighbours, or NIL at the ends. Removed slots are chained
+ * into a free list through next and handed out again by later adds, so once the arrays have grown
+ * to the working size adding and removing allocates nothing and leaves no garbage behind. The
+ * list is always linked lowest to highest; a descending set is read from the tail, and searches
+ * start from the slot found by the previous search, as in OrderedLink.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public class OrderedArrayLink<R extends Comparable<R>> implements OrderedInterface<R>{
+
+    /** The link value that marks the end of the list */
+    private static final int NIL = -1;
+    /** The default number of slots */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /** boolean representing whether the list is descending or ascending */
+    private boolean descending;
+    /** The element in each slot */
+    private Object[] values;
+    /** The slot of the next (higher) element, or the next free slot for a free slot */
+    private int[] next;
+    /** The slot of the previous (lower) element */
+    private int[] prev;
+    /** The slot of the lowest element, or NIL when empty */
+    private int head;
+    /** The slot of the highest element, or NIL when empty */
+    private int tail;
+    /** The first slot of the free list, or NIL */
+    private int free;
+    /** The number of slots that have ever been handed out since the last clear */
+    private int used;
+    /** The slot found by the last add or lookup, where the next search starts; NIL when empty */
+    private int finger;
+    /** The count of elements in this list */
+    private int numElements;
+
+    /** Create an OrderedArrayLink */
+    public OrderedArrayLink(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty set with room for a number of elements before the arrays grow.
+     * @param capacity the number of slots to start with
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public OrderedArrayLink(int capacity)throws IllegalArgumentException{
+        if(capacity < 0){
+            throw new IllegalArgumentException();
+        }
+        this.descending = false;
+        this.values = new Object[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.head = NIL;
+        this.tail = NIL;
+        this.free = NIL;
+        this.used = 0;
+        this.finger = NIL;
+        this.numElements = 0;
+    }
+
+    /**
+     * Creates an 'descending' empty set.
+     * @param descending if set is to be descending
+     */
+    public OrderedArrayLink(boolean descending){
+        this();
+        this.descending = descending;
+    }
+
+    /**
+     * Create a OrderedArrayLink based on the values from any Collection.
+     * @param collection collection whose data to be added to this OrderedArrayLink
+     * @param descending if set is to be descending
+     * @throws IllegalArgumentException if collection is null
+     */
+    public OrderedArrayLink(Collection<R> collection, boolean descending)throws IllegalArgumentException{
+        this(descending);
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        addAll(collection);
+    }
+
+    /** Clear the set so that the are 0 elements. The slots are kept for reuse. */
+    public void clear(){
+        Arrays.fill(values, 0, used, null);
+        this.head = NIL;
+        this.tail = NIL;
+        this.free = NIL;
+        this.used = 0;
+        this.finger = NIL;
+        this.numElements = 0;
+    }
+
+    /** Return true if this set is empty.
+     * @return boolean indicating if set is empty
+     */
+    public boolean isEmpty(){
+        return numElements == 0;
+    }
+
+    /** Get the number of elements in this list.
+     * @return number of elements in this list
+     */
+    public int size(){
+        return this.numElements;
+    }
+
+    /** Print each item in the set. */
+    public void printList(){
+        for(R data:this){
+            System.out.println(data);
+        }
+    }
+
+    /**
+     * Display this class as a String.
+     * @return elements in the list in displayable format
+     */
+    public String toString(){
+        StringBuilder sb = new StringBuilder();
+        sb.append("<");
+        Iterator<R> it = iterator();
+        while(it.hasNext()){
+            sb.append(it.next().toString());
+            if(it.hasNext()){
+                sb.append(", ");
+            }
+        }
+        sb.append(">");
+        return sb.toString();
+    }
+
+    /**
+     * Get the element in a slot.
+     * @param slot the slot
+     * @return the element
+     */
+    private R value(int slot){
+        return (R) values[slot];
+    }
+
+    /**
+     * Get the item at the index position specified, counting from the front of the set in its
+     * current direction. The walk starts from whichever end of the list is closer.
+     * @param location index to retrieve an item from
+     * @return the item from a particular index
+     * @throws NoSuchElementException if location is outside of the set
+     */
+    public R get(int location)throws NoSuchElementException{
+        if(location < 0 || location >= numElements){
+            throw new NoSuchElementException();
+        }
+        int fromHead = descending ? numElements - 1 - location : location;
+        int current;
+        if(fromHead < numElements / 2){
+            current = head;
+            for(int i = 0; i < fromHead; i++){
+                current = next[current];
+            }
+        }
+        else{
+            current = tail;
+            for(int i = numElements - 1; i > fromHead; i--){
+                current = prev[current];
+            }
+        }
+        return value(current);
+    }
+
+    /**
+     * Find the first slot whose element is not lower than element, starting from the finger left
+     * by the previous search. The finger is left on the slot found.
+     * @param element the element being searched for
+     * @return the slot holding element or something higher, or NIL if every element is lower
+     */
+    private int ceilingSlot(R element){
+        if(tail == NIL || value(tail).compareTo(element) < 0){
+            return NIL;
+        }
+        int current;
+        if(value(head).compareTo(element) >= 0){
+            current = head;
+        }
+        else{
+            current = (finger == NIL) ? head : finger;
+            if(value(current).compareTo(element) < 0){
+                while(value(current).compareTo(element) < 0){
+                    current = next[current];
+                }
+            }
+            else{
+                while(value(prev[current]).compareTo(element) >= 0){
+                    current = prev[current];
+                }
+            }
+        }
+        finger = current;
+        return current;
+    }
+
+    /**
+     * Return the slot which matches this object.
+     * @param input the object whose slot to find
+     * @return slot holding input or NIL if it is not in the set
+     * @throws IllegalArgumentException if input is null
+     */
+    private int findSlot(Object input)throws IllegalArgumentException{
+        if(input == null){
+            throw new IllegalArgumentException();
+        }
+        int toReturn = NIL;
+        if(input instanceof Comparable){
+            try{
+                int candidate = ceilingSlot((R) input);
+                if(candidate != NIL && value(candidate).compareTo((R) input) == 0){
+                    toReturn = candidate;
+                }
+            }
+            catch(ClassCastException e){
+                toReturn = NIL;
+            }
+        }
+        return toReturn;
+    }
+
+    /**
+     * Add an item in order where it needs to go within the set.
+     * @param element the element to add
+     * @return boolean indicating if item was added
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean add(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        boolean toReturn = false;
+        int successor = ceilingSlot(element);
+        if(successor == NIL || value(successor).compareTo(element) != 0){
+            finger = linkBefore(element, successor);
+            toReturn = true;
+        }
+        return toReturn;
+    }
+
+    /**
+     * Take a slot from the free list, or the next unused slot, growing the arrays if needed.
+     * @return a slot that is not in the list
+     */
+    private int allocate(){
+        int slot = free;
+        if(slot != NIL){
+            free = next[slot];
+        }
+        else{
+            if(used == values.length){
+                int capacity = Math.max(DEFAULT_CAPACITY, values.length * 2);
+                values = Arrays.copyOf(values, capacity);
+                next = Arrays.copyOf(next, capacity);
+                prev = Arrays.copyOf(prev, capacity);
+            }
+            slot = used++;
+        }
+        return slot;
+    }
+
+    /**
+     * Store an element in a new slot and link it in directly before another slot.
+     * Does not check if item is already in the list.
+     * @param element the element to store
+     * @param successor slot to insert in front of, or NIL to append at the tail
+     * @return the slot the element was stored in
+     */
+    private int linkBefore(R element, int successor){
+        int slot = allocate();
+        int predecessor = (successor == NIL) ? tail : prev[successor];
+        values[slot] = element;
+        next[slot] = successor;
+        prev[slot] = predecessor;
+        if(predecessor == NIL){
+            head = slot;
+        }
+        else{
+            next[predecessor] = slot;
+        }
+        if(successor == NIL){
+            tail = slot;
+        }
+        else{
+            prev[successor] = slot;
+        }
+        numElements++;
+        return slot;
+    }
+
+    /**
+     * Take a slot out of the list and put it on the free list.
+     * @param slot the slot to unlink
+     */
+    private void unlink(int slot){
+        if(finger == slot){
+            finger = (next[slot] != NIL) ? next[slot] : prev[slot];
+        }
+        if(prev[slot] == NIL){
+            head = next[slot];
+        }
+        else{
+            next[prev[slot]] = next[slot];
+        }
+        if(next[slot] == NIL){
+            tail = prev[slot];
+        }
+        else{
+            prev[next[slot]] = prev[slot];
+        }
+        values[slot] = null;
+        next[slot] = free;
+        free = slot;
+        numElements--;
+    }
+
+    /**
+     * Add all items from another Collection to this set. The incoming elements are sorted and
+     * stripped of duplicates first and then spliced into the list during a single walk.
+     * @param collection whose data to add all elements from
+     * @return boolean indicating if the set changed
+     * @throws NullPointerException if collection is null
+     * @throws IllegalArgumentException if the collection contains null
+     */
+    public boolean addAll(Collection<? extends R> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        int prevSize = numElements;
+        R[] batch = OrderedSupport.sortedDistinct(collection, false);
+        int current = (batch.length == 0) ? NIL : ceilingSlot(batch[0]);
+        for(R element : batch){
+            while(current != NIL && value(current).compareTo(element) < 0){
+                current = next[current];
+            }
+            if(current == NIL || value(current).compareTo(element) != 0){
+                linkBefore(element, current);
+            }
+        }
+        return numElements != prevSize;
+    }
+
+    /**
+     * Determine if a specific object is in the set.
+     * @param element to check if contained within this set
+     * @return boolean indicating if element passed is contained within this set
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean contains(Object element)throws IllegalArgumentException{
+        return findSlot(element) != NIL;
+    }
+
+    /**
+     * Returns true if this set contains all of the elements of the specified Collection. An
+     * OrderedInterface argument is checked with a single merge pass over both sets.
+     * @param collection to check if all its data is contained within ours
+     * @return boolean
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean containsAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        if(collection instanceof OrderedInterface){
+            return OrderedSupport.containsAllSorted(iterator(), (OrderedInterface<?>) collection, descending);
+        }
+        for(Object item : collection){
+            if(!contains(item)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     * @param item to remove from set
+     * @return boolean indicating if item was succesfully removed
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean remove(Comparable item)throws IllegalArgumentException{
+        int target = findSlot(item);
+        if(target == NIL){
+            return false;
+        }
+        unlink(target);
+        return true;
+    }
+
+    /**
+     * Removes from this set all of its elements that are contained in the specified Collection.
+     * @param collection whose data to remove all from in this set
+     * @return boolean indicating if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    public boolean removeAll(Collection<?> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        return sweep(collection, false);
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the specified Collection.
+     * @param collection whose elements to retain
+     * @return boolean indicating if the set changed
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean retainAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        return sweep(collection, true);
+    }
+
+    /**
+     * Walk the list once, unlinking each element whose membership in a collection does not match
+     * retain. An OrderedInterface collection is walked side by side with the list.
+     * @param collection the collection to test membership in
+     * @param retain true to keep the elements found in collection, false to remove them
+     * @return true if the set changed
+     */
+    private boolean sweep(Collection<?> collection, boolean retain){
+        int prevSize = numElements;
+        OrderedSupport.Membership membership = new OrderedSupport.Membership(collection);
+        int current = head;
+        while(current != NIL){
+            int following = next[current];
+            boolean found = membership.contains(values[current]);
+            if(found != retain){
+                unlink(current);
+            }
+            current = following;
+        }
+        return numElements != prevSize;
+    }
+
+    /**
+     * Compares the specified object with this set for equality. Returns true if the specified
+     * object is also a Collection, the two have the same size, and every member of the specified
+     * collection is contained in this set.
+     * @param other the specified object to be compared
+     * @return boolean indicating if items were equal or not
+     */
+    public boolean equals(Object other){
+        boolean result = false;
+        if(other instanceof Collection){
+            Collection<?> temp = (Collection<?>) other;
+            result = this.size() == temp.size() && containsAll(temp);
+        }
+        return result;
+    }
+
+    /**
+     * Hash code consistent with equals, the sum of the hash codes of the elements.
+     * @return hash code of this set
+     */
+    public int hashCode(){
+        int hash = 0;
+        for(int current = head; current != NIL; current = next[current]){
+            hash += values[current].hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * This function will return true if this set is descending and false if it is ascending.
+     * @return boolean indicating if set is descending or ascending
+     */
+    public boolean isReversed(){
+        return this.descending;
+    }
+
+    /**
+     * Reverse the order of the set. The slots stay linked lowest to highest; only the direction
+     * they are read in changes, so this runs in constant time.
+     */
+    public void reverse(){
+        this.descending = !this.descending;
+    }
+
+    /**
+     * Return an iterator for this OrderedArrayLink
+     * @return iterator over the set in its current order
+     */
+    public Iterator<R> iterator(){
+        return new SlotIterator();
+    }
+
+    /**
+     * An iterator that follows the links in the current direction.
+     */
+    private class SlotIterator implements Iterator<R>{
+
+        /** The slot to return next */
+        private int current;
+
+        /** Creates a SlotIterator starting from the front of the set in its current direction */
+        private SlotIterator(){
+            this.current = descending ? tail : head;
+        }
+
+        /** Is there another element to access in this list?
+         * @return true if there is another element
+         */
+        public boolean hasNext(){
+            return current != NIL;
+        }
+
+        /** Get the next element in the list if one exists.
+         * @return the next element
+         * @throws NoSuchElementException if the iteration is over
+         */
+        public R next(){
+            if(current == NIL){
+                throw new NoSuchElementException();
+            }
+            R data = value(current);
+            current = descending ? prev[current] : next[current];
+            return data;
+        }
+    }
+}
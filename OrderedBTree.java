@@ -0,0 +1,915 @@
+package orderedSet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This is a concrete implementation of a Set using a B+ tree. Like the other implementations it
+ * models the mathematical set abstraction in which the set must not contain duplicates and the
+ * values in the set must be ordered (determined using the compareTo method of each object
+ * element).
+ * <br>
+ * The elements are kept in leaves of up to fanout sorted elements, and inner nodes of up to
+ * fanout children route a search to the right leaf, so the tree is only log base fanout / 2 of n
+ * levels deep. add, remove and contains take O(log n) with one binary search per level, and
+ * every node but the root is kept at least half full by splitting, borrowing and merging.
+ * The leaves are linked in both directions, so iteration reads whole arrays in order and never
+ * climbs back up the tree. Inner nodes also record the size of each child, so get takes
+ * O(log n).
+ * <br>
+ * The tree is always ordered lowest to highest; a descending set walks the leaves from the last
+ * one backwards and counts its indexes from the highest element, so reverse() takes constant
+ * time. A large addAll, and retainAll, rebuild the tree bottom up with nodes three quarters full.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public class OrderedBTree<R extends Comparable<R>> implements OrderedInterface<R>{
+
+    /** The fanout used when none is given */
+    public static final int DEFAULT_FANOUT = 64;
+    /** The smallest fanout allowed */
+    public static final int MIN_FANOUT = 4;
+
+    /** The most elements in a leaf and the most children of an inner node */
+    private final int fanout;
+    /** boolean representing whether the tree is descending or ascending */
+    private boolean descending;
+    /** The root of the tree, a leaf while the tree has a single level */
+    private Node<R> root;
+    /** The lowest leaf */
+    private Leaf<R> head;
+    /** The highest leaf */
+    private Leaf<R> tail;
+    /** Number of elements in the tree */
+    private int numElements;
+    /** Set by insert and delete when they change the tree */
+    private boolean modified;
+    /** The separator handed up to the parent by the last split */
+    private R promoted;
+
+    /** Create an ascending OrderedBTree with DEFAULT_FANOUT */
+    public OrderedBTree(){
+        this(DEFAULT_FANOUT, false);
+    }
+
+    /**
+     * Creates an 'descending' empty set with DEFAULT_FANOUT.
+     * @param descending if set is to be descending
+     */
+    public OrderedBTree(boolean descending){
+        this(DEFAULT_FANOUT, descending);
+    }
+
+    /**
+     * Creates an empty set with a chosen fanout. A larger fanout gives a shallower tree and
+     * longer runs of elements per leaf; a smaller one moves fewer elements on each add and
+     * remove.
+     * @param fanout the most elements in a leaf and the most children of an inner node
+     * @param descending if set is to be descending
+     * @throws IllegalArgumentException if fanout is less than MIN_FANOUT
+     */
+    public OrderedBTree(int fanout, boolean descending)throws IllegalArgumentException{
+        if(fanout < MIN_FANOUT){
+            throw new IllegalArgumentException();
+        }
+        this.fanout = fanout;
+        this.descending = descending;
+        clear();
+    }
+
+    /**
+     * Create a OrderedBTree based on the values from any Collection.
+     * @param collection collection whose data to be added to this OrderedBTree
+     * @param descending if set is to be descending
+     * @throws IllegalArgumentException if collection is null or contains null
+     */
+    public OrderedBTree(Collection<R> collection, boolean descending)throws IllegalArgumentException{
+        this(descending);
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        R[] sorted = OrderedSupport.sortedDistinct(collection, false);
+        build(sorted, sorted.length);
+    }
+
+    /**
+     * The fanout of the tree.
+     * @return the most elements in a leaf and the most children of an inner node
+     */
+    public int fanout(){
+        return fanout;
+    }
+
+    /**
+     * The fewest elements in a leaf, or children of an inner node, other than the root.
+     * @return half the fanout
+     */
+    private int minimum(){
+        return fanout / 2;
+    }
+
+    /** Clear the set so that the are 0 elements. */
+    public void clear(){
+        Leaf<R> leaf = new Leaf<>(fanout);
+        root = leaf;
+        head = leaf;
+        tail = leaf;
+        numElements = 0;
+    }
+
+    /** Return true if this set is empty.
+     * @return boolean indicating if set is empty
+     */
+    public boolean isEmpty(){
+        return numElements == 0;
+    }
+
+    /** Get the number of elements in this tree.
+     * @return size of set
+     */
+    public int size(){
+        return numElements;
+    }
+
+    /** Print each item in the set. */
+    public void printList(){
+        for(R data : this){
+            System.out.println(data);
+        }
+    }
+
+    /**
+     * Display this class as a String.
+     * @return elements of the set in displayable format
+     */
+    public String toString(){
+        StringBuilder sb = new StringBuilder();
+        sb.append("<");
+        Iterator<R> it = iterator();
+        while(it.hasNext()){
+            sb.append(it.next().toString());
+            if(it.hasNext()){
+                sb.append(", ");
+            }
+        }
+        sb.append(">");
+        return sb.toString();
+    }
+
+    /**
+     * Get the item at the index position specified, counting from the front of the set in its
+     * current direction. Found by descending the tree using the child sizes, in O(log n).
+     * @param location index to retrieve an item from
+     * @return the item from a particular index
+     * @throws NoSuchElementException if location is outside of the set
+     */
+    public R get(int location)throws NoSuchElementException{
+        if(location < 0 || location >= numElements){
+            throw new NoSuchElementException();
+        }
+        int rank = descending ? numElements - 1 - location : location;
+        Node<R> node = root;
+        while(node instanceof Inner){
+            Inner<R> inner = (Inner<R>) node;
+            int child = 0;
+            while(rank >= inner.sizes[child]){
+                rank -= inner.sizes[child];
+                child++;
+            }
+            node = inner.children[child];
+        }
+        return node.keys[rank];
+    }
+
+    /**
+     * Find the child of an inner node whose range holds a key.
+     * @param inner the inner node
+     * @param key the key
+     * @return the index of the child
+     */
+    private static <R extends Comparable<R>> int childIndex(Inner<R> inner, Object key){
+        int index = Arrays.binarySearch(inner.keys, 0, inner.count - 1, key);
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
+    /**
+     * Find the leaf whose range holds a key.
+     * @param key the key
+     * @return the leaf
+     * @throws ClassCastException if key cannot be compared with the elements
+     */
+    private Leaf<R> leafFor(Object key){
+        Node<R> node = root;
+        while(node instanceof Inner){
+            Inner<R> inner = (Inner<R>) node;
+            node = inner.children[childIndex(inner, key)];
+        }
+        return (Leaf<R>) node;
+    }
+
+    /**
+     * Get the number of elements below a node.
+     * @param node the node
+     * @return the number of elements in its subtree
+     */
+    private static int size(Node<?> node){
+        if(node instanceof Leaf){
+            return node.count;
+        }
+        int total = 0;
+        Inner<?> inner = (Inner<?>) node;
+        for(int i = 0; i < inner.count; i++){
+            total += inner.sizes[i];
+        }
+        return total;
+    }
+
+    /**
+     * Add an item in order where it needs to go within the set.
+     * @param element the element to add
+     * @return boolean indicating if item was added
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean add(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        modified = false;
+        Node<R> sibling = insert(root, element);
+        if(sibling != null){
+            Inner<R> top = new Inner<>(fanout);
+            top.children[0] = root;
+            top.children[1] = sibling;
+            top.sizes[0] = size(root);
+            top.sizes[1] = size(sibling);
+            top.keys[0] = promoted;
+            top.count = 2;
+            root = top;
+        }
+        if(modified){
+            numElements++;
+        }
+        return modified;
+    }
+
+    /**
+     * Insert a key below a node, splitting any node that overflows on the way back up.
+     * @param node the root of the subtree
+     * @param key the key to insert
+     * @return the new right sibling of node if node split, with its separator in promoted, or
+     * null
+     */
+    private Node<R> insert(Node<R> node, R key){
+        if(node instanceof Leaf){
+            Leaf<R> leaf = (Leaf<R>) node;
+            int slot = Arrays.binarySearch(leaf.keys, 0, leaf.count, key);
+            if(slot >= 0){
+                return null;
+            }
+            slot = -(slot + 1);
+            System.arraycopy(leaf.keys, slot, leaf.keys, slot + 1, leaf.count - slot);
+            leaf.keys[slot] = key;
+            leaf.count++;
+            modified = true;
+            return leaf.count > fanout ? splitLeaf(leaf) : null;
+        }
+        Inner<R> inner = (Inner<R>) node;
+        int child = childIndex(inner, key);
+        Node<R> sibling = insert(inner.children[child], key);
+        if(!modified){
+            return null;
+        }
+        inner.sizes[child]++;
+        if(sibling == null){
+            return null;
+        }
+        System.arraycopy(inner.children, child + 1, inner.children, child + 2, inner.count - child - 1);
+        System.arraycopy(inner.sizes, child + 1, inner.sizes, child + 2, inner.count - child - 1);
+        System.arraycopy(inner.keys, child, inner.keys, child + 1, inner.count - child - 1);
+        inner.children[child + 1] = sibling;
+        inner.keys[child] = promoted;
+        inner.sizes[child + 1] = size(sibling);
+        inner.sizes[child] -= inner.sizes[child + 1];
+        inner.count++;
+        return inner.count > fanout ? splitInner(inner) : null;
+    }
+
+    /**
+     * Move the upper half of an overflowing leaf into a new leaf linked after it.
+     * @param leaf the leaf
+     * @return the new leaf, whose lowest element is left in promoted
+     */
+    private Leaf<R> splitLeaf(Leaf<R> leaf){
+        Leaf<R> right = new Leaf<>(fanout);
+        int keep = leaf.count / 2;
+        int move = leaf.count - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, move);
+        Arrays.fill(leaf.keys, keep, leaf.count, null);
+        right.count = move;
+        leaf.count = keep;
+        right.prev = leaf;
+        right.next = leaf.next;
+        if(leaf.next != null){
+            leaf.next.prev = right;
+        }
+        else{
+            tail = right;
+        }
+        leaf.next = right;
+        promoted = right.keys[0];
+        return right;
+    }
+
+    /**
+     * Move the upper half of the children of an overflowing inner node into a new inner node.
+     * @param inner the inner node
+     * @return the new inner node; the separator between the two is left in promoted
+     */
+    private Inner<R> splitInner(Inner<R> inner){
+        Inner<R> right = new Inner<>(fanout);
+        int keep = inner.count / 2;
+        int move = inner.count - keep;
+        System.arraycopy(inner.children, keep, right.children, 0, move);
+        System.arraycopy(inner.sizes, keep, right.sizes, 0, move);
+        System.arraycopy(inner.keys, keep, right.keys, 0, move - 1);
+        promoted = inner.keys[keep - 1];
+        Arrays.fill(inner.children, keep, inner.count, null);
+        Arrays.fill(inner.keys, keep - 1, inner.count - 1, null);
+        right.count = move;
+        inner.count = keep;
+        return right;
+    }
+
+    /**
+     * Add all items from another Collection to this set. A large batch is sorted, merged with
+     * the elements already in the set and the tree is rebuilt in O(n + m log m); a small batch
+     * is added one element at a time.
+     * @param collection whose data to add all elements from
+     * @return boolean indicating if the set changed
+     * @throws NullPointerException if collection is null
+     * @throws IllegalArgumentException if the collection contains null
+     */
+    public boolean addAll(Collection<? extends R> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        int prevSize = numElements;
+        if(collection.size() < prevSize / 4){
+            for(R data : collection){
+                add(data);
+            }
+            return numElements != prevSize;
+        }
+        R[] batch = OrderedSupport.sortedDistinct(collection, false);
+        R[] merged = (R[]) new Comparable[prevSize + batch.length];
+        int count = 0;
+        int theirs = 0;
+        for(Leaf<R> leaf = head; leaf != null; leaf = leaf.next){
+            for(int i = 0; i < leaf.count; i++){
+                R mine = leaf.keys[i];
+                while(theirs < batch.length && batch[theirs].compareTo(mine) < 0){
+                    merged[count++] = batch[theirs++];
+                }
+                if(theirs < batch.length && batch[theirs].compareTo(mine) == 0){
+                    theirs++;
+                }
+                merged[count++] = mine;
+            }
+        }
+        while(theirs < batch.length){
+            merged[count++] = batch[theirs++];
+        }
+        if(count != prevSize){
+            build(merged, count);
+        }
+        return count != prevSize;
+    }
+
+    /**
+     * Decide how many nodes to pack a level of a bulk built tree into, aiming for three
+     * quarters full without leaving any node below the minimum.
+     * @param length the number of elements or children to pack
+     * @return the number of nodes
+     */
+    private int groups(int length){
+        int fill = Math.max(minimum(), fanout * 3 / 4);
+        int groups = (length + fill - 1) / fill;
+        if(length / groups < minimum()){
+            groups = Math.max(1, length / minimum());
+        }
+        return groups;
+    }
+
+    /**
+     * Replace the tree with one built bottom up from a sorted array.
+     * @param sorted distinct elements lowest to highest
+     * @param count the number of elements at the front of sorted
+     */
+    private void build(R[] sorted, int count){
+        clear();
+        if(count == 0){
+            return;
+        }
+        int leaves = groups(count);
+        Node<R>[] level = new Node[leaves];
+        R[] lows = (R[]) new Comparable[leaves];
+        Leaf<R> previous = null;
+        int start = 0;
+        for(int i = 0; i < leaves; i++){
+            int end = (int) ((long) count * (i + 1) / leaves);
+            Leaf<R> leaf = new Leaf<>(fanout);
+            System.arraycopy(sorted, start, leaf.keys, 0, end - start);
+            leaf.count = end - start;
+            leaf.prev = previous;
+            if(previous != null){
+                previous.next = leaf;
+            }
+            level[i] = leaf;
+            lows[i] = leaf.keys[0];
+            previous = leaf;
+            start = end;
+        }
+        head = (Leaf<R>) level[0];
+        tail = previous;
+        while(level.length > 1){
+            int parents = groups(level.length);
+            Node<R>[] above = new Node[parents];
+            R[] aboveLows = (R[]) new Comparable[parents];
+            start = 0;
+            for(int i = 0; i < parents; i++){
+                int end = (int) ((long) level.length * (i + 1) / parents);
+                Inner<R> inner = new Inner<>(fanout);
+                for(int j = start; j < end; j++){
+                    inner.children[j - start] = level[j];
+                    inner.sizes[j - start] = size(level[j]);
+                    if(j > start){
+                        inner.keys[j - start - 1] = lows[j];
+                    }
+                }
+                inner.count = end - start;
+                above[i] = inner;
+                aboveLows[i] = lows[start];
+                start = end;
+            }
+            level = above;
+            lows = aboveLows;
+        }
+        root = level[0];
+        numElements = count;
+    }
+
+    /**
+     * Determine if a specific object is in the set.
+     * @param element to check if contained within this set
+     * @return boolean indicating if element passed is contained within this set
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean contains(Object element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        if(!(element instanceof Comparable)){
+            return false;
+        }
+        try{
+            Leaf<R> leaf = leafFor(element);
+            return Arrays.binarySearch(leaf.keys, 0, leaf.count, element) >= 0;
+        }
+        catch(ClassCastException e){
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if this set contains all of the elements of the specified Collection.
+     * @param collection to check if all its data is contained within ours
+     * @return boolean
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean containsAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        for(Object item : collection){
+            if(!contains(item)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     * @param item to remove from set
+     * @return boolean indicating if item was succesfully removed
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean remove(Comparable item)throws IllegalArgumentException{
+        if(!contains(item)){
+            return false;
+        }
+        modified = false;
+        delete(root, (R) item);
+        if(root instanceof Inner && root.count == 1){
+            root = ((Inner<R>) root).children[0];
+        }
+        numElements--;
+        return true;
+    }
+
+    /**
+     * Delete a key below a node, repairing any child left below the minimum on the way back up.
+     * @param node the root of the subtree
+     * @param key the key to delete
+     */
+    private void delete(Node<R> node, R key){
+        if(node instanceof Leaf){
+            int slot = Arrays.binarySearch(node.keys, 0, node.count, key);
+            if(slot >= 0){
+                System.arraycopy(node.keys, slot + 1, node.keys, slot, node.count - slot - 1);
+                node.keys[--node.count] = null;
+                modified = true;
+            }
+            return;
+        }
+        Inner<R> inner = (Inner<R>) node;
+        int child = childIndex(inner, key);
+        delete(inner.children[child], key);
+        if(!modified){
+            return;
+        }
+        inner.sizes[child]--;
+        if(inner.children[child].count < minimum()){
+            repair(inner, child);
+        }
+    }
+
+    /**
+     * Bring a child back up to the minimum by borrowing from a sibling that can spare an entry,
+     * or else by merging it with a sibling.
+     * @param parent the parent of the child
+     * @param child the index of the child
+     */
+    private void repair(Inner<R> parent, int child){
+        if(child > 0 && parent.children[child - 1].count > minimum()){
+            borrowFromLeft(parent, child);
+        }
+        else if(child + 1 < parent.count && parent.children[child + 1].count > minimum()){
+            borrowFromRight(parent, child);
+        }
+        else if(child > 0){
+            merge(parent, child - 1);
+        }
+        else{
+            merge(parent, child);
+        }
+    }
+
+    /**
+     * Move the last entry of the left sibling of a child to the front of the child.
+     * @param parent the parent of the child
+     * @param child the index of the child
+     */
+    private void borrowFromLeft(Inner<R> parent, int child){
+        Node<R> left = parent.children[child - 1];
+        Node<R> node = parent.children[child];
+        int moved = 1;
+        if(node instanceof Leaf){
+            System.arraycopy(node.keys, 0, node.keys, 1, node.count);
+            node.keys[0] = left.keys[left.count - 1];
+            left.keys[left.count - 1] = null;
+            parent.keys[child - 1] = node.keys[0];
+        }
+        else{
+            Inner<R> from = (Inner<R>) left;
+            Inner<R> to = (Inner<R>) node;
+            System.arraycopy(to.keys, 0, to.keys, 1, to.count - 1);
+            System.arraycopy(to.children, 0, to.children, 1, to.count);
+            System.arraycopy(to.sizes, 0, to.sizes, 1, to.count);
+            to.keys[0] = parent.keys[child - 1];
+            to.children[0] = from.children[from.count - 1];
+            to.sizes[0] = from.sizes[from.count - 1];
+            moved = to.sizes[0];
+            parent.keys[child - 1] = from.keys[from.count - 2];
+            from.keys[from.count - 2] = null;
+            from.children[from.count - 1] = null;
+        }
+        left.count--;
+        node.count++;
+        parent.sizes[child - 1] -= moved;
+        parent.sizes[child] += moved;
+    }
+
+    /**
+     * Move the first entry of the right sibling of a child to the end of the child.
+     * @param parent the parent of the child
+     * @param child the index of the child
+     */
+    private void borrowFromRight(Inner<R> parent, int child){
+        Node<R> node = parent.children[child];
+        Node<R> right = parent.children[child + 1];
+        int moved = 1;
+        if(node instanceof Leaf){
+            node.keys[node.count] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+            right.keys[right.count - 1] = null;
+            parent.keys[child] = right.keys[0];
+        }
+        else{
+            Inner<R> to = (Inner<R>) node;
+            Inner<R> from = (Inner<R>) right;
+            to.keys[to.count - 1] = parent.keys[child];
+            to.children[to.count] = from.children[0];
+            to.sizes[to.count] = from.sizes[0];
+            moved = from.sizes[0];
+            parent.keys[child] = from.keys[0];
+            System.arraycopy(from.keys, 1, from.keys, 0, from.count - 2);
+            System.arraycopy(from.children, 1, from.children, 0, from.count - 1);
+            System.arraycopy(from.sizes, 1, from.sizes, 0, from.count - 1);
+            from.keys[from.count - 2] = null;
+            from.children[from.count - 1] = null;
+        }
+        node.count++;
+        right.count--;
+        parent.sizes[child] += moved;
+        parent.sizes[child + 1] -= moved;
+    }
+
+    /**
+     * Merge a child with its right sibling and remove the sibling from the parent.
+     * @param parent the parent of the two children
+     * @param child the index of the left child
+     */
+    private void merge(Inner<R> parent, int child){
+        Node<R> left = parent.children[child];
+        Node<R> right = parent.children[child + 1];
+        if(left instanceof Leaf){
+            Leaf<R> into = (Leaf<R>) left;
+            Leaf<R> from = (Leaf<R>) right;
+            System.arraycopy(from.keys, 0, into.keys, into.count, from.count);
+            into.next = from.next;
+            if(from.next != null){
+                from.next.prev = into;
+            }
+            else{
+                tail = into;
+            }
+        }
+        else{
+            Inner<R> into = (Inner<R>) left;
+            Inner<R> from = (Inner<R>) right;
+            into.keys[into.count - 1] = parent.keys[child];
+            System.arraycopy(from.keys, 0, into.keys, into.count, from.count - 1);
+            System.arraycopy(from.children, 0, into.children, into.count, from.count);
+            System.arraycopy(from.sizes, 0, into.sizes, into.count, from.count);
+        }
+        left.count += right.count;
+        parent.sizes[child] += parent.sizes[child + 1];
+        System.arraycopy(parent.keys, child + 1, parent.keys, child, parent.count - child - 2);
+        System.arraycopy(parent.children, child + 2, parent.children, child + 1, parent.count - child - 2);
+        System.arraycopy(parent.sizes, child + 2, parent.sizes, child + 1, parent.count - child - 2);
+        parent.keys[parent.count - 2] = null;
+        parent.children[parent.count - 1] = null;
+        parent.count--;
+    }
+
+    /**
+     * Removes from this set all of its elements that are contained in the specified Collection.
+     * @param collection whose data to remove all from in this set
+     * @return boolean indicating if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    public boolean removeAll(Collection<?> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        int prevSize = numElements;
+        for(Object data : collection){
+            if(data instanceof Comparable){
+                remove((Comparable) data);
+            }
+        }
+        return numElements != prevSize;
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the specified Collection. The
+     * kept elements are collected from the leaves in order and the tree is rebuilt from them.
+     * @param collection whose elements to retain
+     * @return boolean indicating if the set changed
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean retainAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        int prevSize = numElements;
+        R[] kept = (R[]) new Comparable[prevSize];
+        int count = 0;
+        for(Leaf<R> leaf = head; leaf != null; leaf = leaf.next){
+            for(int i = 0; i < leaf.count; i++){
+                if(collection.contains(leaf.keys[i])){
+                    kept[count++] = leaf.keys[i];
+                }
+            }
+        }
+        if(count != prevSize){
+            build(kept, count);
+        }
+        return count != prevSize;
+    }
+
+    /**
+     * Compares the specified object with this set for equality. Returns true if the specified
+     * object is also a Collection, the two have the same size, and every member of the specified
+     * collection is contained in this set.
+     * @param other the specified object to be compared
+     * @return boolean indicating if items were equal or not
+     */
+    public boolean equals(Object other){
+        boolean result = false;
+        if(other instanceof Collection){
+            Collection<?> temp = (Collection<?>) other;
+            result = this.size() == temp.size() && containsAll(temp);
+        }
+        return result;
+    }
+
+    /**
+     * Hash code consistent with equals, the sum of the hash codes of the elements.
+     * @return hash code of this set
+     */
+    public int hashCode(){
+        int hash = 0;
+        for(R data : this){
+            hash += data.hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * This function will return true if this set is descending and false if it is ascending.
+     * @return boolean indicating if set is descending or ascending
+     */
+    public boolean isReversed(){
+        return this.descending;
+    }
+
+    /**
+     * Reverse the order of the set. The tree stays ordered lowest to highest; only the direction
+     * the leaves are walked and indexed in changes, so this runs in constant time.
+     */
+    public void reverse(){
+        this.descending = !this.descending;
+    }
+
+    /**
+     * Return an iterator for this OrderedBTree
+     * @return iterator over the set in its current order
+     */
+    public Iterator<R> iterator(){
+        return new LeafIterator(descending);
+    }
+
+    /**
+     * An iterator that walks the linked leaves, reading each leaf array in order.
+     */
+    private class LeafIterator implements Iterator<R>{
+
+        /** true to walk from highest to lowest */
+        private final boolean backward;
+        /** The leaf holding the next element, or null at the end */
+        private Leaf<R> leaf;
+        /** The slot of the next element in leaf */
+        private int slot;
+        /** The last element returned by next, for remove */
+        private R last;
+
+        /**
+         * Creates a LeafIterator.
+         * @param backward true to walk from highest to lowest
+         */
+        private LeafIterator(boolean backward){
+            this.backward = backward;
+            this.leaf = backward ? tail : head;
+            this.slot = backward ? leaf.count - 1 : 0;
+            this.last = null;
+            settle();
+        }
+
+        /**
+         * Step over leaves until slot is inside one, or the walk is over.
+         */
+        private void settle(){
+            while(leaf != null && (slot < 0 || slot >= leaf.count)){
+                leaf = backward ? leaf.prev : leaf.next;
+                if(leaf != null){
+                    slot = backward ? leaf.count - 1 : 0;
+                }
+            }
+        }
+
+        /** Is there another element to access in this tree?
+         * @return true if there is another element
+         */
+        public boolean hasNext(){
+            return leaf != null;
+        }
+
+        /** Get the next element in the tree if one exists.
+         * @return the next element
+         * @throws NoSuchElementException if the iteration is over
+         */
+        public R next(){
+            if(leaf == null){
+                throw new NoSuchElementException();
+            }
+            last = leaf.keys[slot];
+            slot += backward ? -1 : 1;
+            settle();
+            return last;
+        }
+
+        /**
+         * Remove the last element returned by next from the set. Removing may merge or rebuild
+         * leaves, so the iterator finds its place again from the removed element.
+         * @throws IllegalStateException if next has not been called since the last remove
+         */
+        public void remove(){
+            if(last == null){
+                throw new IllegalStateException();
+            }
+            OrderedBTree.this.remove(last);
+            leaf = leafFor(last);
+            slot = Arrays.binarySearch(leaf.keys, 0, leaf.count, last);
+            slot = -(slot + 1) - (backward ? 1 : 0);
+            last = null;
+            settle();
+        }
+    }
+
+    /**
+     * A node of the tree, holding up to fanout entries.
+     */
+    private abstract static class Node<R extends Comparable<R>>{
+        /** The elements of a leaf, or the separators of an inner node */
+        protected final R[] keys;
+        /** The number of elements of a leaf, or the number of children of an inner node */
+        protected int count;
+
+        /**
+         * Create an empty node.
+         * @param slots the length of keys
+         */
+        protected Node(int slots){
+            this.keys = (R[]) new Comparable[slots];
+            this.count = 0;
+        }
+    }
+
+    /**
+     * A leaf of the tree, holding elements lowest to highest and linked to its neighbours.
+     */
+    private static final class Leaf<R extends Comparable<R>> extends Node<R>{
+        /** The next higher leaf, or null */
+        private Leaf<R> next;
+        /** The next lower leaf, or null */
+        private Leaf<R> prev;
+
+        /**
+         * Create an empty leaf, with one spare slot to hold an element before a split.
+         * @param fanout the fanout of the tree
+         */
+        private Leaf(int fanout){
+            super(fanout + 1);
+            this.next = null;
+            this.prev = null;
+        }
+    }
+
+    /**
+     * An inner node of the tree. Separator i is the lowest element that may be in child i + 1,
+     * and sizes[i] is the number of elements below child i.
+     */
+    private static final class Inner<R extends Comparable<R>> extends Node<R>{
+        /** The children, lowest range first */
+        private final Node<R>[] children;
+        /** The number of elements below each child */
+        private final int[] sizes;
+
+        /**
+         * Create an inner node with no children, with one spare slot to hold a child before a
+         * split.
+         * @param fanout the fanout of the tree
+         */
+        private Inner(int fanout){
+            super(fanout);
+            this.children = new Node[fanout + 1];
+            this.sizes = new int[fanout + 1];
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package orderedSet;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 /**
  * This is an interface which models a Collection that contains <b>no</b> duplicate elements. It
  * models the mathematical <i>set</i> abstraction. This interface is based on the Java
  * <code>Set</code> interface, but there are some important differences. including the addition of
- * merge and unMerge functionality.
+ * merge and unMerge functionality (see {@link #merge}, {@link #mergedIterator} and
+ * {@link #unMerge}).
  *
  * No constructor will construct a set containing duplicate elements.  Elements should be added in
  * the in order from highest to lowest, or lowest to highest, depending on the state of the
@@ -68,7 +72,7 @@ public interface OrderedInterface<Q extends Comparable<? super Q>> extends Colle
         if(item == null || !(item instanceof Comparable)) {
             throw new IllegalArgumentException("Cannot remove nothing from the set");
         }
-        return remove(item);
+        return remove((Comparable) item);
     }
     /**
      * Removes the specified element from this set if it is present. (This set will not contain
@@ -137,4 +141,99 @@ public interface OrderedInterface<Q extends Comparable<? super Q>> extends Colle
     public default <T> T[] toArray(T[] array) {
         throw new UnsupportedOperationException("toArray is not supported for Program 3");
     }
+
+    /**
+     * Returns an iterator over the union of several ordered sets without building the union.
+     * The sets are combined with a k-way merge that keeps the next element of every set in a
+     * heap, so reading all N elements costs O(N log k) and no intermediate collection is made.
+     * Elements found in more than one set are returned once. The sets must not be modified while
+     * the iterator is in use.
+     * @param descending true to return the elements highest to lowest, false for lowest to highest
+     * @param sets the sets to merge, in any direction
+     * @return an iterator over every distinct element of the sets, in order
+     * @throws IllegalArgumentException if sets is null or contains null
+     */
+    public static <T extends Comparable<T>> Iterator<T> mergedIterator(boolean descending,
+            Collection<? extends OrderedInterface<T>> sets) {
+        return new OrderedMerge<>(descending, sets);
+    }
+
+    /**
+     * Merge several ordered sets into a new OrderedSet holding their union. The result is filled
+     * directly from a k-way merge, in O(N log k) time, with a single allocation for its storage.
+     * The sets themselves are not changed.
+     * @param descending if the merged set is to be descending
+     * @param sets the sets to merge, in any direction
+     * @return a new set holding every element of the sets
+     * @throws IllegalArgumentException if sets is null or contains null
+     */
+    public static <T extends Comparable<T>> OrderedSet<T> merge(boolean descending,
+            Collection<? extends OrderedInterface<T>> sets) {
+        if(sets == null) {
+            throw new IllegalArgumentException("Cannot merge nothing");
+        }
+        int total = 0;
+        for(OrderedInterface<T> set : sets) {
+            if(set == null) {
+                throw new IllegalArgumentException("Cannot merge nothing");
+            }
+            total += set.size();
+        }
+        T[] merged = (T[]) new Comparable[total];
+        int count = 0;
+        Iterator<T> elements = mergedIterator(false, sets);
+        while(elements.hasNext()) {
+            merged[count++] = elements.next();
+        }
+        return new OrderedSet<>(merged, count, descending);
+    }
+
+    /**
+     * Split an ordered set back into pieces at the given split points. Each split point starts
+     * a new piece, so with k distinct split points the result holds k + 1 sets (some of which
+     * may be empty): the first piece holds the elements that come before the first split point
+     * in the set's order, and piece i holds the elements from split point i - 1 up to, but not
+     * including, split point i. Every piece has the same direction as set, and set is not
+     * changed. Because the set is already in order, each element is placed with a single walk;
+     * the whole split costs O(N + k log k).
+     * @param set the set to split
+     * @param splitPoints the elements to split at, in any order; they need not be in set
+     * @return the pieces, in the order of set
+     * @throws IllegalArgumentException if either argument is null or a split point is null
+     */
+    public static <T extends Comparable<T>> List<OrderedSet<T>> unMerge(OrderedInterface<T> set,
+            Collection<? extends T> splitPoints) {
+        if(set == null || splitPoints == null) {
+            throw new IllegalArgumentException("Cannot split nothing");
+        }
+        boolean descending = set.isReversed();
+        T[] splits = OrderedSupport.sortedDistinct(splitPoints, descending);
+        int[] counts = new int[splits.length + 1];
+        int piece = 0;
+        for(T element : set) {
+            while(piece < splits.length && OrderedSupport.compare(element, splits[piece], descending) >= 0) {
+                piece++;
+            }
+            counts[piece]++;
+        }
+        List<T[]> storage = new ArrayList<>(counts.length);
+        for(int count : counts) {
+            storage.add((T[]) new Comparable[count]);
+        }
+        int[] filled = new int[counts.length];
+        piece = 0;
+        for(T element : set) {
+            while(piece < splits.length && OrderedSupport.compare(element, splits[piece], descending) >= 0) {
+                piece++;
+            }
+            int slot = descending ? counts[piece] - 1 - filled[piece] : filled[piece];
+            storage.get(piece)[slot] = element;
+            filled[piece]++;
+        }
+        List<OrderedSet<T>> pieces = new ArrayList<>(counts.length);
+        for(int i = 0; i < counts.length; i++) {
+            pieces.add(new OrderedSet<>(storage.get(i), counts[i], descending));
+        }
+        return pieces;
+    }
 }
@@ -1,15 +1,32 @@
 package orderedSet;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.AbstractSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 /**
  * This is a concrete implementation of a Set using Links. It models the mathematical set abstraction 
  * in which the set must not contain duplicates (objects with a duplicate 
  * state determined by calling the Equals method of each object element) and that the values in the 
  * list must be ordered (determined using the compareTo method of each object element.) lowest to highest.
+ * <br>
+ * The nodes are always linked lowest to highest and the list keeps both a head and a tail, so a
+ * descending set is simply read from the tail towards the head and reverse() is constant time.
  * 
  * @author Matthew Talle and Kevin Caverly
  * @version Spring 2023
@@ -19,16 +36,26 @@ public class OrderedLink<R extends Comparable<R>> implements OrderedInterface<R>
 
     /** boolean representing whether the linked list is descending or ascending */
     private boolean descending;
-    /** Represents the head node of this linked list based set */
+    /** Represents the head (lowest) node of this linked list based set */
     private Node head;
+    /** Represents the tail (highest) node of this linked list based set */
+    private Node tail;
     /** The count of elements in this linked list */
     private int numElements;
+    /** The node found by the last add or lookup, where the next search starts; null when empty */
+    private Node finger;
+    /** Optional hash index over the elements for constant time lookups, or null when off */
+    private HashSet<R> hashIndex;
+    /** Where hot path counters and latencies are recorded, or null when metrics are off */
+    private OrderedMetrics metrics;
 
     /** Create an OrderedLink */
     public OrderedLink(){
         this.descending = false;
         this.head = null;
+        this.tail = null;
         this.numElements = 0;
+        this.finger = null;
     }
     
     /**
@@ -58,7 +85,11 @@ public class OrderedLink<R extends Comparable<R>> implements OrderedInterface<R>
     public final void clear(){
         numElements = 0;
         this.head = null;
-        
+        this.tail = null;
+        this.finger = null;
+        if(hashIndex != null){
+            hashIndex.clear();
+        }
     }
 
     /** Return true if this set is empty.
@@ -92,181 +123,346 @@ public class OrderedLink<R extends Comparable<R>> implements OrderedInterface<R>
     public String toString(){
         StringBuilder sb = new StringBuilder();
         sb.append("<");
-        Node current = head;
-        int count = 0;
-        while(current != null){
-            if(count != numElements - 1){
-                sb.append(current.data.toString());
+        Iterator<R> it = iterator();
+        while(it.hasNext()){
+            sb.append(it.next().toString());
+            if(it.hasNext()){
                 sb.append(", ");
-                count ++;
             }
-            else{
-                sb.append(current.data.toString());
-            }
-            current = current.next;
         }
         sb.append(">");
         return sb.toString();
     }
 
     /**
-     * Get the item at the index position specified.
+     * Get the item at the index position specified. The list is walked from whichever end is
+     * closer to the position.
      * @param location index to retrieve an item from
      * @return the item from a particular index
      * @throws NoSuchElementException
      */
     public R get(int location)throws NoSuchElementException{
-        if(location > numElements || numElements == 0){
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return getElement(location);
+        }
+        long start = System.nanoTime();
+        try{
+            return getElement(location);
+        }
+        finally{
+            recorder.record(OrderedMetrics.Operation.GET, start);
+        }
+    }
+
+    /**
+     * The work of get, without timing.
+     * @param location position counted from the front of the set
+     * @return the element at location
+     * @throws NoSuchElementException if location is outside of the set
+     */
+    private R getElement(int location){
+        if(location < 0 || location >= numElements){
             throw new NoSuchElementException();
         }
-        Node current = head;
-        for(int i = 0; i < location; i++){
-            current = current.next;
+        int fromHead = descending ? numElements - 1 - location : location;
+        Node current;
+        if(fromHead < numElements / 2){
+            current = head;
+            for(int i = 0; i < fromHead; i++){
+                current = current.next;
+            }
+            traversed(fromHead, 0);
+        }
+        else{
+            current = tail;
+            for(int i = numElements - 1; i > fromHead; i--){
+                current = current.prev;
+            }
+            traversed(numElements - 1 - fromHead, 0);
         }
         return current.data;
     }
 
     /**
-     * Return the index of the first object in the list which matches this object
-     * @param input the object whose position to find
-     * @return index of first object passed
+     * Find the first node whose data is not lower than element. Elements past either end of the
+     * list are answered in constant time from the head and tail. Otherwise the walk starts at the
+     * finger left by the previous search and heads up or down from there, so a run of adds or
+     * lookups that are close to each other, such as an almost sorted feed, only walks the
+     * distance between neighbouring keys. The finger is left on the node found.
+     * @param element the element being searched for
+     * @return the first node holding element or something higher, or null if every node is lower
+     */
+    private Node ceilingNode(R element){
+        if(tail == null || tail.data.compareTo(element) < 0){
+            traversed(0, 1);
+            return null;
+        }
+        Node current;
+        int steps = 0;
+        if(head.data.compareTo(element) >= 0){
+            current = head;
+        }
+        else{
+            current = (finger == null) ? head : finger;
+            if(current.data.compareTo(element) < 0){
+                while(current.data.compareTo(element) < 0){
+                    current = current.next;
+                    steps++;
+                }
+            }
+            else{
+                while(current.prev.data.compareTo(element) >= 0){
+                    current = current.prev;
+                    steps++;
+                }
+            }
+            steps++;
+        }
+        traversed(steps, steps + 2);
+        finger = current;
+        return current;
+    }
+
+    /**
+     * Record nodes stepped over and comparisons made if metrics are on.
+     * @param nodes the number of nodes stepped over
+     * @param comparisons the number of compareTo calls
+     */
+    private void traversed(int nodes, int comparisons){
+        if(metrics != null){
+            metrics.traversed(nodes);
+            metrics.compared(comparisons);
+        }
+    }
+
+    /**
+     * Look an object up in the hash index, counting the probe if metrics are on.
+     * @param item the object
+     * @return true if the index holds item
+     */
+    private boolean indexed(Object item){
+        if(metrics != null){
+            metrics.equalsCalled();
+        }
+        return hashIndex.contains(item);
+    }
+
+    /**
+     * Return the node which matches this object. Because the list is in order the walk stops as
+     * soon as it passes the place the object would be.
+     * @param input the object whose node to find
+     * @return node holding input or null if it is not in the set
      * @throws IllegalArgumentException
      */
-    private int getPosition(Object input)throws IllegalArgumentException{
+    private Node findNode(Object input)throws IllegalArgumentException{
         if(input == null){
             throw new IllegalArgumentException();
         }
-        Node current = head;
-        int toReturn = 0;
-        while(current != null){
-            if(!current.data.equals(input)){
-                toReturn ++;
-                current = current.next;
+        Node toReturn = null;
+        if(input instanceof Comparable){
+            try{
+                Node candidate = ceilingNode((R) input);
+                if(candidate != null && candidate.data.compareTo((R) input) == 0){
+                    toReturn = candidate;
+                }
             }
-            else{
-                current = null;
+            catch(ClassCastException e){
+                toReturn = null;
             }
         }
-        if(toReturn > numElements){
-            toReturn = -1;
-        }
         return toReturn;
     }
 
     /** 
-     * Add an item in order where it needs to go within the set
+     * Add an item in order where it needs to go within the set. The position is found and
+     * checked for a duplicate in a single walk.
      * @return boolean indicating if item was added
+     * @throws IllegalArgumentException if element is null
      */
-    public boolean add(R element){
-       
+    public boolean add(R element)throws IllegalArgumentException{
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return addElement(element);
+        }
+        long start = System.nanoTime();
+        try{
+            return addElement(element);
+        }
+        finally{
+            recorder.record(OrderedMetrics.Operation.ADD, start);
+        }
+    }
+
+    /**
+     * The work of add, without timing.
+     * @param element the element to add
+     * @return true if the set changed
+     * @throws IllegalArgumentException if element is null
+     */
+    private boolean addElement(R element){
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        if(hashIndex != null && indexed(element)){
+            return false;
+        }
         boolean toReturn = false;
-        if(!contains(element)){
-            insertInOrder(element);
+        Node successor = ceilingNode(element);
+        if(successor == null || successor.data.compareTo(element) != 0){
+            Node added = new Node(element);
+            linkBefore(added, successor);
+            finger = added;
             toReturn = true;
         }
         return toReturn;    
     }
 
     /**
-     * A private method to insert an item in the correct position within the set. 
+     * A private method to link a new node into the list directly before another one.
      * Does not check if item is already in the list.
-     * @param element element to be inserted at the right order
+     * @param newElement node to be inserted
+     * @param successor node to insert in front of, or null to append at the tail
      */
-    private void insertInOrder(R element){
-        Node newElement = new Node(element);
-
-        /** checks if set is empty and directly inserts element */
-        if(head == null){
+    private void linkBefore(Node newElement, Node successor){
+        Node predecessor = (successor == null) ? tail : successor.prev;
+        newElement.next = successor;
+        newElement.prev = predecessor;
+        if(predecessor == null){
             head = newElement;
         }
-
-        /** 
-         * checks if element is greater than the head node and 
-         * inserts if ascending and vice versa */
-        else if((!descending && element.compareTo(head.data) <= 0)||(descending && element.compareTo(head.data) >= 0)){
-            newElement.next = head;
-            head = newElement;
+        else{
+            predecessor.next = newElement;
         }
+        if(successor == null){
+            tail = newElement;
+        }
+        else{
+            successor.prev = newElement;
+        }
+        if(hashIndex != null){
+            hashIndex.add(newElement.data);
+        }
+        numElements++;
+    }
 
-        /** 
-         * iterates through the list and inserts the element passed in the
-         * right order depending if it is ascending or descending
-         */
+    /**
+     * A private method to take a node out of the list.
+     * @param target the node to unlink
+     */
+    private void unlink(Node target){
+        if(finger == target){
+            finger = (target.next != null) ? target.next : target.prev;
+        }
+        if(target.prev == null){
+            head = target.next;
+        }
         else{
-            Node current = head;
-            boolean flag = true;
-            Iterator<R> it = iterator();
-            while(it.hasNext() && flag && current.next != null){
-                if(!this.descending){
-                    if(current.next.data.compareTo(element) >= 0){
-                        newElement.next = current.next;
-                        current.next = newElement;
-                        flag = false;
-                    }
-                }
-                else{
-                    if(current.next.data.compareTo(element) <= 0){
-                        newElement.next = current.next;
-                        current.next = newElement;
-                        flag = false;
-                    }
-                }
-                current = current.next;
-                it.next();
-            }
-            /** Adds element to the end of list if the least or greatest */
-            if(flag){
-                current.next = newElement;
-            }
+            target.prev.next = target.next;
+        }
+        if(target.next == null){
+            tail = target.prev;
+        }
+        else{
+            target.next.prev = target.prev;
         }
-    numElements++;
+        if(hashIndex != null){
+            hashIndex.remove(target.data);
+        }
+        numElements--;
     }
 
     /** 
      * Add all items from another SetInterface implementation to this set provided 
-     * the generic types are the same.
+     * the generic types are the same. The incoming elements are sorted and stripped of
+     * duplicates first and then spliced into the list during a single walk, which starts where
+     * the lowest new element belongs rather than at the head.
      * @return boolean indicating if all elements have been added
      * @param collection whose data to add all elements from
+     * @throws IllegalArgumentException if the collection contains null
      */
     public boolean addAll(Collection<? extends R> collection)throws NullPointerException{
-        boolean toReturn = true;
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return addAllElements(collection);
+        }
+        long start = System.nanoTime();
+        try{
+            return addAllElements(collection);
+        }
+        finally{
+            recorder.record(OrderedMetrics.Operation.ADD_ALL, start);
+        }
+    }
+
+    /**
+     * The work of addAll, without timing.
+     * @param collection the elements to add
+     * @return true if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    private boolean addAllElements(Collection<? extends R> collection){
         if(collection == null){
             throw new NullPointerException();
         }
         int prevSize = numElements;
-        for(R data : collection){
-            add(data);
-        }
-        if(numElements == prevSize){
-            toReturn = false;
+        R[] batch = OrderedSupport.sortedDistinct(collection, false);
+        Node current = (batch.length == 0) ? null : ceilingNode(batch[0]);
+        int steps = 0;
+        for(R element : batch){
+            while(current != null && current.data.compareTo(element) < 0){
+                current = current.next;
+                steps++;
+            }
+            if(current == null || current.data.compareTo(element) != 0){
+                linkBefore(new Node(element), current);
+            }
         }
-        return toReturn;
+        traversed(steps, steps + batch.length);
+        return numElements != prevSize;
     }
 
     /** 
      * Determine if a specific object is in the list. This is determined 
      * by not just the memory location of input, but also by checking if they have the same state. 
+     * With the hash index on this takes expected constant time instead of a walk.
      * @return boolean indicating if element passed is contained within this set
      * @param element to check if contained within this set
      * */
     public boolean contains(Object element)throws IllegalArgumentException{
-        if(element == null){
-            throw new IllegalArgumentException();
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return containsElement(element);
         }
-        boolean toReturn = false;
-        
-         Iterator<R> it = iterator();
-         while(it.hasNext() && !toReturn){
-             if(it.next().equals(element)){
-                 toReturn = true;
-             }
-         }
-         return toReturn;
+        long start = System.nanoTime();
+        try{
+            return containsElement(element);
+        }
+        finally{
+            recorder.record(OrderedMetrics.Operation.CONTAINS, start);
         }
+    }
+
+    /**
+     * The work of contains, without timing.
+     * @param element the object to look for
+     * @return true if element is in the set
+     * @throws IllegalArgumentException if element is null
+     */
+    private boolean containsElement(Object element){
+        if(hashIndex != null){
+            if(element == null){
+                throw new IllegalArgumentException();
+            }
+            return indexed(element);
+        }
+        return findNode(element) != null;
+    }
 
     /** 
      * Returns true if this list contains all of the elements of the specified 
-     * Collection instance. 
+     * Collection instance. An OrderedInterface argument is checked with a single
+     * merge pass over both sets.
      * @return boolean
      * @param collection to check if all its data is contained within ours
      * */
@@ -274,9 +470,12 @@ public class OrderedLink<R extends Comparable<R>> implements OrderedInterface<R>
         if(collection == null){
             throw new IllegalArgumentException();
         }
+        if(collection instanceof OrderedInterface){
+            return OrderedSupport.containsAllSorted(iterator(), (OrderedInterface<?>) collection, descending);
+        }
         boolean toReturn = true;
-        for(R item:(Collection<R>)collection){
-            if(!contains(item)){
+        for(Object item:collection){
+            if(!containsElement(item)){
                 toReturn = false;
             }  
         }
@@ -290,26 +489,32 @@ public class OrderedLink<R extends Comparable<R>> implements OrderedInterface<R>
      * @return boolean indicating if item was succesfully removed
      * */
     public boolean remove(Comparable item){
-        boolean toReturn = false;
-        Node current = head;
-
-        int index = this.getPosition(item);
-        if(index != -1){
-            if(index == 0){
-                head = head.next;
-                numElements --;
-            }
-            else{
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return removeElement(item);
+        }
+        long start = System.nanoTime();
+        try{
+            return removeElement(item);
+        }
+        finally{
+            recorder.record(OrderedMetrics.Operation.REMOVE, start);
+        }
+    }
 
-                for(int i = 0; i < index - 1; i++){
-                    current = current.next;
-                }
-                if(current.next != null){
-                    current.next = current.next.next;
-                    numElements --;
-                }
-            }
-            
+    /**
+     * The work of remove, without timing.
+     * @param item the element to remove
+     * @return true if the set changed
+     */
+    private boolean removeElement(Comparable item){
+        boolean toReturn = false;
+        if(hashIndex != null && item != null && !indexed(item)){
+            return false;
+        }
+        Node target = findNode(item);
+        if(target != null){
+            unlink(target);
             toReturn = true;
         }
         return toReturn;
@@ -319,25 +524,36 @@ public class OrderedLink<R extends Comparable<R>> implements OrderedInterface<R>
      * Removes from this list all of its elements that are contained in the specified 
      * CollectionInterface instance. If the specified collection is also a set, this operation 
      * effectively modifies this list so that its value is the asymmetric set 
-     * difference of the two sets.
+     * difference of the two sets. The list is walked once; when the collection is also an
+     * OrderedInterface it is walked alongside, so the call takes O(n + m).
      * @param collection whose data to remove all from in this set
-     * @return boolean indicating if all items were removed successfully from set
+     * @return boolean indicating if any item was removed from the set
      */
     public boolean removeAll(Collection<?> collection)throws NullPointerException{
-        if(collection == null){
-            throw new NullPointerException();
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return removeAllElements(collection);
         }
-        boolean toReturn = false;
-        
-        int prevSize = numElements;
-        for(Object data:collection){
-            remove(data);
+        long start = System.nanoTime();
+        try{
+            return removeAllElements(collection);
         }
-        if(numElements == prevSize){
-            toReturn = false;
+        finally{
+            recorder.record(OrderedMetrics.Operation.REMOVE_ALL, start);
         }
-        return toReturn;
+    }
 
+    /**
+     * The work of removeAll, without timing.
+     * @param collection the collection to test membership against
+     * @return true if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    private boolean removeAllElements(Collection<?> collection){
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        return sweep(collection, false);
     }
     
     /**
@@ -345,23 +561,57 @@ public class OrderedLink<R extends Comparable<R>> implements OrderedInterface<R>
      * specified Collection instance. In other words, removes from this set all of its elements 
      * that are not contained in the specified collection. If the specified collection is also an set, 
      * this operation effectively modifies this set so that its value is the intersection of the two set.
+     * When the collection is also an OrderedInterface both sets are walked side by side.
      * @param collection whose elements to retain
-     * @param boolean indicating if elements were succesfully retained
+     * @return boolean indicating if any element was removed
      */
     public boolean retainAll(Collection<?> collection)throws IllegalArgumentException{
-        boolean toReturn = false;
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return retainAllElements(collection);
+        }
+        long start = System.nanoTime();
+        try{
+            return retainAllElements(collection);
+        }
+        finally{
+            recorder.record(OrderedMetrics.Operation.RETAIN_ALL, start);
+        }
+    }
+
+    /**
+     * The work of retainAll, without timing.
+     * @param collection the collection to test membership against
+     * @return true if the set changed
+     * @throws IllegalArgumentException if collection is null
+     */
+    private boolean retainAllElements(Collection<?> collection){
         if(collection == null){
             throw new IllegalArgumentException();
         }
-         Node current = head;
-         while(current != null){
-             if(!collection.contains(current.data)){
-                 remove(current.data);
-                 toReturn = true;
-             }
-             current = current.next;
-         }
-        return toReturn;
+        return sweep(collection, true);
+    }
+
+    /**
+     * Keep or unlink every node depending on whether its data is in a collection, in a single
+     * walk of the list.
+     * @param collection the collection to test membership against
+     * @param retain true to keep the elements found in collection, false to keep the others
+     * @return true if any node was unlinked
+     */
+    private boolean sweep(Collection<?> collection, boolean retain){
+        int prevSize = numElements;
+        OrderedSupport.Membership membership = new OrderedSupport.Membership(collection);
+        Node current = head;
+        while(current != null){
+            Node following = current.next;
+            boolean found = membership.contains(current.data);
+            if(found != retain){
+                unlink(current);
+            }
+            current = following;
+        }
+        return numElements != prevSize;
     }
 
     /**
@@ -391,8 +641,8 @@ public class OrderedLink<R extends Comparable<R>> implements OrderedInterface<R>
      */
     public boolean equals(Object other){
         boolean result = false;
-        if(other instanceof OrderedLink){
-            OrderedLink<R> temp = (OrderedLink<R>) other;
+        if(other instanceof OrderedInterface){
+            OrderedInterface<?> temp = (OrderedInterface<?>) other;
             if(this.size() == temp.size() && containsAll(temp) == true){
                 result = true;
             }
@@ -411,6 +661,262 @@ public class OrderedLink<R extends Comparable<R>> implements OrderedInterface<R>
         return toReturn;
     }
 
+    /**
+     * Find the first node, walking up from the head, whose data is higher than element.
+     * @param element the element being compared against
+     * @return the first node holding something higher, or null if there is none
+     */
+    private Node higherNode(R element){
+        Node current = ceilingNode(element);
+        if(current != null && current.data.compareTo(element) == 0){
+            current = current.next;
+        }
+        return current;
+    }
+
+    /**
+     * Find the last node whose data is not higher than element.
+     * @param element the element being compared against
+     * @return the last node holding element or something lower, or null if there is none
+     */
+    private Node floorNode(R element){
+        Node higher = higherNode(element);
+        return (higher == null) ? tail : higher.prev;
+    }
+
+    /**
+     * Find the last node whose data is lower than element.
+     * @param element the element being compared against
+     * @return the last node holding something lower, or null if there is none
+     */
+    private Node lowerNode(R element){
+        Node ceiling = ceilingNode(element);
+        return (ceiling == null) ? tail : ceiling.prev;
+    }
+
+    /**
+     * Get the data of a node, or null if there is no node.
+     * @param node the node
+     * @return its data or null
+     */
+    private R dataOf(Node node){
+        return (node == null) ? null : node.data;
+    }
+
+    /**
+     * Returns the last element, in the current order of the set, that does not come after the
+     * given element. For an ascending set this is the greatest element less than or equal to
+     * element; for a descending set it is the least element greater than or equal to it.
+     * @param element the element to compare against
+     * @return the matching element, or null if there is none
+     * @throws IllegalArgumentException if element is null
+     */
+    public R floor(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        return dataOf(descending ? ceilingNode(element) : floorNode(element));
+    }
+
+    /**
+     * Returns the first element, in the current order of the set, that does not come before the
+     * given element.
+     * @param element the element to compare against
+     * @return the matching element, or null if there is none
+     * @throws IllegalArgumentException if element is null
+     */
+    public R ceiling(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        return dataOf(descending ? floorNode(element) : ceilingNode(element));
+    }
+
+    /**
+     * Returns the first element, in the current order of the set, that comes strictly after the
+     * given element.
+     * @param element the element to compare against
+     * @return the matching element, or null if there is none
+     * @throws IllegalArgumentException if element is null
+     */
+    public R higher(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        return dataOf(descending ? lowerNode(element) : higherNode(element));
+    }
+
+    /**
+     * Returns the last element, in the current order of the set, that comes strictly before the
+     * given element.
+     * @param element the element to compare against
+     * @return the matching element, or null if there is none
+     * @throws IllegalArgumentException if element is null
+     */
+    public R lower(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        return dataOf(descending ? higherNode(element) : lowerNode(element));
+    }
+
+    /**
+     * Removes and returns the first element of the set in its current order.
+     * @return the first element, or null if the set is empty
+     */
+    public R pollFirst(){
+        Node first = descending ? tail : head;
+        if(first != null){
+            unlink(first);
+        }
+        return dataOf(first);
+    }
+
+    /**
+     * Removes and returns the last element of the set in its current order.
+     * @return the last element, or null if the set is empty
+     */
+    public R pollLast(){
+        Node last = descending ? head : tail;
+        if(last != null){
+            unlink(last);
+        }
+        return dataOf(last);
+    }
+
+    /**
+     * Returns a live view of the elements from one element to another, in the current order of
+     * the set. Changes to the set show through the view and changes made through the view
+     * (adding or removing elements inside the range) show in the set. The view covers the same
+     * keys if the set is later reversed, and is then read in the new order.
+     * @param from the element the view starts at
+     * @param fromInclusive true if from itself belongs to the view
+     * @param to the element the view ends at
+     * @param toInclusive true if to itself belongs to the view
+     * @return the view
+     * @throws IllegalArgumentException if either bound is null or from comes after to
+     */
+    public Set<R> subSet(R from, boolean fromInclusive, R to, boolean toInclusive)throws IllegalArgumentException{
+        if(from == null || to == null){
+            throw new IllegalArgumentException();
+        }
+        return new RangeView(new OrderedRange<>(from, fromInclusive, to, toInclusive, descending));
+    }
+
+    /**
+     * Returns a live view of the elements from from, inclusive, to to, exclusive.
+     * @param from the element the view starts at
+     * @param to the element the view ends before
+     * @return the view
+     * @throws IllegalArgumentException if either bound is null or from comes after to
+     */
+    public Set<R> subSet(R from, R to)throws IllegalArgumentException{
+        return subSet(from, true, to, false);
+    }
+
+    /**
+     * Returns a live view of the elements that come before an element in the current order.
+     * @param to the element the view ends at
+     * @param inclusive true if to itself belongs to the view
+     * @return the view
+     * @throws IllegalArgumentException if to is null
+     */
+    public Set<R> headSet(R to, boolean inclusive)throws IllegalArgumentException{
+        if(to == null){
+            throw new IllegalArgumentException();
+        }
+        return new RangeView(new OrderedRange<>(null, false, to, inclusive, descending));
+    }
+
+    /**
+     * Returns a live view of the elements that come strictly before an element.
+     * @param to the element the view ends before
+     * @return the view
+     * @throws IllegalArgumentException if to is null
+     */
+    public Set<R> headSet(R to)throws IllegalArgumentException{
+        return headSet(to, false);
+    }
+
+    /**
+     * Returns a live view of the elements that come after an element in the current order.
+     * @param from the element the view starts at
+     * @param inclusive true if from itself belongs to the view
+     * @return the view
+     * @throws IllegalArgumentException if from is null
+     */
+    public Set<R> tailSet(R from, boolean inclusive)throws IllegalArgumentException{
+        if(from == null){
+            throw new IllegalArgumentException();
+        }
+        return new RangeView(new OrderedRange<>(from, inclusive, null, false, descending));
+    }
+
+    /**
+     * Returns a live view of the elements from an element, inclusive, to the end of the set.
+     * @param from the element the view starts at
+     * @return the view
+     * @throws IllegalArgumentException if from is null
+     */
+    public Set<R> tailSet(R from)throws IllegalArgumentException{
+        return tailSet(from, true);
+    }
+
+    /**
+     * Turns the optional hash index on or off. While it is on, every element is also kept in a
+     * HashSet, so contains, the duplicate check in add and misses in remove take expected
+     * constant time, and the list is only walked for real inserts and removals. The index costs
+     * roughly hashIndexBytes() of extra heap. It relies on equals and hashCode agreeing with
+     * compareTo, which holds for the usual element types such as Integer, Long and String.
+     * @param enabled true to build the index, false to drop it
+     */
+    public void setHashIndex(boolean enabled){
+        if(!enabled){
+            hashIndex = null;
+        }
+        else if(hashIndex == null){
+            hashIndex = new HashSet<>(Math.max(16, (int) (numElements / 0.75f) + 1));
+            for(Node current = head; current != null; current = current.next){
+                hashIndex.add(current.data);
+            }
+        }
+    }
+
+    /**
+     * Determine if the hash index is on.
+     * @return true if the set keeps a hash index
+     */
+    public boolean hasHashIndex(){
+        return hashIndex != null;
+    }
+
+    /**
+     * Estimates the extra heap taken by the hash index, assuming a 64-bit JVM with compressed
+     * references. The elements themselves are shared with the list and are not counted.
+     * @return the estimated size of the index in bytes, or 0 when it is off
+     */
+    public long hashIndexBytes(){
+        return (hashIndex == null) ? 0 : OrderedSupport.hashIndexBytes(hashIndex.size());
+    }
+
+    /**
+     * Starts or stops recording hot path metrics for this set: comparisons, nodes stepped over
+     * and hash index probes, and the latency of add, remove, contains, get, addAll, removeAll
+     * and retainAll. With no metrics attached each of those only pays a null check.
+     * @param metrics where to record, which may be shared with other sets, or null to stop
+     */
+    public void setMetrics(OrderedMetrics metrics){
+        this.metrics = metrics;
+    }
+
+    /**
+     * Get the metrics this set records to.
+     * @return the metrics, or null if they are off
+     */
+    public OrderedMetrics getMetrics(){
+        return metrics;
+    }
+
     /**
      * Reverse the order of the set. If the set is in a lowest to highest (non descending) 
      * state, this function will put it into highest to lowest state, and reverse the order 
@@ -418,28 +924,93 @@ public class OrderedLink<R extends Comparable<R>> implements OrderedInterface<R>
      * to lowest order of the set. If the set is in a highest to lowest (descending) state 
      * state, calling this method would order the elements lowest to highest. Adding 
      * additional elements would then maintain the lowest to highest order.
+     * The nodes are not touched; only the direction they are read in changes, so this
+     * takes constant time.
      */
     public void reverse() {
-        
-        Node start = head;
-        Node temp = null;
-        Node end = null;
+        this.descending = !this.descending;
+    }   
 
-        while(start!=null){
-            temp=start.next;
-            start.next = end;
-            end = start;
-            start = temp;
-        }
-        head = end;
+    /**
+     * Writes a compact binary snapshot of this set, including its direction. Integer and Long
+     * elements are delta encoded as varints, Strings as UTF-8 and any other elements must be
+     * Serializable. The stream is flushed but not closed.
+     * @param out the stream to write to
+     * @throws IOException if the stream fails or an element cannot be written
+     */
+    public void writeTo(OutputStream out)throws IOException{
+        BufferedOutputStream buffered = new BufferedOutputStream(out);
+        Iterable<R> ascending = () -> new Iterator<R>(){
+            private Node current = head;
 
-        if(this.descending){
-            this.descending = false;
-        }
-        else{
-            this.descending = true;
+            public boolean hasNext(){
+                return current != null;
+            }
+
+            public R next(){
+                if(current == null){
+                    throw new NoSuchElementException();
+                }
+                R data = current.data;
+                current = current.next;
+                return data;
+            }
+        };
+        OrderedSnapshot.write(buffered, ascending, numElements, descending);
+        buffered.flush();
+    }
+
+    /**
+     * Writes a compact binary snapshot of this set to a channel. The channel is not closed.
+     * @param channel the channel to write to
+     * @throws IOException if the channel fails or an element cannot be written
+     */
+    public void writeTo(WritableByteChannel channel)throws IOException{
+        writeTo(Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Loads a set from a snapshot written by writeTo. The elements are already in order, so
+     * each one is appended at the tail and the load takes O(n). Exactly the bytes of the
+     * snapshot are read; pass a buffered stream for speed.
+     * Serialized elements are only accepted for the JDK value types and for classes the
+     * jdk.serialFilter system property allows.
+     * @param in the stream to read from
+     * @return the loaded set, with the direction it was written with
+     * @throws IOException if the stream fails or does not hold a valid snapshot
+     */
+    public static <R extends Comparable<R>> OrderedLink<R> readFrom(InputStream in)throws IOException{
+        OrderedSnapshot.Loaded<R> loaded = OrderedSnapshot.read(in);
+        OrderedLink<R> set = new OrderedLink<>(loaded.descending);
+        for(R element : loaded.elements){
+            set.linkBefore(set.new Node(element), null);
         }
-    }   
+        return set;
+    }
+
+    /**
+     * Loads a set from a snapshot read from a channel. The channel is read through a buffer, so
+     * it may be read past the end of the snapshot.
+     * @param channel the channel to read from
+     * @return the loaded set, with the direction it was written with
+     * @throws IOException if the channel fails or does not hold a valid snapshot
+     */
+    public static <R extends Comparable<R>> OrderedLink<R> readFrom(ReadableByteChannel channel)throws IOException{
+        return readFrom(new BufferedInputStream(Channels.newInputStream(channel)));
+    }
+
+    /**
+     * Provides a Spliterator over the elements in the current order of the set. A linked list
+     * cannot be split in the middle without walking to it, so each split copies the next batch
+     * of nodes into an array and hands that off; batches grow by 1024 elements per split so that
+     * the walk is shared out between threads as the stream proceeds. Reports SORTED, DISTINCT,
+     * SIZED, ORDERED and NONNULL with the comparator for the current direction. The set should
+     * not be changed while it is in use.
+     * @return a spliterator over the elements of the set
+     */
+    public Spliterator<R> spliterator(){
+        return new LinkSpliterator();
+    }
 
     /**
      * Return an iterator for this OrderedLink
@@ -456,9 +1027,9 @@ public class OrderedLink<R extends Comparable<R>> implements OrderedInterface<R>
 
         /** The current node */
         private Node current;
-        /** Creates a LinkIterator */
+        /** Creates a LinkIterator starting from the front of the set in its current direction */
         private LinkIterator(){
-            this.current = head;
+            this.current = descending ? tail : head;
         }
         
         /** Is there another element to access in this linked list?
@@ -472,20 +1043,276 @@ public class OrderedLink<R extends Comparable<R>> implements OrderedInterface<R>
          * @return the data of the next node
          */
         public R next(){
+            if(current == null){
+                throw new NoSuchElementException();
+            }
             R data = current.data;
-            current = current.next;
+            current = descending ? current.prev : current.next;
             return data;
         }
     }
 
+    /**
+     * A live view of the elements of the set between two bounds. The first node of the range is
+     * found again on every walk, so the view always reflects the current contents of the set.
+     */
+    private class RangeView extends AbstractSet<R>{
+        /** The keys the view covers */
+        private final OrderedRange<R> range;
+
+        /**
+         * Create a view.
+         * @param range the keys the view covers
+         */
+        private RangeView(OrderedRange<R> range){
+            this.range = range;
+        }
+
+        /**
+         * The lowest node in the range.
+         * @return the node, or null if the range is empty
+         */
+        private Node lowest(){
+            Node node = head;
+            if(range.low != null){
+                node = range.lowInclusive ? ceilingNode(range.low) : higherNode(range.low);
+            }
+            return (node == null || range.tooHigh(node.data)) ? null : node;
+        }
+
+        /**
+         * The highest node in the range.
+         * @return the node, or null if the range is empty
+         */
+        private Node highest(){
+            Node node = tail;
+            if(range.high != null){
+                node = range.highInclusive ? floorNode(range.high) : lowerNode(range.high);
+            }
+            return (node == null || range.tooLow(node.data)) ? null : node;
+        }
+
+        /** @return the number of elements in the range, counted with a walk */
+        public int size(){
+            int count = 0;
+            for(Node node = lowest(); node != null && !range.tooHigh(node.data); node = node.next){
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * @param item the object to look for
+         * @return true if item is in the range and in the set
+         */
+        public boolean contains(Object item){
+            return range.contains(item) && OrderedLink.this.contains(item);
+        }
+
+        /**
+         * Adds an element inside the range to the set.
+         * @param element the element to add
+         * @return true if the set changed
+         * @throws IllegalArgumentException if element is null or outside of the range
+         */
+        public boolean add(R element)throws IllegalArgumentException{
+            if(element == null || !range.contains(element)){
+                throw new IllegalArgumentException();
+            }
+            return OrderedLink.this.add(element);
+        }
+
+        /**
+         * Removes an element inside the range from the set.
+         * @param item the element to remove
+         * @return true if the set changed
+         */
+        public boolean remove(Object item){
+            return range.contains(item) && OrderedLink.this.remove((Comparable) item);
+        }
+
+        /** Removes every element of the range from the set by cutting the run of nodes out. */
+        public void clear(){
+            Node node = lowest();
+            while(node != null && !range.tooHigh(node.data)){
+                Node next = node.next;
+                unlink(node);
+                node = next;
+            }
+        }
+
+        /**
+         * @return the elements of the range, in the current order of the set
+         */
+        public Iterator<R> iterator(){
+            return new RangeIterator(descending ? highest() : lowest());
+        }
+
+        /**
+         * @return the elements of the range in the form &lt;e, e, e&gt;
+         */
+        public String toString(){
+            StringBuilder sb = new StringBuilder();
+            sb.append("<");
+            Iterator<R> it = iterator();
+            while(it.hasNext()){
+                sb.append(it.next().toString());
+                if(it.hasNext()){
+                    sb.append(", ");
+                }
+            }
+            sb.append(">");
+            return sb.toString();
+        }
+
+        /** Walks the nodes of the range in the current direction of the set. */
+        private class RangeIterator implements Iterator<R>{
+            /** The node to return next */
+            private Node current;
+            /** The node returned last, or null if it cannot be removed */
+            private Node last;
+
+            /**
+             * Create an iterator starting at a node.
+             * @param first the first node of the range in the current direction, or null
+             */
+            private RangeIterator(Node first){
+                this.current = first;
+                this.last = null;
+            }
+
+            /** Determines if there are elements left in the range. */
+            public boolean hasNext(){
+                return current != null
+                        && !(descending ? range.tooLow(current.data) : range.tooHigh(current.data));
+            }
+
+            /** Returns the next element of the range. */
+            public R next(){
+                if(!hasNext()){
+                    throw new NoSuchElementException();
+                }
+                last = current;
+                current = descending ? current.prev : current.next;
+                return last.data;
+            }
+
+            /** Removes the element returned last from the set. */
+            public void remove(){
+                if(last == null){
+                    throw new IllegalStateException();
+                }
+                unlink(last);
+                last = null;
+            }
+        }
+    }
+
+    /**
+     * Spliterator that walks the nodes in the current direction and splits off array batches.
+     */
+    private class LinkSpliterator implements Spliterator<R>{
+        /** Batch size added on each split */
+        private static final int BATCH_UNIT = 1 << 10;
+        /** Largest batch handed off in one split */
+        private static final int MAX_BATCH = 1 << 25;
+
+        /** The node to return next */
+        private Node current;
+        /** The number of elements left */
+        private int remaining;
+        /** The size of the last batch split off */
+        private int batch;
+
+        /** Creates a LinkSpliterator starting from the front of the set in its current direction */
+        private LinkSpliterator(){
+            this.current = descending ? tail : head;
+            this.remaining = numElements;
+            this.batch = 0;
+        }
+
+        /**
+         * Copy the next batch of elements into an array and split them off.
+         * @return a spliterator over the batch, or null if there are too few elements to split
+         */
+        public Spliterator<R> trySplit(){
+            if(remaining <= 1 || current == null){
+                return null;
+            }
+            int size = Math.min(Math.min(batch + BATCH_UNIT, MAX_BATCH), remaining);
+            Object[] elements = new Object[size];
+            int count = 0;
+            while(count < size && current != null){
+                elements[count++] = current.data;
+                current = descending ? current.prev : current.next;
+            }
+            batch = count;
+            remaining -= count;
+            return new OrderedSpliterator<>(elements, 0, count, false, descending);
+        }
+
+        /**
+         * Pass the next element to an action.
+         * @param action the action
+         * @return false if there were no elements left
+         */
+        public boolean tryAdvance(Consumer<? super R> action){
+            if(action == null){
+                throw new NullPointerException();
+            }
+            if(current == null){
+                return false;
+            }
+            R data = current.data;
+            current = descending ? current.prev : current.next;
+            remaining--;
+            action.accept(data);
+            return true;
+        }
+
+        /**
+         * Pass every remaining element to an action.
+         * @param action the action
+         */
+        public void forEachRemaining(Consumer<? super R> action){
+            if(action == null){
+                throw new NullPointerException();
+            }
+            Node node = current;
+            current = null;
+            remaining = 0;
+            while(node != null){
+                action.accept(node.data);
+                node = descending ? node.prev : node.next;
+            }
+        }
+
+        /** @return the exact number of elements left */
+        public long estimateSize(){
+            return remaining;
+        }
+
+        /** @return the characteristics of the walk; batches split off are also SUBSIZED */
+        public int characteristics(){
+            return OrderedSpliterator.CHARACTERISTICS & ~Spliterator.SUBSIZED;
+        }
+
+        /** @return null for natural order, or the reverse of natural order when descending */
+        public Comparator<? super R> getComparator(){
+            return OrderedSpliterator.comparator(descending);
+        }
+    }
+
     /** 
      * Simple class that models a through a linked list. 
      */
     private class Node{
         /** The data contained within the node */
         private R data;
-        /** The next node in the list */
+        /** The next (higher) node in the list */
         private Node next;
+        /** The previous (lower) node in the list */
+        private Node prev;
 
         /**
          * Constructs a node
@@ -494,6 +1321,7 @@ public class OrderedLink<R extends Comparable<R>> implements OrderedInterface<R>
         private Node(R item){
             this.data = item;
             this.next = null;
+            this.prev = null;
         }
     }
     
@@ -0,0 +1,543 @@
+package orderedSet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * This is a concrete implementation of an ordered set of primitive <code>long</code> values. It has
+ * the same semantics as an OrderedSet&lt;Long&gt; (no duplicates, kept lowest to highest or highest
+ * to lowest, reversible) but stores the values in a plain <code>long[]</code>, so there is no boxed
+ * object per element and comparisons are plain long comparisons. The unboxed methods
+ * (add(long), contains(long), remove(long), get(int)) should be preferred; the OrderedInterface
+ * methods are provided so the set can be handed to existing callers, and box on the way in and
+ * out.
+ * <br>
+ * Like OrderedSet, the backing array is always kept lowest to highest and a descending set reads
+ * it from the back.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public class OrderedLongSet implements OrderedInterface<Long>{
+    private long[] data;
+    public static final int DEFAULT_CAPACITY = 10;
+    private boolean descending;
+    private int numElements;
+
+    /**
+     * Creates an empty ascending set.
+     * @param capacity the initial capacity of the backing array
+     * @throws IllegalStateException if capacity is negative
+     */
+    public OrderedLongSet(int capacity)throws IllegalStateException{
+        if(capacity < 0){
+            throw new IllegalStateException();
+        }
+        this.data = new long[capacity];
+        this.numElements = 0;
+        this.descending = false;
+    }
+
+    /** Creates an empty ascending set with the default capacity. */
+    public OrderedLongSet(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a set holding the distinct values of an array.
+     * @param values the values to add, in any order
+     * @param descending if the set is descending
+     * @throws IllegalArgumentException if values is null
+     */
+    public OrderedLongSet(long[] values, boolean descending)throws IllegalArgumentException{
+        if(values == null){
+            throw new IllegalArgumentException();
+        }
+        this.data = new long[values.length];
+        this.numElements = 0;
+        this.descending = descending;
+        addAll(values);
+    }
+
+    /**
+     * Creates a set holding the values of a collection.
+     * @param collection the values to add
+     * @param descending if the set is descending
+     * @throws IllegalArgumentException if collection is null or contains null
+     */
+    public OrderedLongSet(Collection<Long> collection, boolean descending)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        this.data = new long[collection.size()];
+        this.numElements = 0;
+        this.descending = descending;
+        addAll(collection);
+    }
+
+    /** Removes every value from the set. */
+    public void clear(){
+        numElements = 0;
+    }
+
+    /**
+     * Checks to see if the set is empty
+     * @return true if the set holds no values
+     */
+    public boolean isEmpty(){
+        return numElements == 0;
+    }
+
+    /**
+     * Gets the number of values within the set.
+     * @return the number of values in the set
+     */
+    public int size(){
+        return numElements;
+    }
+
+    /**
+     * Checks the capacity of the set.
+     * @return the length of the backing array
+     */
+    public int capacity(){
+        return data.length;
+    }
+
+    /**
+     * Grows the backing array.
+     * @param size the new capacity, which must be at least size()
+     */
+    protected void ensureCapacity(int size){
+        data = Arrays.copyOf(data, size);
+    }
+
+    /**
+     * Translate an index in the current direction of the set to a slot of the backing array.
+     * @param index position counted from the front of the set
+     * @return the slot of the backing array holding that position
+     */
+    private int physical(int index){
+        return descending ? numElements - 1 - index : index;
+    }
+
+    /**
+     * Get the value at the location specified by index, counting from the front of the set in
+     * its current direction.
+     * @param index position of the value
+     * @return the value at that position
+     * @throws NoSuchElementException if index is outside of the set
+     */
+    public long get(int index)throws NoSuchElementException{
+        if(index < 0 || index >= numElements){
+            throw new NoSuchElementException();
+        }
+        return data[physical(index)];
+    }
+
+    /**
+     * Binary search for a value in the backing array.
+     * @param key the value to search for
+     * @return the slot of the value if it is in the set, otherwise (-(insertion point) - 1)
+     */
+    private int search(long key){
+        return Arrays.binarySearch(data, 0, numElements, key);
+    }
+
+    /**
+     * Adds a value to the set if it is not already present.
+     * @param value the value to add
+     * @return true if the set did not already contain the value
+     */
+    public boolean add(long value){
+        int index = search(value);
+        if(index >= 0){
+            return false;
+        }
+        index = -(index + 1);
+        if(numElements == data.length){
+            ensureCapacity(Math.max(DEFAULT_CAPACITY, data.length * 2));
+        }
+        System.arraycopy(data, index, data, index + 1, numElements - index);
+        data[index] = value;
+        numElements++;
+        return true;
+    }
+
+    /**
+     * Adds a boxed value to the set if it is not already present.
+     * @param element the value to add
+     * @return true if the set did not already contain the value
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean add(Long element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        return add(element.longValue());
+    }
+
+    /**
+     * Checks to see if the set contains a value.
+     * @param value the value to look for
+     * @return true if the value is in the set
+     */
+    public boolean contains(long value){
+        return search(value) >= 0;
+    }
+
+    /**
+     * Checks to see if the set contains an object. Only a Long can be in the set.
+     * @param item the object to look for
+     * @return true if item is a Long whose value is in the set
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean contains(Object item)throws IllegalArgumentException{
+        if(item == null){
+            throw new IllegalArgumentException();
+        }
+        return item instanceof Long && contains(((Long) item).longValue());
+    }
+
+    /**
+     * Removes a value from the set.
+     * @param value the value to remove
+     * @return true if the value was in the set
+     */
+    public boolean remove(long value){
+        int index = search(value);
+        if(index < 0){
+            return false;
+        }
+        System.arraycopy(data, index + 1, data, index, numElements - index - 1);
+        numElements--;
+        return true;
+    }
+
+    /**
+     * Removes a boxed value from the set.
+     * @param item the value to remove
+     * @return true if the value was in the set
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean remove(Comparable item)throws IllegalArgumentException{
+        if(item == null){
+            throw new IllegalArgumentException();
+        }
+        return item instanceof Long && remove(((Long) item).longValue());
+    }
+
+    /**
+     * Adds every value of an array. The values are sorted and stripped of duplicates, then
+     * merged into the set from the back of the backing array with at most one resize.
+     * @param values the values to add, in any order
+     * @return true if the set changed
+     * @throws IllegalArgumentException if values is null
+     */
+    public boolean addAll(long[] values)throws IllegalArgumentException{
+        if(values == null){
+            throw new IllegalArgumentException();
+        }
+        long[] batch = values.clone();
+        Arrays.sort(batch);
+        return mergeSorted(batch, distinct(batch, batch.length));
+    }
+
+    /**
+     * Adds every value of a collection. Another OrderedLongSet is merged directly; any other collection is
+     * unboxed into an array first.
+     * @param collection the values to add
+     * @return true if the set changed
+     * @throws IllegalArgumentException if collection is null or contains null
+     */
+    public boolean addAll(Collection<? extends Long> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        if(collection instanceof OrderedLongSet){
+            OrderedLongSet other = (OrderedLongSet) collection;
+            return mergeSorted(other.data, other.numElements);
+        }
+        long[] batch = new long[collection.size()];
+        int count = 0;
+        for(Long element : collection){
+            if(element == null){
+                throw new IllegalArgumentException();
+            }
+            batch[count++] = element;
+        }
+        Arrays.sort(batch, 0, count);
+        return mergeSorted(batch, distinct(batch, count));
+    }
+
+    /**
+     * Squeeze the duplicates out of the front of a sorted array.
+     * @param values sorted values
+     * @param count number of values at the front of the array
+     * @return number of distinct values now at the front of the array
+     */
+    private static int distinct(long[] values, int count){
+        int write = 0;
+        for(int read = 0; read < count; read++){
+            if(write == 0 || values[write - 1] != values[read]){
+                values[write++] = values[read];
+            }
+        }
+        return write;
+    }
+
+    /**
+     * Merge ascending distinct values into the backing array in a single pass from the back.
+     * @param batch ascending, distinct values
+     * @param count number of values at the front of batch
+     * @return true if the set changed
+     */
+    private boolean mergeSorted(long[] batch, int count){
+        if(count == 0){
+            return false;
+        }
+        int prevSize = numElements;
+        int total = numElements + count;
+        if(data.length < total){
+            ensureCapacity(total);
+        }
+        int write = total - 1;
+        int mine = numElements - 1;
+        int theirs = count - 1;
+        while(theirs >= 0){
+            if(mine >= 0 && data[mine] > batch[theirs]){
+                data[write--] = data[mine--];
+            }
+            else{
+                if(mine >= 0 && data[mine] == batch[theirs]){
+                    mine--;
+                }
+                data[write--] = batch[theirs--];
+            }
+        }
+        while(mine >= 0){
+            data[write--] = data[mine--];
+        }
+        int skipped = write + 1;
+        if(skipped > 0){
+            System.arraycopy(data, skipped, data, 0, total - skipped);
+        }
+        numElements = total - skipped;
+        return numElements != prevSize;
+    }
+
+    /**
+     * Removes every value found in a collection.
+     * @param collection the values to remove
+     * @return true if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    public boolean removeAll(Collection<?> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        return sweep(collection, false);
+    }
+
+    /**
+     * Keeps only the values found in a collection.
+     * @param collection the values to keep
+     * @return true if the set changed
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean retainAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        return sweep(collection, true);
+    }
+
+    /**
+     * Keep or drop every value depending on whether it is in a collection, compacting the kept
+     * values in one pass. Another OrderedLongSet is walked side by side with this one.
+     * @param collection the collection to test membership against
+     * @param retain true to keep the values found in collection, false to keep the others
+     * @return true if any value was dropped
+     */
+    private boolean sweep(Collection<?> collection, boolean retain){
+        int write = 0;
+        if(collection instanceof OrderedLongSet){
+            OrderedLongSet other = (OrderedLongSet) collection;
+            int theirs = 0;
+            for(int read = 0; read < numElements; read++){
+                while(theirs < other.numElements && other.data[theirs] < data[read]){
+                    theirs++;
+                }
+                boolean found = theirs < other.numElements && other.data[theirs] == data[read];
+                if(found == retain){
+                    data[write++] = data[read];
+                }
+            }
+        }
+        else{
+            for(int read = 0; read < numElements; read++){
+                if(collection.contains(data[read]) == retain){
+                    data[write++] = data[read];
+                }
+            }
+        }
+        boolean result = write != numElements;
+        numElements = write;
+        return result;
+    }
+
+    /**
+     * Checks to see if every element of a collection is in this set.
+     * @param collection the elements to look for
+     * @return true if they are all in the set
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean containsAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        if(collection instanceof OrderedLongSet){
+            OrderedLongSet other = (OrderedLongSet) collection;
+            int mine = 0;
+            for(int theirs = 0; theirs < other.numElements; theirs++){
+                while(mine < numElements && data[mine] < other.data[theirs]){
+                    mine++;
+                }
+                if(mine == numElements || data[mine] != other.data[theirs]){
+                    return false;
+                }
+            }
+            return true;
+        }
+        for(Object item : collection){
+            if(!contains(item)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares this set with another collection for equality.
+     * @param other the object to compare with
+     * @return true if other is a Collection of the same size whose members are all in this set
+     */
+    public boolean equals(Object other){
+        boolean result = false;
+        if(other instanceof Collection){
+            Collection<?> temp = (Collection<?>) other;
+            result = size() == temp.size() && containsAll(temp);
+        }
+        return result;
+    }
+
+    /**
+     * Hash code consistent with a Set of the boxed values.
+     * @return hash code of this set
+     */
+    public int hashCode(){
+        int hash = 0;
+        for(int i = 0; i < numElements; i++){
+            hash += Long.hashCode(data[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Copies the values into a new array in the current order of the set.
+     * @return the values of the set
+     */
+    public long[] toLongArray(){
+        long[] result = new long[numElements];
+        for(int i = 0; i < numElements; i++){
+            result[i] = data[physical(i)];
+        }
+        return result;
+    }
+
+    /** Print each value in the set. */
+    public void printList(){
+        for(int i = 0; i < numElements; i++){
+            System.out.println(data[physical(i)]);
+        }
+    }
+
+    /**
+     * This function will return true if this set is descending and false if it is not.
+     * @return true if descending
+     */
+    public boolean isReversed(){
+        return descending;
+    }
+
+    /**
+     * Reverse the order of the set. Only the direction flag changes, so this takes constant
+     * time; values added afterwards keep the new order.
+     */
+    public void reverse(){
+        descending = !descending;
+    }
+
+    /**
+     * Constructs a string with the values in the form &lt;e, e, e&gt;
+     * @return the string representation of the set
+     */
+    public String toString(){
+        StringBuilder sb = new StringBuilder();
+        sb.append("<");
+        for(int i = 0; i < numElements; i++){
+            if(i != 0){
+                sb.append(", ");
+            }
+            sb.append(data[physical(i)]);
+        }
+        sb.append(">");
+        return sb.toString();
+    }
+
+    /**
+     * An iterator over the values that does not box them.
+     * @return iterator over the set in its current order
+     */
+    public PrimitiveIterator.OfLong longIterator(){
+        return new ValueIterator();
+    }
+
+    /**
+     * An iterator over the boxed values, for callers that expect an OrderedInterface.
+     * @return iterator over the set in its current order
+     */
+    public Iterator<Long> iterator(){
+        return new ValueIterator();
+    }
+
+    /** Iterator over the backing array in the current direction of the set. */
+    private class ValueIterator implements PrimitiveIterator.OfLong{
+        /** location of the iterator */
+        private int index;
+
+        /** Create a new iterator at the start of the set. */
+        private ValueIterator(){
+            index = 0;
+        }
+
+        /** Determines if there are values left in the set. */
+        public boolean hasNext(){
+            return index < numElements;
+        }
+
+        /** Returns the next value of the set. */
+        public long nextLong(){
+            if(index >= numElements){
+                throw new NoSuchElementException();
+            }
+            long value = data[physical(index)];
+            index++;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package orderedSet;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * A lazy k-way merge of several ordered sets. The next element of every set waits in a binary
+ * heap, so each element returned costs O(log k) comparisons and nothing is copied: the merge reads
+ * straight from the sets' own iterators. Elements that appear in more than one set are returned
+ * only once.
+ * <br>
+ * The sets must not be modified while the merge is being read.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+class OrderedMerge<T extends Comparable<T>> implements Iterator<T>{
+
+    /** One cursor per set that still has elements, ordered by the element it is parked on */
+    private final PriorityQueue<Cursor<T>> heap;
+    /** The element returned last, used to drop duplicates */
+    private T last;
+
+    /**
+     * Start merging the given sets.
+     * @param descending true to produce the elements highest to lowest
+     * @param sets the sets to merge
+     * @throws IllegalArgumentException if sets is null or holds a null set
+     */
+    OrderedMerge(boolean descending, Collection<? extends OrderedInterface<T>> sets)
+            throws IllegalArgumentException{
+        if(sets == null){
+            throw new IllegalArgumentException();
+        }
+        this.heap = new PriorityQueue<>(Math.max(1, sets.size()),
+            (first, second) -> OrderedSupport.compare(first.current, second.current, descending));
+        for(OrderedInterface<T> set : sets){
+            if(set == null){
+                throw new IllegalArgumentException();
+            }
+            Iterator<T> elements = (Iterator<T>) OrderedSupport.inOrder(set, descending);
+            if(elements.hasNext()){
+                heap.add(new Cursor<>(elements));
+            }
+        }
+        this.last = null;
+        skipDuplicates();
+    }
+
+    /**
+     * Discard the elements at the top of the heap that are equal to the last one returned.
+     */
+    private void skipDuplicates(){
+        while(last != null && !heap.isEmpty() && heap.peek().current.compareTo(last) == 0){
+            advance(heap.poll());
+        }
+    }
+
+    /**
+     * Move a cursor that has just been taken off the heap to its next element and put it back,
+     * or drop it if its set is exhausted.
+     * @param cursor the cursor to advance
+     */
+    private void advance(Cursor<T> cursor){
+        if(cursor.elements.hasNext()){
+            cursor.current = cursor.elements.next();
+            heap.add(cursor);
+        }
+    }
+
+    /**
+     * Determine if there are elements left in any of the sets.
+     * @return true if next will return an element
+     */
+    public boolean hasNext(){
+        return !heap.isEmpty();
+    }
+
+    /**
+     * Return the next element of the merged order.
+     * @return the next element
+     * @throws NoSuchElementException if every set is exhausted
+     */
+    public T next(){
+        if(heap.isEmpty()){
+            throw new NoSuchElementException();
+        }
+        Cursor<T> cursor = heap.poll();
+        last = cursor.current;
+        advance(cursor);
+        skipDuplicates();
+        return last;
+    }
+
+    /**
+     * The read position within one of the merged sets.
+     */
+    private static class Cursor<T>{
+        /** The remaining elements of the set */
+        private final Iterator<T> elements;
+        /** The element this cursor is parked on */
+        private T current;
+
+        /**
+         * Park a cursor on the first element of a set.
+         * @param elements the elements of the set, which must not be empty
+         */
+        private Cursor(Iterator<T> elements){
+            this.elements = elements;
+            this.current = elements.next();
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package orderedSet;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters and latency histograms for the hot paths of OrderedSet and OrderedLink. Metrics are
+ * opt in: a set only records anything after setMetrics has been given an OrderedMetrics, and a
+ * set without one pays a single null check per operation. One OrderedMetrics may be shared by
+ * several sets and by several threads; counters are LongAdders and histogram buckets are updated
+ * atomically.
+ * <br>
+ * Latencies are kept in power of two buckets: bucket i counts calls that took at least 2^i and
+ * less than 2^(i+1) nanoseconds (bucket 0 also counts calls under a nanosecond). The numbers can
+ * be read in code through snapshot() or from a JMX console once register has been called.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public final class OrderedMetrics implements OrderedMetricsMXBean{
+
+    /** Number of latency buckets, enough for any long */
+    private static final int BUCKETS = 64;
+
+    /** The operations that are timed */
+    public enum Operation{
+        /** add(element) */
+        ADD,
+        /** remove(element) */
+        REMOVE,
+        /** contains(element) */
+        CONTAINS,
+        /** get(index) */
+        GET,
+        /** addAll(collection) */
+        ADD_ALL,
+        /** removeAll(collection) */
+        REMOVE_ALL,
+        /** retainAll(collection) */
+        RETAIN_ALL
+    }
+
+    /** compareTo calls made while searching */
+    private final LongAdder comparisons;
+    /** equals checks made by hash index lookups */
+    private final LongAdder equalsCalls;
+    /** linked list nodes stepped over */
+    private final LongAdder nodesTraversed;
+    /** array copies made to shift or merge elements */
+    private final LongAdder arrayCopies;
+    /** backing arrays reallocated to grow or shrink */
+    private final LongAdder resizes;
+    /** latency buckets of each operation */
+    private final AtomicLongArray[] histograms;
+    /** total nanoseconds spent in each operation */
+    private final LongAdder[] totalNanos;
+    /** the name this is registered under, or null if it is not registered */
+    private ObjectName registeredAs;
+
+    /** Create an empty set of metrics */
+    public OrderedMetrics(){
+        this.comparisons = new LongAdder();
+        this.equalsCalls = new LongAdder();
+        this.nodesTraversed = new LongAdder();
+        this.arrayCopies = new LongAdder();
+        this.resizes = new LongAdder();
+        int operations = Operation.values().length;
+        this.histograms = new AtomicLongArray[operations];
+        this.totalNanos = new LongAdder[operations];
+        for(int i = 0; i < operations; i++){
+            histograms[i] = new AtomicLongArray(BUCKETS);
+            totalNanos[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Count compareTo calls.
+     * @param count the number of calls
+     */
+    void compared(int count){
+        comparisons.add(count);
+    }
+
+    /** Count one equals check. */
+    void equalsCalled(){
+        equalsCalls.increment();
+    }
+
+    /**
+     * Count linked list nodes stepped over.
+     * @param count the number of nodes
+     */
+    void traversed(int count){
+        nodesTraversed.add(count);
+    }
+
+    /** Count one array copy. */
+    void copied(){
+        arrayCopies.increment();
+    }
+
+    /** Count one resize of a backing array. */
+    void resized(){
+        resizes.increment();
+    }
+
+    /**
+     * Record the latency of an operation that started at a given time.
+     * @param operation the operation
+     * @param startNanos the value of System.nanoTime() when the operation started
+     */
+    void record(Operation operation, long startNanos){
+        long elapsed = System.nanoTime() - startNanos;
+        int bucket = (elapsed <= 1) ? 0 : 63 - Long.numberOfLeadingZeros(elapsed);
+        histograms[operation.ordinal()].incrementAndGet(bucket);
+        totalNanos[operation.ordinal()].add(Math.max(0, elapsed));
+    }
+
+    /**
+     * Take a consistent enough copy of every counter and histogram. Counters still being updated
+     * by other threads may be caught part way through.
+     * @return the snapshot
+     */
+    public Snapshot snapshot(){
+        return new Snapshot(this);
+    }
+
+    /** @return the number of compareTo calls made while searching */
+    public long getComparisons(){
+        return comparisons.sum();
+    }
+
+    /** @return the number of equals checks made by hash index lookups */
+    public long getEqualsCalls(){
+        return equalsCalls.sum();
+    }
+
+    /** @return the number of linked list nodes stepped over */
+    public long getNodesTraversed(){
+        return nodesTraversed.sum();
+    }
+
+    /** @return the number of array copies made to shift or merge elements */
+    public long getArrayCopies(){
+        return arrayCopies.sum();
+    }
+
+    /** @return the number of times a backing array was reallocated to grow or shrink */
+    public long getResizes(){
+        return resizes.sum();
+    }
+
+    /** @return the number of calls of each recorded operation */
+    public Map<String, Long> getOperationCounts(){
+        Snapshot snapshot = snapshot();
+        Map<String, Long> result = new LinkedHashMap<>();
+        for(Operation operation : snapshot.operations()){
+            result.put(operation.name(), snapshot.count(operation));
+        }
+        return result;
+    }
+
+    /** @return the mean latency in nanoseconds of each recorded operation */
+    public Map<String, Double> getMeanLatencyNanos(){
+        Snapshot snapshot = snapshot();
+        Map<String, Double> result = new LinkedHashMap<>();
+        for(Operation operation : snapshot.operations()){
+            result.put(operation.name(), snapshot.meanNanos(operation));
+        }
+        return result;
+    }
+
+    /** @return an upper bound on the 99th percentile latency of each recorded operation */
+    public Map<String, Long> getP99LatencyNanos(){
+        Snapshot snapshot = snapshot();
+        Map<String, Long> result = new LinkedHashMap<>();
+        for(Operation operation : snapshot.operations()){
+            result.put(operation.name(), snapshot.percentileNanos(operation, 0.99));
+        }
+        return result;
+    }
+
+    /** Set every counter and histogram back to zero. */
+    public void reset(){
+        comparisons.reset();
+        equalsCalls.reset();
+        nodesTraversed.reset();
+        arrayCopies.reset();
+        resizes.reset();
+        for(int i = 0; i < histograms.length; i++){
+            for(int b = 0; b < BUCKETS; b++){
+                histograms[i].set(b, 0);
+            }
+            totalNanos[i].reset();
+        }
+    }
+
+    /**
+     * Register these metrics with the platform MBean server as
+     * orderedSet:type=OrderedMetrics,name=&lt;name&gt;.
+     * @param name the name to show in JMX consoles
+     * @throws IllegalStateException if the metrics are already registered or JMX refuses them
+     * @throws IllegalArgumentException if name is null
+     */
+    public synchronized void register(String name)throws IllegalStateException{
+        if(name == null){
+            throw new IllegalArgumentException();
+        }
+        if(registeredAs != null){
+            throw new IllegalStateException("Already registered as " + registeredAs);
+        }
+        try{
+            ObjectName objectName = new ObjectName("orderedSet:type=OrderedMetrics,name="
+                    + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, objectName);
+            registeredAs = objectName;
+        }
+        catch(JMException e){
+            throw new IllegalStateException("Could not register metrics " + name, e);
+        }
+    }
+
+    /**
+     * Remove these metrics from the platform MBean server. Does nothing if they are not
+     * registered.
+     */
+    public synchronized void unregister(){
+        if(registeredAs == null){
+            return;
+        }
+        try{
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredAs);
+        }
+        catch(JMException e){
+            // already gone
+        }
+        registeredAs = null;
+    }
+
+    /**
+     * An immutable copy of the metrics at one moment.
+     */
+    public static final class Snapshot{
+        /** compareTo calls made while searching */
+        private final long comparisons;
+        /** equals checks made by hash index lookups */
+        private final long equalsCalls;
+        /** linked list nodes stepped over */
+        private final long nodesTraversed;
+        /** array copies made */
+        private final long arrayCopies;
+        /** backing arrays reallocated */
+        private final long resizes;
+        /** latency buckets of each operation */
+        private final Map<Operation, long[]> histograms;
+        /** total nanoseconds spent in each operation */
+        private final Map<Operation, Long> totalNanos;
+
+        /**
+         * Copy the metrics.
+         * @param metrics the metrics to copy
+         */
+        private Snapshot(OrderedMetrics metrics){
+            this.comparisons = metrics.comparisons.sum();
+            this.equalsCalls = metrics.equalsCalls.sum();
+            this.nodesTraversed = metrics.nodesTraversed.sum();
+            this.arrayCopies = metrics.arrayCopies.sum();
+            this.resizes = metrics.resizes.sum();
+            this.histograms = new EnumMap<>(Operation.class);
+            this.totalNanos = new EnumMap<>(Operation.class);
+            for(Operation operation : Operation.values()){
+                AtomicLongArray live = metrics.histograms[operation.ordinal()];
+                long[] buckets = new long[BUCKETS];
+                long count = 0;
+                for(int b = 0; b < BUCKETS; b++){
+                    buckets[b] = live.get(b);
+                    count += buckets[b];
+                }
+                if(count > 0){
+                    histograms.put(operation, buckets);
+                    totalNanos.put(operation, metrics.totalNanos[operation.ordinal()].sum());
+                }
+            }
+        }
+
+        /** @return the number of compareTo calls made while searching */
+        public long comparisons(){
+            return comparisons;
+        }
+
+        /** @return the number of equals checks made by hash index lookups */
+        public long equalsCalls(){
+            return equalsCalls;
+        }
+
+        /** @return the number of linked list nodes stepped over */
+        public long nodesTraversed(){
+            return nodesTraversed;
+        }
+
+        /** @return the number of array copies made to shift or merge elements */
+        public long arrayCopies(){
+            return arrayCopies;
+        }
+
+        /** @return the number of times a backing array was reallocated to grow or shrink */
+        public long resizes(){
+            return resizes;
+        }
+
+        /** @return the operations that were called at least once, in declaration order */
+        public Iterable<Operation> operations(){
+            return histograms.keySet();
+        }
+
+        /**
+         * The latency histogram of an operation.
+         * @param operation the operation
+         * @return a copy of the 64 buckets; bucket i counts calls that took at least 2^i and
+         * less than 2^(i+1) nanoseconds
+         */
+        public long[] buckets(Operation operation){
+            long[] buckets = histograms.get(operation);
+            return (buckets == null) ? new long[BUCKETS] : buckets.clone();
+        }
+
+        /**
+         * The number of calls of an operation.
+         * @param operation the operation
+         * @return the number of calls
+         */
+        public long count(Operation operation){
+            long count = 0;
+            for(long bucket : buckets(operation)){
+                count += bucket;
+            }
+            return count;
+        }
+
+        /**
+         * The mean latency of an operation.
+         * @param operation the operation
+         * @return the mean in nanoseconds, or 0 if it was never called
+         */
+        public double meanNanos(Operation operation){
+            long count = count(operation);
+            return (count == 0) ? 0 : (double) totalNanos.get(operation) / count;
+        }
+
+        /**
+         * An upper bound on a percentile of the latency of an operation, accurate to within a
+         * factor of two.
+         * @param operation the operation
+         * @param fraction the percentile as a fraction, between 0 and 1
+         * @return the upper edge in nanoseconds of the bucket holding the percentile, or 0 if
+         * the operation was never called
+         * @throws IllegalArgumentException if fraction is outside of 0 to 1
+         */
+        public long percentileNanos(Operation operation, double fraction)throws IllegalArgumentException{
+            if(!(fraction >= 0 && fraction <= 1)){
+                throw new IllegalArgumentException();
+            }
+            long[] buckets = buckets(operation);
+            long count = count(operation);
+            if(count == 0){
+                return 0;
+            }
+            long wanted = Math.max(1, (long) Math.ceil(fraction * count));
+            long seen = 0;
+            for(int b = 0; b < BUCKETS; b++){
+                seen += buckets[b];
+                if(seen >= wanted){
+                    return (b >= 62) ? Long.MAX_VALUE : (1L << (b + 1)) - 1;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        /**
+         * Display the snapshot as a String.
+         * @return the counters and the count, mean and 99th percentile of each operation
+         */
+        public String toString(){
+            StringBuilder sb = new StringBuilder();
+            sb.append("comparisons=").append(comparisons);
+            sb.append(", equalsCalls=").append(equalsCalls);
+            sb.append(", nodesTraversed=").append(nodesTraversed);
+            sb.append(", arrayCopies=").append(arrayCopies);
+            sb.append(", resizes=").append(resizes);
+            for(Operation operation : operations()){
+                sb.append(", ").append(operation).append("={count=").append(count(operation));
+                sb.append(", meanNanos=").append(String.format("%.1f", meanNanos(operation)));
+                sb.append(", p99Nanos=").append(percentileNanos(operation, 0.99)).append("}");
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package orderedSet;
+
+import java.util.Map;
+
+/**
+ * The JMX view of an OrderedMetrics. Registered by OrderedMetrics.register under the name
+ * orderedSet:type=OrderedMetrics,name=&lt;name&gt;. Latency maps are keyed by operation name and
+ * only list operations that have been recorded.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+public interface OrderedMetricsMXBean {
+
+    /**
+     * The number of compareTo calls made while searching.
+     * @return the comparison count
+     */
+    public long getComparisons();
+
+    /**
+     * The number of equals checks, made by hash index lookups.
+     * @return the equals count
+     */
+    public long getEqualsCalls();
+
+    /**
+     * The number of linked list nodes stepped over.
+     * @return the traversal count
+     */
+    public long getNodesTraversed();
+
+    /**
+     * The number of array copies made to shift or merge elements.
+     * @return the array copy count
+     */
+    public long getArrayCopies();
+
+    /**
+     * The number of times a backing array was reallocated to grow or shrink.
+     * @return the resize count
+     */
+    public long getResizes();
+
+    /**
+     * The number of calls of each operation.
+     * @return calls keyed by operation name
+     */
+    public Map<String, Long> getOperationCounts();
+
+    /**
+     * The mean latency of each operation.
+     * @return nanoseconds keyed by operation name
+     */
+    public Map<String, Double> getMeanLatencyNanos();
+
+    /**
+     * An upper bound on the 99th percentile latency of each operation, to within a factor of two.
+     * @return nanoseconds keyed by operation name
+     */
+    public Map<String, Long> getP99LatencyNanos();
+
+    /** Set every counter and histogram back to zero. */
+    public void reset();
+}
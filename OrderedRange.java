@@ -0,0 +1,95 @@
+package orderedSet;
+
+/**
+ * The bounds of a range view over an ordered set. Bounds are given in the order of the set they
+ * were taken from (so "from" is the end the view starts at when it is iterated), but they are
+ * kept here as a lowest and highest key so that the range keeps covering the same keys if the
+ * set is later reversed. A missing bound is null.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+final class OrderedRange<R extends Comparable<R>>{
+
+    /** Lowest key of the range, or null if there is no lower bound */
+    final R low;
+    /** true if low itself is in the range */
+    final boolean lowInclusive;
+    /** Highest key of the range, or null if there is no upper bound */
+    final R high;
+    /** true if high itself is in the range */
+    final boolean highInclusive;
+
+    /**
+     * Create a range from bounds given in the order of a set.
+     * @param from the bound the set's order starts from, or null for none
+     * @param fromInclusive true if from itself is in the range
+     * @param to the bound the set's order ends at, or null for none
+     * @param toInclusive true if to itself is in the range
+     * @param descending the direction of the set the bounds are taken from
+     * @throws IllegalArgumentException if from comes after to in the set's order
+     */
+    OrderedRange(R from, boolean fromInclusive, R to, boolean toInclusive, boolean descending)
+            throws IllegalArgumentException{
+        if(from != null && to != null && OrderedSupport.compare(from, to, descending) > 0){
+            throw new IllegalArgumentException("from comes after to");
+        }
+        if(descending){
+            this.low = to;
+            this.lowInclusive = toInclusive;
+            this.high = from;
+            this.highInclusive = fromInclusive;
+        }
+        else{
+            this.low = from;
+            this.lowInclusive = fromInclusive;
+            this.high = to;
+            this.highInclusive = toInclusive;
+        }
+    }
+
+    /**
+     * Determine if a key is below the range.
+     * @param key the key
+     * @return true if key is lower than every key of the range
+     */
+    boolean tooLow(R key){
+        if(low == null){
+            return false;
+        }
+        int cmp = key.compareTo(low);
+        return cmp < 0 || (cmp == 0 && !lowInclusive);
+    }
+
+    /**
+     * Determine if a key is above the range.
+     * @param key the key
+     * @return true if key is higher than every key of the range
+     */
+    boolean tooHigh(R key){
+        if(high == null){
+            return false;
+        }
+        int cmp = key.compareTo(high);
+        return cmp > 0 || (cmp == 0 && !highInclusive);
+    }
+
+    /**
+     * Determine if an object is a key within the range.
+     * @param item the object
+     * @return true if item can be compared with the bounds and lies between them
+     */
+    boolean contains(Object item){
+        if(!(item instanceof Comparable)){
+            return false;
+        }
+        try{
+            R key = (R) item;
+            return !tooLow(key) && !tooHigh(key);
+        }
+        catch(ClassCastException e){
+            return false;
+        }
+    }
+}
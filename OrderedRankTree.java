@@ -0,0 +1,693 @@
+package orderedSet;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This is a concrete implementation of a Set using a balanced binary search tree in which every
+ * node also records the size of its subtree. Like the other implementations it models the
+ * mathematical set abstraction in which the set must not contain duplicates and the values in
+ * the set must be ordered (determined using the compareTo method of each object element).
+ * <br>
+ * The subtree sizes make the set indexable: get(index), indexOf(element) and countInRange all
+ * take O(log n), as do add, contains and remove. The tree is kept balanced with AVL rotations.
+ * The tree is always ordered lowest to highest; a descending set counts its indexes from the
+ * highest element instead, so reverse() takes constant time.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public class OrderedRankTree<R extends Comparable<R>> implements OrderedInterface<R>{
+
+    /** boolean representing whether the tree is descending or ascending */
+    private boolean descending;
+    /** The root of the tree, or null when empty */
+    private Node<R> root;
+    /** Set by insert and delete when they change the tree */
+    private boolean modified;
+
+    /** Create an OrderedRankTree */
+    public OrderedRankTree(){
+        this.descending = false;
+        this.root = null;
+    }
+
+    /**
+     * Creates an 'descending' empty set.
+     * @param descending if set is to be descending
+     */
+    public OrderedRankTree(boolean descending){
+        this();
+        this.descending = descending;
+    }
+
+    /**
+     * Create a OrderedRankTree based on the values from any Collection.
+     * @param collection collection whose data to be added to this OrderedRankTree
+     * @param descending if set is to be descending
+     * @throws IllegalArgumentException if collection is null or contains null
+     */
+    public OrderedRankTree(Collection<R> collection, boolean descending)throws IllegalArgumentException{
+        this(descending);
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        addAll(collection);
+    }
+
+    /** Clear the set so that the are 0 elements. */
+    public void clear(){
+        this.root = null;
+    }
+
+    /** Return true if this set is empty.
+     * @return boolean indicating if set is empty
+     */
+    public boolean isEmpty(){
+        return root == null;
+    }
+
+    /** Get the number of elements in this tree.
+     * @return number of elements in this tree
+     */
+    public int size(){
+        return size(root);
+    }
+
+    /** Print each item in the set. */
+    public void printList(){
+        for(R data:this){
+            System.out.println(data);
+        }
+    }
+
+    /**
+     * Display this class as a String.
+     * @return elements in the tree in displayable format
+     */
+    public String toString(){
+        StringBuilder sb = new StringBuilder();
+        sb.append("<");
+        Iterator<R> it = iterator();
+        while(it.hasNext()){
+            sb.append(it.next().toString());
+            if(it.hasNext()){
+                sb.append(", ");
+            }
+        }
+        sb.append(">");
+        return sb.toString();
+    }
+
+    /**
+     * Get the item at the index position specified, counting from the front of the set in its
+     * current direction. Found by descending the tree using the subtree sizes, in O(log n).
+     * @param location index to retrieve an item from
+     * @return the item from a particular index
+     * @throws NoSuchElementException if location is outside of the set
+     */
+    public R get(int location)throws NoSuchElementException{
+        int count = size();
+        if(location < 0 || location >= count){
+            throw new NoSuchElementException();
+        }
+        int rank = descending ? count - 1 - location : location;
+        Node<R> current = root;
+        while(true){
+            int leftSize = size(current.left);
+            if(rank < leftSize){
+                current = current.left;
+            }
+            else if(rank == leftSize){
+                return current.data;
+            }
+            else{
+                rank -= leftSize + 1;
+                current = current.right;
+            }
+        }
+    }
+
+    /**
+     * Find the index of an element, counting from the front of the set in its current direction,
+     * in O(log n).
+     * @param element the element to look for
+     * @return the index of element, or -1 if it is not in the set
+     * @throws IllegalArgumentException if element is null
+     */
+    public int indexOf(Object element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        if(!(element instanceof Comparable)){
+            return -1;
+        }
+        try{
+            R key = (R) element;
+            int rank = 0;
+            Node<R> current = root;
+            while(current != null){
+                int cmp = key.compareTo(current.data);
+                if(cmp < 0){
+                    current = current.left;
+                }
+                else if(cmp > 0){
+                    rank += size(current.left) + 1;
+                    current = current.right;
+                }
+                else{
+                    rank += size(current.left);
+                    return descending ? size() - 1 - rank : rank;
+                }
+            }
+        }
+        catch(ClassCastException e){
+            return -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Count the elements between two elements, both included, in O(log n). The bounds are given
+     * in the current order of the set, like the bounds of a subSet.
+     * @param from the element the range starts at
+     * @param to the element the range ends at
+     * @return the number of elements from from to to
+     * @throws IllegalArgumentException if either bound is null or from comes after to
+     */
+    public int countInRange(R from, R to)throws IllegalArgumentException{
+        return countInRange(from, true, to, true);
+    }
+
+    /**
+     * Count the elements between two elements in O(log n). The bounds are given in the current
+     * order of the set, like the bounds of a subSet.
+     * @param from the element the range starts at
+     * @param fromInclusive true if from itself is counted
+     * @param to the element the range ends at
+     * @param toInclusive true if to itself is counted
+     * @return the number of elements in the range
+     * @throws IllegalArgumentException if either bound is null or from comes after to
+     */
+    public int countInRange(R from, boolean fromInclusive, R to, boolean toInclusive)
+            throws IllegalArgumentException{
+        if(from == null || to == null){
+            throw new IllegalArgumentException();
+        }
+        OrderedRange<R> range = new OrderedRange<>(from, fromInclusive, to, toInclusive, descending);
+        int below = countBelow(range.low, !range.lowInclusive);
+        int upTo = countBelow(range.high, range.highInclusive);
+        return Math.max(0, upTo - below);
+    }
+
+    /**
+     * Count the elements lower than a key.
+     * @param key the key
+     * @param inclusive true to also count the key itself if it is present
+     * @return the number of elements lower than (or equal to) key
+     */
+    private int countBelow(R key, boolean inclusive){
+        int count = 0;
+        Node<R> current = root;
+        while(current != null){
+            int cmp = current.data.compareTo(key);
+            if(cmp < 0 || (cmp == 0 && inclusive)){
+                count += size(current.left) + 1;
+                current = current.right;
+            }
+            else{
+                current = current.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Return the node which matches this key.
+     * @param key the key whose node to find
+     * @return node holding key or null if it is not in the set
+     */
+    private Node<R> findNode(R key){
+        Node<R> current = root;
+        while(current != null){
+            int cmp = key.compareTo(current.data);
+            if(cmp == 0){
+                return current;
+            }
+            current = (cmp < 0) ? current.left : current.right;
+        }
+        return null;
+    }
+
+    /**
+     * Add an item in order where it needs to go within the set.
+     * @param element the element to add
+     * @return boolean indicating if item was added
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean add(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        modified = false;
+        root = insert(root, element);
+        return modified;
+    }
+
+    /**
+     * Insert a key into a subtree.
+     * @param node the root of the subtree
+     * @param key the key to insert
+     * @return the new root of the subtree
+     */
+    private Node<R> insert(Node<R> node, R key){
+        if(node == null){
+            modified = true;
+            return new Node<>(key);
+        }
+        int cmp = key.compareTo(node.data);
+        if(cmp < 0){
+            node.left = insert(node.left, key);
+        }
+        else if(cmp > 0){
+            node.right = insert(node.right, key);
+        }
+        else{
+            return node;
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * Add all items from another Collection to this set. A large batch is sorted, merged with
+     * the elements already in the set and the tree is rebuilt perfectly balanced in O(n + m log m);
+     * a small batch is added one element at a time.
+     * @param collection whose data to add all elements from
+     * @return boolean indicating if the set changed
+     * @throws NullPointerException if collection is null
+     * @throws IllegalArgumentException if the collection contains null
+     */
+    public boolean addAll(Collection<? extends R> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        int prevSize = size();
+        if(collection.size() < prevSize / 4){
+            for(R data : collection){
+                add(data);
+            }
+            return size() != prevSize;
+        }
+        R[] batch = OrderedSupport.sortedDistinct(collection, false);
+        R[] merged = (R[]) new Comparable[prevSize + batch.length];
+        int count = 0;
+        int theirs = 0;
+        for(R mine : ascending()){
+            while(theirs < batch.length && batch[theirs].compareTo(mine) < 0){
+                merged[count++] = batch[theirs++];
+            }
+            if(theirs < batch.length && batch[theirs].compareTo(mine) == 0){
+                theirs++;
+            }
+            merged[count++] = mine;
+        }
+        while(theirs < batch.length){
+            merged[count++] = batch[theirs++];
+        }
+        root = build(merged, 0, count);
+        return count != prevSize;
+    }
+
+    /**
+     * Build a perfectly balanced subtree from part of a sorted array.
+     * @param sorted distinct elements lowest to highest
+     * @param from first slot to use
+     * @param to slot after the last slot to use
+     * @return the root of the subtree, or null if the range is empty
+     */
+    private static <R extends Comparable<R>> Node<R> build(R[] sorted, int from, int to){
+        if(from >= to){
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        Node<R> node = new Node<>(sorted[mid]);
+        node.left = build(sorted, from, mid);
+        node.right = build(sorted, mid + 1, to);
+        update(node);
+        return node;
+    }
+
+    /**
+     * Determine if a specific object is in the set.
+     * @param element to check if contained within this set
+     * @return boolean indicating if element passed is contained within this set
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean contains(Object element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        if(!(element instanceof Comparable)){
+            return false;
+        }
+        try{
+            return findNode((R) element) != null;
+        }
+        catch(ClassCastException e){
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if this set contains all of the elements of the specified Collection.
+     * @param collection to check if all its data is contained within ours
+     * @return boolean
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean containsAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        for(Object item : collection){
+            if(!contains(item)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     * @param item to remove from set
+     * @return boolean indicating if item was succesfully removed
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean remove(Comparable item)throws IllegalArgumentException{
+        if(!contains(item)){
+            return false;
+        }
+        modified = false;
+        root = delete(root, (R) item);
+        return modified;
+    }
+
+    /**
+     * Delete a key from a subtree.
+     * @param node the root of the subtree
+     * @param key the key to delete
+     * @return the new root of the subtree
+     */
+    private Node<R> delete(Node<R> node, R key){
+        if(node == null){
+            return null;
+        }
+        int cmp = key.compareTo(node.data);
+        if(cmp < 0){
+            node.left = delete(node.left, key);
+        }
+        else if(cmp > 0){
+            node.right = delete(node.right, key);
+        }
+        else{
+            modified = true;
+            if(node.left == null){
+                return node.right;
+            }
+            if(node.right == null){
+                return node.left;
+            }
+            Node<R> successor = node.right;
+            while(successor.left != null){
+                successor = successor.left;
+            }
+            node.data = successor.data;
+            node.right = delete(node.right, successor.data);
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * Removes from this set all of its elements that are contained in the specified Collection.
+     * @param collection whose data to remove all from in this set
+     * @return boolean indicating if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    public boolean removeAll(Collection<?> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        int prevSize = size();
+        for(Object data : collection){
+            if(data instanceof Comparable){
+                remove((Comparable) data);
+            }
+        }
+        return size() != prevSize;
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the specified Collection. The
+     * kept elements are collected in order and the tree is rebuilt from them.
+     * @param collection whose elements to retain
+     * @return boolean indicating if the set changed
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean retainAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        int prevSize = size();
+        R[] kept = (R[]) new Comparable[prevSize];
+        int count = 0;
+        for(R data : ascending()){
+            if(collection.contains(data)){
+                kept[count++] = data;
+            }
+        }
+        if(count != prevSize){
+            root = build(kept, 0, count);
+        }
+        return count != prevSize;
+    }
+
+    /**
+     * Compares the specified object with this set for equality. Returns true if the specified
+     * object is also a Collection, the two have the same size, and every member of the specified
+     * collection is contained in this set.
+     * @param other the specified object to be compared
+     * @return boolean indicating if items were equal or not
+     */
+    public boolean equals(Object other){
+        boolean result = false;
+        if(other instanceof Collection){
+            Collection<?> temp = (Collection<?>) other;
+            result = this.size() == temp.size() && containsAll(temp);
+        }
+        return result;
+    }
+
+    /**
+     * Hash code consistent with equals, the sum of the hash codes of the elements.
+     * @return hash code of this set
+     */
+    public int hashCode(){
+        int hash = 0;
+        for(R data : this){
+            hash += data.hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * This function will return true if this set is descending and false if it is ascending.
+     * @return boolean indicating if set is descending or ascending
+     */
+    public boolean isReversed(){
+        return this.descending;
+    }
+
+    /**
+     * Reverse the order of the set. The tree stays ordered lowest to highest; only the direction
+     * it is read and indexed in changes, so this runs in constant time.
+     */
+    public void reverse(){
+        this.descending = !this.descending;
+    }
+
+    /**
+     * Return an iterator for this OrderedRankTree
+     * @return iterator over the set in its current order
+     */
+    public Iterator<R> iterator(){
+        return new TreeIterator(descending);
+    }
+
+    /**
+     * The elements lowest to highest, whatever the direction of the set.
+     * @return an Iterable over the elements in ascending order
+     */
+    private Iterable<R> ascending(){
+        return () -> new TreeIterator(false);
+    }
+
+    /**
+     * Get the size of a subtree.
+     * @param node the root of the subtree, or null
+     * @return the number of nodes in the subtree
+     */
+    private static int size(Node<?> node){
+        return (node == null) ? 0 : node.size;
+    }
+
+    /**
+     * Get the height of a subtree.
+     * @param node the root of the subtree, or null
+     * @return the height of the subtree, 0 when empty
+     */
+    private static int height(Node<?> node){
+        return (node == null) ? 0 : node.height;
+    }
+
+    /**
+     * Recompute the height and size of a node from its children.
+     * @param node the node
+     */
+    private static void update(Node<?> node){
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    /**
+     * Restore the AVL balance of a node whose children are balanced.
+     * @param node the node
+     * @return the new root of the subtree
+     */
+    private static <R extends Comparable<R>> Node<R> rebalance(Node<R> node){
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if(balance > 1){
+            if(height(node.left.left) < height(node.left.right)){
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if(balance < -1){
+            if(height(node.right.right) < height(node.right.left)){
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Rotate a subtree to the left.
+     * @param node the root of the subtree, which has a right child
+     * @return the new root of the subtree
+     */
+    private static <R extends Comparable<R>> Node<R> rotateLeft(Node<R> node){
+        Node<R> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Rotate a subtree to the right.
+     * @param node the root of the subtree, which has a left child
+     * @return the new root of the subtree
+     */
+    private static <R extends Comparable<R>> Node<R> rotateRight(Node<R> node){
+        Node<R> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * An in-order iterator that keeps the path to the next node on a stack.
+     */
+    private class TreeIterator implements Iterator<R>{
+
+        /** The nodes still to be returned, with the next one on top */
+        private final ArrayDeque<Node<R>> path;
+        /** true to walk from highest to lowest */
+        private final boolean backward;
+
+        /**
+         * Creates a TreeIterator.
+         * @param backward true to walk from highest to lowest
+         */
+        private TreeIterator(boolean backward){
+            this.path = new ArrayDeque<>();
+            this.backward = backward;
+            descend(root);
+        }
+
+        /**
+         * Push a node and its chain of children towards the next element.
+         * @param node the node to start from
+         */
+        private void descend(Node<R> node){
+            while(node != null){
+                path.push(node);
+                node = backward ? node.right : node.left;
+            }
+        }
+
+        /** Is there another element to access in this tree?
+         * @return true if there is another element
+         */
+        public boolean hasNext(){
+            return !path.isEmpty();
+        }
+
+        /** Get the next element in the tree if one exists.
+         * @return the next element
+         * @throws NoSuchElementException if the iteration is over
+         */
+        public R next(){
+            if(path.isEmpty()){
+                throw new NoSuchElementException();
+            }
+            Node<R> node = path.pop();
+            descend(backward ? node.left : node.right);
+            return node.data;
+        }
+    }
+
+    /**
+     * A node of the tree that records the height and size of the subtree below it.
+     */
+    private static class Node<R extends Comparable<R>>{
+        /** The data contained within the node */
+        private R data;
+        /** The subtree of lower elements */
+        private Node<R> left;
+        /** The subtree of higher elements */
+        private Node<R> right;
+        /** The height of this subtree */
+        private int height;
+        /** The number of nodes in this subtree */
+        private int size;
+
+        /**
+         * Constructs a leaf node
+         * @param item data within node
+         */
+        private Node(R item){
+            this.data = item;
+            this.left = null;
+            this.right = null;
+            this.height = 1;
+            this.size = 1;
+        }
+    }
+}
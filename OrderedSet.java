@@ -1,7 +1,21 @@
 package orderedSet;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
 
 /**
  * This is a concrete implementation of a <b>OrderedSet</b> using generic arrays.  It models the
@@ -13,6 +27,9 @@ import java.util.NoSuchElementException;
  * <br> 
  * <b>NOTE: The with an ORDEREDSET the elements must not be duplicates, and they must be ordered
  * lowest to highest, numerically or alphabetically.</b>
+ * <br>
+ * The backing array is always kept lowest to highest. A descending set reads it from the back,
+ * so reversing the set only flips a flag.
  *
  * @author Matthew Talle and Kevin Caverly
  * @version Spring 2023
@@ -24,6 +41,16 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
     public static final int DEFAULT_CAPACITY = 10;
     private boolean descending;
     private int numElements;
+    /** Optional hash index over the elements for constant time lookups, or null when off */
+    private HashSet<R> hashIndex;
+    /** true if the set never grows past the length of data and evicts its last element instead */
+    private boolean bounded;
+    /** Where hot path counters and latencies are recorded, or null when metrics are off */
+    private OrderedMetrics metrics;
+    /** Picks the new capacity when the array is full */
+    private GrowthPolicy growthPolicy = GrowthPolicy.DOUBLING;
+    /** The array shrinks when fewer than this fraction of its slots are used; 0 never shrinks */
+    private double shrinkThreshold;
 
     public OrderedSet(int capacity)throws IllegalStateException{
         if(capacity < 0){
@@ -44,11 +71,48 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
         }
         else{
             this.data = (R[])new Comparable[collection.size()];
-            addAll(collection);
             this.descending = descending;
-            numElements = collection.size();
+            this.numElements = 0;
+            addAll(collection);
+        }
+    }
+    /**
+     * Creates a set that takes ownership of an array which is already in order and free of
+     * duplicates, without checking or copying it.
+     * @param sorted the elements, lowest to highest whatever the direction, followed by unused
+     * slots
+     * @param count the number of elements at the front of sorted
+     * @param descending if the set is descending
+     */
+    OrderedSet(R[] sorted, int count, boolean descending){
+        this.data = sorted;
+        this.numElements = count;
+        this.descending = descending;
+    }
+
+    /**
+     * Creates a bounded set that keeps at most maxSize elements, such as a leaderboard of the
+     * top scores. The set keeps the first maxSize elements in its current order: once it is full,
+     * a new element that belongs in front of the last one is inserted and the last one is
+     * evicted, while one that would come after the last one is rejected with a single
+     * comparison. A descending set therefore keeps the highest elements and evicts the lowest,
+     * and an ascending set keeps the lowest. The backing array is allocated once at maxSize and
+     * never grows.
+     * @param maxSize the most elements the set holds
+     * @param descending if the set is descending
+     * @return an empty bounded set
+     * @throws IllegalArgumentException if maxSize is less than 1
+     */
+    public static <R extends Comparable<R>> OrderedSet<R> bounded(int maxSize, boolean descending)
+            throws IllegalArgumentException{
+        if(maxSize < 1){
+            throw new IllegalArgumentException();
         }
+        OrderedSet<R> set = new OrderedSet<>((R[]) new Comparable[maxSize], 0, descending);
+        set.bounded = true;
+        return set;
     }
+
     /**
      * Clear function for the given set that iterates through the data and removes all items
      */ 
@@ -57,6 +121,10 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
             data[i] = null;
         }
         numElements = 0;
+        if(hashIndex != null){
+            hashIndex.clear();
+        }
+        shrinkIfSparse();
     }
     /**
      * Checks to see if the given set is empty
@@ -84,6 +152,75 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
     public int capacity(){
         return this.data.length;
     }
+
+    /**
+     * Checks whether the set was created by bounded(), with a fixed maximum size.
+     * @return true if the set evicts elements once it holds capacity() of them
+     */
+    public boolean isBounded(){
+        return bounded;
+    }
+    /**
+     * Sets how the backing array grows when it is full. The default doubles it.
+     * @param policy the growth policy
+     * @throws IllegalArgumentException if policy is null
+     */
+    public void setGrowthPolicy(GrowthPolicy policy)throws IllegalArgumentException{
+        if(policy == null){
+            throw new IllegalArgumentException();
+        }
+        this.growthPolicy = policy;
+    }
+
+    /**
+     * Makes the set shrink its backing array automatically. Whenever removing elements leaves
+     * fewer than threshold of the slots in use, the array is reallocated at twice the number of
+     * elements (but never below DEFAULT_CAPACITY), so a set that peaked and then emptied gives
+     * the memory back. Keeping threshold below one half leaves room to add again before the
+     * array has to grow. Bounded sets never shrink.
+     * @param threshold the fraction of slots in use below which the array shrinks, from 0 (never
+     * shrink, the default) up to but not including 0.5
+     * @throws IllegalArgumentException if threshold is outside of that range
+     */
+    public void setShrinkThreshold(double threshold)throws IllegalArgumentException{
+        if(!(threshold >= 0 && threshold < 0.5)){
+            throw new IllegalArgumentException();
+        }
+        this.shrinkThreshold = threshold;
+        shrinkIfSparse();
+    }
+
+    /**
+     * Reduces the capacity of the backing array to the number of elements in the set. Bounded
+     * sets keep their fixed array.
+     */
+    public void trimToSize(){
+        if(!bounded && data.length > numElements){
+            ensureCapacity(numElements);
+        }
+    }
+
+    /**
+     * Shrink the backing array if the shrink threshold is set and too few slots are in use.
+     */
+    private void shrinkIfSparse(){
+        if(shrinkThreshold > 0 && !bounded && data.length > DEFAULT_CAPACITY
+                && numElements < data.length * shrinkThreshold){
+            ensureCapacity(Math.max(DEFAULT_CAPACITY, numElements * 2));
+        }
+    }
+
+    /**
+     * Estimates the heap retained by this set: the set object, its backing array and its hash
+     * index if it has one, assuming a 64-bit JVM with compressed references. The elements are
+     * not counted because they may be shared with other collections.
+     * @return the estimated size in bytes
+     */
+    public long retainedBytes(){
+        long array = (16 + 4L * data.length + 7) & ~7L;
+        return 48 + array + hashIndexBytes();
+    }
+
     /**
      * Makes sure that there is enough room to fit new data in the set by making a copy 
      * @param size Size of the given set
@@ -91,26 +228,53 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
     protected void ensureCapacity(int size){
             R[] temp = (R[]) new Comparable[size];
             System.arraycopy(data, 0, temp, 0, numElements);
+            if(metrics != null){
+                metrics.resized();
+                metrics.copied();
+            }
 
             this.data = temp;
         
     }
     /**
-     * Get a reference to the element at the location specified by index
+     * Get a reference to the element at the location specified by index, counting from the front
+     * of the set in its current direction.
      * @param index An integer value of a specific index in the set
      * @return Returns the element at a given index
      * @throws NoSuchElementException 
      */
     public R get(int index) throws NoSuchElementException{
-        if(index > numElements || numElements == 0){
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return getElement(index);
+        }
+        long start = System.nanoTime();
+        try{
+            return getElement(index);
+        }
+        finally{
+            recorder.record(OrderedMetrics.Operation.GET, start);
+        }
+    }
+
+    /**
+     * The work of get, without timing. Also used by OrderedSupport to read another set by index
+     * without adding samples to that set's metrics.
+     * @param index position counted from the front of the set
+     * @return the element at index
+     * @throws NoSuchElementException if index is outside of the set
+     */
+    R getElement(int index){
+        if(index < 0 || index >= numElements){
             throw new NoSuchElementException();
         }
-        R result = this.data[index];
+        R result = this.data[physical(index)];
         return result;
     }
     
     /**
-     * Gets the index of the first element that matches input
+     * Gets the index of the element that matches input. Because the data is kept in order the
+     * element is located with a binary search rather than a scan of the whole array.
      * @param input A reference to an item that is trying to be found within the set
      * @return Returns an integer representing the index at which the item was found or
      * -1 if the item wasn't contained within the set
@@ -122,13 +286,87 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
         if(input == null){
             throw new IllegalArgumentException();
         }
-        for(int i = 0; i < numElements; i++){
-            if(data[i].equals(input)){
-                result = i;
+        if(input instanceof Comparable){
+            try{
+                int index = search((R) input);
+                if(index >= 0){
+                    result = index;
+                }
+            }
+            catch(ClassCastException e){
+                result = -1;
             }
-        }    
+        }
         return result;
     }
+
+    /**
+     * Translate an index in the current direction of the set to a slot of the backing array.
+     * @param index position counted from the front of the set
+     * @return the slot of the backing array holding that position
+     */
+    private int physical(int index){
+        return descending ? numElements - 1 - index : index;
+    }
+
+    /**
+     * Binary search for an element in the backing array, which is always lowest to highest.
+     * @param key the element to search for
+     * @return the slot of the element if it is in the set, otherwise (-(insertion point) - 1)
+     * where the insertion point is the slot the element would be placed at to keep the order.
+     */
+    private int search(R key){
+        int low = 0;
+        int high = numElements - 1;
+        int probes = 0;
+        while(low <= high){
+            probes++;
+            int mid = (low + high) >>> 1;
+            int cmp = data[mid].compareTo(key);
+            if(cmp < 0){
+                low = mid + 1;
+            }
+            else if(cmp > 0){
+                high = mid - 1;
+            }
+            else{
+                counted(probes);
+                return mid;
+            }
+        }
+        counted(probes);
+        return -(low + 1);
+    }
+
+    /**
+     * Record the comparisons made by a search if metrics are on.
+     * @param probes the number of compareTo calls
+     */
+    private void counted(int probes){
+        if(metrics != null){
+            metrics.compared(probes);
+        }
+    }
+
+    /**
+     * Look an object up in the hash index, counting the probe if metrics are on.
+     * @param item the object
+     * @return true if the index holds item
+     */
+    private boolean indexed(Object item){
+        if(metrics != null){
+            metrics.equalsCalled();
+        }
+        return hashIndex.contains(item);
+    }
+
+    /** Count an array copy if metrics are on. */
+    private void copied(){
+        if(metrics != null){
+            metrics.copied();
+        }
+    }
+
     /**
      * Adds the specified item to the set if it is not already in the set
      * @param element A specified element to be added to the set
@@ -136,101 +374,222 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
      * @throws IllegalArgumentException
      */
     public boolean add(R element) throws IllegalArgumentException{
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return addElement(element);
+        }
+        long start = System.nanoTime();
+        try{
+            return addElement(element);
+        }
+        finally{
+            recorder.record(OrderedMetrics.Operation.ADD, start);
+        }
+    }
+
+    /**
+     * The work of add, without timing.
+     * @param element the element to add
+     * @return true if the set changed
+     * @throws IllegalArgumentException if element is null
+     */
+    private boolean addElement(R element){
         boolean result = false;
         if(element == null){
             throw new IllegalArgumentException();
         }
-        if(this.contains(element) == false){
-            if(this.capacity() == numElements){
-                this.ensureCapacity(capacity()*2);
+        if(hashIndex != null && indexed(element)){
+            return false;
+        }
+        if(bounded && numElements == data.length){
+            return addEvicting(element);
+        }
+        int index = search(element);
+        if(index < 0){
+            insertAt(-(index + 1), element);
+            if(hashIndex != null){
+                hashIndex.add(element);
             }
-            result = insertInOrder(element);
-            numElements ++;
+            result = true;
         }
         return result;
     }
     /**
-     * Checks to see if the set contains a given item
+     * Checks to see if the set contains a given item. With the hash index on this takes expected
+     * constant time instead of a binary search.
      * @param item An object passed in to see if it's contained in the set
      * @return Returns a boolean true is the item is in the list and false otherwise
      * @throws IllegalArgumentException
      */
     public boolean contains(Object item) throws IllegalArgumentException{
-        boolean result = false;
-        if(item == null){
-            throw new IllegalArgumentException();
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return containsElement(item);
         }
-        else{
-            for(int i = 0; i < numElements && !result; i++){
-                if(data[i].equals(item)){
-                    result = true;
-                }
-            }
+        long start = System.nanoTime();
+        try{
+            return containsElement(item);
+        }
+        finally{
+            recorder.record(OrderedMetrics.Operation.CONTAINS, start);
         }
-        return result;
     }
+
     /**
-     * Inserts an element in it's correct spot based on alphetized order or numeric order
-     * @param element the given element to insert into the list
-     * @return Returns a boolean representing if the element was successfully added or not
+     * The work of contains, without timing.
+     * @param item the object to look for
+     * @return true if item is in the set
+     * @throws IllegalArgumentException if item is null
      */
-    private boolean insertInOrder(R element){
-        boolean result = false;
-        for(int i = 0; i < numElements; i++){
-            if(this.data[i].compareTo(element) <= 0 && descending){
-                makeSpace(i);
-                this.data[i] = element;
-                i = numElements;
-                result = true;
-            }
-            if(this.data[i].compareTo(element) >= 0 && !descending){
-                makeSpace(i);
-                this.data[i] = element;
-                i = numElements;
-                result = true;
+    private boolean containsElement(Object item){
+        if(hashIndex != null){
+            if(item == null){
+                throw new IllegalArgumentException();
             }
+            return indexed(item);
+        }
+        return getPosition(item) != -1;
+    }
+    /**
+     * Adds an element to a full bounded set by evicting its last element. An element that does
+     * not come before the last one is rejected after comparing it with that one element. The
+     * eviction and the insertion share a single shift of the elements between them.
+     * @param element the element to add
+     * @return true if the element was added and the last element evicted
+     */
+    private boolean addEvicting(R element){
+        int last = physical(numElements - 1);
+        if(OrderedSupport.compare(element, data[last], descending) >= 0){
+            return false;
         }
-        if(result == false){
-            this.data[numElements] = element;
-            result = true; 
+        int index = search(element);
+        if(index >= 0){
+            return false;
         }
-        return result;
+        int insertion = -(index + 1);
+        R evicted = data[last];
+        if(descending){
+            System.arraycopy(data, 1, data, 0, insertion - 1);
+            copied();
+            data[insertion - 1] = element;
+        }
+        else{
+            System.arraycopy(data, insertion, data, insertion + 1, numElements - 1 - insertion);
+            copied();
+            data[insertion] = element;
+        }
+        if(hashIndex != null){
+            hashIndex.remove(evicted);
+            hashIndex.add(element);
+        }
+        return true;
+    }
+
+    /**
+     * Inserts an element at a position already known to keep the set in order.
+     * @param index the index the element belongs at
+     * @param element the given element to insert into the set
+     */
+    private void insertAt(int index, R element){
+        makeSpace(index);
+        this.data[index] = element;
+        numElements ++;
     }
 
     /**
-     * Makes room in the set to add new items
+     * Makes room in the set to add a new item by shifting the elements at and after index one
+     * slot to the right, growing the array by the growth policy first if it is full.
      * @param index An integer representing the index at which it needs to make space
      */
     private void makeSpace(int index){
         if(this.capacity() == numElements){
-            ensureCapacity(capacity()*2);
-        }
-        R[] newData = (R[]) new Comparable[this.data.length];
-        for(int i = 0; i < index; i++){
-            newData[i] = this.data[i];
+            ensureCapacity(growthPolicy.grow(capacity(), numElements + 1));
         }
-        for(int i = index + 1; i < newData.length; i++){
-            newData[i] = this.data[i - 1];
-        }
-        newData[index] = null;
-        this.data = newData;
+        System.arraycopy(this.data, index, this.data, index + 1, numElements - index);
+        copied();
+        this.data[index] = null;
     }
     /**
-     * Adds all the elements of a set to this set in their respective order
+     * Adds all the elements of a set to this set in their respective order. The incoming elements
+     * are sorted and stripped of duplicates first, then merged with the existing data in a single
+     * pass from the back of the array, so at most one resize happens no matter how many elements
+     * are added. A bounded set adds the elements one at a time instead so that each one goes
+     * through the eviction check.
      * @param collection A set that contains values to be added to this set
      * @return Returns a boolean true if the items were successfully added, false otherwise.
-     * @throws IllegalArgumentException
+     * @throws IllegalArgumentException if the collection is null or contains null
      */
     public boolean addAll(Collection<? extends R> collection)throws IllegalArgumentException{
-        boolean toReturn = true;
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return addAllElements(collection);
+        }
+        long start = System.nanoTime();
+        try{
+            return addAllElements(collection);
+        }
+        finally{
+            recorder.record(OrderedMetrics.Operation.ADD_ALL, start);
+        }
+    }
+
+    /**
+     * The work of addAll, without timing.
+     * @param collection the elements to add
+     * @return true if the set changed
+     * @throws IllegalArgumentException if the collection is null or contains null
+     */
+    private boolean addAllElements(Collection<? extends R> collection){
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        if(bounded){
+            boolean changed = false;
+            for(R element : collection){
+                changed |= addElement(element);
+            }
+            return changed;
+        }
+        R[] batch = OrderedSupport.sortedDistinct(collection, false);
+        if(batch.length == 0){
+            return false;
+        }
         int prevSize = numElements;
-        for(R element : collection){
-            add(element);
+        int total = numElements + batch.length;
+        if(capacity() < total){
+            ensureCapacity(growthPolicy.grow(capacity(), total));
+        }
+        int write = total - 1;
+        int mine = numElements - 1;
+        int theirs = batch.length - 1;
+        while(theirs >= 0){
+            int cmp = mine < 0 ? -1 : data[mine].compareTo(batch[theirs]);
+            if(cmp > 0){
+                data[write--] = data[mine--];
+            }
+            else{
+                if(cmp == 0){
+                    mine--;
+                }
+                data[write--] = batch[theirs--];
+            }
         }
-        if(numElements == prevSize){
-            toReturn = false;
+        while(mine >= 0){
+            data[write--] = data[mine--];
         }
-        return toReturn;
+        int skipped = write + 1;
+        if(skipped > 0){
+            System.arraycopy(data, skipped, data, 0, total - skipped);
+            copied();
+            for(int i = total - skipped; i < total; i++){
+                data[i] = null;
+            }
+        }
+        numElements = total - skipped;
+        if(hashIndex != null){
+            Collections.addAll(hashIndex, batch);
+        }
+        return numElements != prevSize;
     }
     
     /**
@@ -240,98 +599,174 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
      * @throws IllegalArgumentException
      */
     public boolean remove(Comparable item)throws IllegalArgumentException{
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return removeElement(item);
+        }
+        long start = System.nanoTime();
+        try{
+            return removeElement(item);
+        }
+        finally{
+            recorder.record(OrderedMetrics.Operation.REMOVE, start);
+        }
+    }
+
+    /**
+     * The work of remove, without timing.
+     * @param item the element to remove
+     * @return true if the set changed
+     * @throws IllegalArgumentException if item is null
+     */
+    private boolean removeElement(Comparable item){
         boolean result = false;
         if(item == null){
             throw new IllegalArgumentException();
         }
+        if(hashIndex != null && !indexed(item)){
+            return false;
+        }
         int index = this.getPosition(item);
         if(index != -1){
-
-            R[] newData = (R[]) new Comparable[this.data.length];
-    
-            for(int i = 0; i < index; i++){
-                newData[i] = this.data[i];
-            }
-            for(int i = index; i < newData.length - 1; i++){
-                newData[i] = this.data[i + 1];
-            }
-            this.data = newData;
-            numElements -= 1;
+            removeAt(index);
             result = true;
         }
         
         return result;
     }
+
+    /**
+     * Removes the element at index by shifting the elements after it one slot to the left.
+     * @param index the index of the element to remove
+     */
+    private void removeAt(int index){
+        if(hashIndex != null){
+            hashIndex.remove(data[index]);
+        }
+        System.arraycopy(this.data, index + 1, this.data, index, numElements - index - 1);
+        copied();
+        numElements -= 1;
+        this.data[numElements] = null;
+        shrinkIfSparse();
+    }
     
     /**
-     * Removes all the elements from this set that are contained within the set that is passed in
+     * Removes all the elements from this set that are contained within the set that is passed in.
+     * The surviving elements are compacted in a single pass. When the collection is itself an
+     * OrderedInterface both sides are already sorted and are walked side by side, so the call
+     * takes O(n + m).
      * @param collection This is the set of values that is trying to be removed from this set
      * @return Returns a boolean true if the items were successfully removed, false otherwise.
-     * @throws IllegalArgumentException
+     * @throws NullPointerException if the collection is null
      */
     public boolean removeAll(Collection<?> collection)throws NullPointerException{
-        boolean result = false;
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return removeAllElements(collection);
+        }
+        long start = System.nanoTime();
+        try{
+            return removeAllElements(collection);
+        }
+        finally{
+            recorder.record(OrderedMetrics.Operation.REMOVE_ALL, start);
+        }
+    }
+
+    /**
+     * The work of removeAll, without timing.
+     * @param collection the collection to test membership against
+     * @return true if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    private boolean removeAllElements(Collection<?> collection){
         if(collection == null){
-            throw new NullPointerException();     
+            throw new NullPointerException();
         }
- 
-        for(int i = 0; i < numElements; i++){
-            if(collection.contains(data[i])){
-                remove(data[i]);
-                result = true;
-            }
-        } 
-        return result; 
+        return sweep(collection, false);
     }
 
     /**
-     * Retains the elements contained within the given set in this set. 
+     * Retains the elements contained within the given set in this set. When the collection is
+     * itself an OrderedInterface both sides are walked side by side, so the call takes O(n + m).
      * @param collection The set being passed in with values to retain
      * @return Returns a boolean true if the items were successfully retained, false otherwise.
      * @throws IllegalArgumentException
      */
     public boolean retainAll(Collection<?> collection)throws IllegalArgumentException{
-        boolean result = false;
+        OrderedMetrics recorder = metrics;
+        if(recorder == null){
+            return retainAllElements(collection);
+        }
+        long start = System.nanoTime();
+        try{
+            return retainAllElements(collection);
+        }
+        finally{
+            recorder.record(OrderedMetrics.Operation.RETAIN_ALL, start);
+        }
+    }
+
+    /**
+     * The work of retainAll, without timing.
+     * @param collection the collection to test membership against
+     * @return true if the set changed
+     * @throws IllegalArgumentException if collection is null
+     */
+    private boolean retainAllElements(Collection<?> collection){
         if(collection == null){
             throw new IllegalArgumentException();
         }
-        int i = 0;
-        while( i< numElements){
-            if(!collection.contains(data[i])){
-                remove(data[i]);
-                result = true;
-                i--;
+        return sweep(collection, true);
+    }
+
+    /**
+     * Keep or drop every element of this set depending on whether it is in a collection, sliding
+     * the kept elements down over the dropped ones.
+     * @param collection the collection to test membership against
+     * @param retain true to keep the elements found in collection, false to keep the others
+     * @return true if any element was dropped
+     */
+    private boolean sweep(Collection<?> collection, boolean retain){
+        int write = 0;
+        OrderedSupport.Membership membership = new OrderedSupport.Membership(collection);
+        for(int read = 0; read < numElements; read++){
+            if(membership.contains(data[read]) == retain){
+                data[write++] = data[read];
             }
-            
-            i++;
-            
-        }       
+            else if(hashIndex != null){
+                hashIndex.remove(data[read]);
+            }
+        }
+        boolean result = write != numElements;
+        for(int i = write; i < numElements; i++){
+            data[i] = null;
+        }
+        numElements = write;
+        shrinkIfSparse();
         return result;
     }
 
     /**
-     * Checks to see if this set contains all of the elements of the specified set.
+     * Checks to see if this set contains all of the elements of the specified set. An
+     * OrderedInterface argument is checked with a single merge pass over both sets.
      * @param collection The specified set to be passed in
      * @return Returns a boolean true if all the values are contained in this set, false otherwise.
      * @throws IllegalArgumentException
      */
     public boolean containsAll(Collection<?> collection) throws IllegalArgumentException{
-        boolean result = false;
-        int counter = 0;
         if(collection == null){
             throw new IllegalArgumentException();
         }
-        
+        if(collection instanceof OrderedInterface){
+            return OrderedSupport.containsAllSorted(iterator(), (OrderedInterface<?>) collection, descending);
+        }
         for(Object data: collection){
-            if(contains(data)){
-                counter ++;
+            if(!containsElement(data)){
+                return false;
             }
         }
-
-        if(counter == collection.size()){
-            result = true;
-        }
-        return result;
+        return true;
     }
     /**
      * Compares items contained within both sets for equality
@@ -356,7 +791,7 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
      */
     public void printList(){
         for(int i = 0; i < numElements; i++){
-            System.out.println(data[i]);
+            System.out.println(data[physical(i)]);
         }
     }
 
@@ -384,6 +819,256 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
         return result;
     }
 
+    /**
+     * Find the first slot whose element is not lower than key.
+     * @param key the key
+     * @return a slot between 0 and size()
+     */
+    private int ceilingSlot(R key){
+        int index = search(key);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    /**
+     * Find the first slot whose element is higher than key.
+     * @param key the key
+     * @return a slot between 0 and size()
+     */
+    private int higherSlot(R key){
+        int index = search(key);
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
+    /**
+     * Get the element in a slot, or null if the slot is outside of the set.
+     * @param slot the slot
+     * @return the element or null
+     */
+    private R elementAt(int slot){
+        return (slot >= 0 && slot < numElements) ? data[slot] : null;
+    }
+
+    /**
+     * Returns the last element, in the current order of the set, that does not come after the
+     * given element. For an ascending set this is the greatest element less than or equal to
+     * element; for a descending set it is the least element greater than or equal to it.
+     * Found with a binary search.
+     * @param element the element to compare against
+     * @return the matching element, or null if there is none
+     * @throws IllegalArgumentException if element is null
+     */
+    public R floor(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        return elementAt(descending ? ceilingSlot(element) : higherSlot(element) - 1);
+    }
+
+    /**
+     * Returns the first element, in the current order of the set, that does not come before the
+     * given element.
+     * @param element the element to compare against
+     * @return the matching element, or null if there is none
+     * @throws IllegalArgumentException if element is null
+     */
+    public R ceiling(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        return elementAt(descending ? higherSlot(element) - 1 : ceilingSlot(element));
+    }
+
+    /**
+     * Returns the first element, in the current order of the set, that comes strictly after the
+     * given element.
+     * @param element the element to compare against
+     * @return the matching element, or null if there is none
+     * @throws IllegalArgumentException if element is null
+     */
+    public R higher(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        return elementAt(descending ? ceilingSlot(element) - 1 : higherSlot(element));
+    }
+
+    /**
+     * Returns the last element, in the current order of the set, that comes strictly before the
+     * given element.
+     * @param element the element to compare against
+     * @return the matching element, or null if there is none
+     * @throws IllegalArgumentException if element is null
+     */
+    public R lower(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        return elementAt(descending ? higherSlot(element) : ceilingSlot(element) - 1);
+    }
+
+    /**
+     * Removes and returns the first element of the set in its current order.
+     * @return the first element, or null if the set is empty
+     */
+    public R pollFirst(){
+        R result = null;
+        if(numElements > 0){
+            int slot = physical(0);
+            result = data[slot];
+            removeAt(slot);
+        }
+        return result;
+    }
+
+    /**
+     * Removes and returns the last element of the set in its current order.
+     * @return the last element, or null if the set is empty
+     */
+    public R pollLast(){
+        R result = null;
+        if(numElements > 0){
+            int slot = physical(numElements - 1);
+            result = data[slot];
+            removeAt(slot);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a live view of the elements from one element to another, in the current order of
+     * the set. Changes to the set show through the view and changes made through the view
+     * (adding or removing elements inside the range) show in the set. The ends of the view are
+     * found with binary searches, so reading a range of k elements costs O(log n + k).
+     * The view covers the same keys if the set is later reversed, and is then read in the new
+     * order.
+     * @param from the element the view starts at
+     * @param fromInclusive true if from itself belongs to the view
+     * @param to the element the view ends at
+     * @param toInclusive true if to itself belongs to the view
+     * @return the view
+     * @throws IllegalArgumentException if either bound is null or from comes after to
+     */
+    public Set<R> subSet(R from, boolean fromInclusive, R to, boolean toInclusive)throws IllegalArgumentException{
+        if(from == null || to == null){
+            throw new IllegalArgumentException();
+        }
+        return new RangeView(new OrderedRange<>(from, fromInclusive, to, toInclusive, descending));
+    }
+
+    /**
+     * Returns a live view of the elements from from, inclusive, to to, exclusive.
+     * @param from the element the view starts at
+     * @param to the element the view ends before
+     * @return the view
+     * @throws IllegalArgumentException if either bound is null or from comes after to
+     */
+    public Set<R> subSet(R from, R to)throws IllegalArgumentException{
+        return subSet(from, true, to, false);
+    }
+
+    /**
+     * Returns a live view of the elements that come before an element in the current order.
+     * @param to the element the view ends at
+     * @param inclusive true if to itself belongs to the view
+     * @return the view
+     * @throws IllegalArgumentException if to is null
+     */
+    public Set<R> headSet(R to, boolean inclusive)throws IllegalArgumentException{
+        if(to == null){
+            throw new IllegalArgumentException();
+        }
+        return new RangeView(new OrderedRange<>(null, false, to, inclusive, descending));
+    }
+
+    /**
+     * Returns a live view of the elements that come strictly before an element.
+     * @param to the element the view ends before
+     * @return the view
+     * @throws IllegalArgumentException if to is null
+     */
+    public Set<R> headSet(R to)throws IllegalArgumentException{
+        return headSet(to, false);
+    }
+
+    /**
+     * Returns a live view of the elements that come after an element in the current order.
+     * @param from the element the view starts at
+     * @param inclusive true if from itself belongs to the view
+     * @return the view
+     * @throws IllegalArgumentException if from is null
+     */
+    public Set<R> tailSet(R from, boolean inclusive)throws IllegalArgumentException{
+        if(from == null){
+            throw new IllegalArgumentException();
+        }
+        return new RangeView(new OrderedRange<>(from, inclusive, null, false, descending));
+    }
+
+    /**
+     * Returns a live view of the elements from an element, inclusive, to the end of the set.
+     * @param from the element the view starts at
+     * @return the view
+     * @throws IllegalArgumentException if from is null
+     */
+    public Set<R> tailSet(R from)throws IllegalArgumentException{
+        return tailSet(from, true);
+    }
+
+    /**
+     * Turns the optional hash index on or off. While it is on, every element is also kept in a
+     * HashSet, so contains and the duplicate check in add take expected constant time and the
+     * array is only searched and shifted for real inserts and removals. The index costs roughly
+     * hashIndexBytes() of extra heap. It relies on equals and hashCode agreeing with compareTo,
+     * which holds for the usual element types such as Integer, Long and String.
+     * @param enabled true to build the index, false to drop it
+     */
+    public void setHashIndex(boolean enabled){
+        if(!enabled){
+            hashIndex = null;
+        }
+        else if(hashIndex == null){
+            hashIndex = new HashSet<>(Math.max(16, (int) (numElements / 0.75f) + 1));
+            for(int i = 0; i < numElements; i++){
+                hashIndex.add(data[i]);
+            }
+        }
+    }
+
+    /**
+     * Determine if the hash index is on.
+     * @return true if the set keeps a hash index
+     */
+    public boolean hasHashIndex(){
+        return hashIndex != null;
+    }
+
+    /**
+     * Estimates the extra heap taken by the hash index, assuming a 64-bit JVM with compressed
+     * references. The elements themselves are shared with the array and are not counted.
+     * @return the estimated size of the index in bytes, or 0 when it is off
+     */
+    public long hashIndexBytes(){
+        return (hashIndex == null) ? 0 : OrderedSupport.hashIndexBytes(hashIndex.size());
+    }
+
+    /**
+     * Starts or stops recording hot path metrics for this set: comparisons, hash index probes,
+     * array copies and resizes, and the latency of add, remove, contains, get, addAll,
+     * removeAll and retainAll. With no metrics attached each of those only pays a null check.
+     * @param metrics where to record, which may be shared with other sets, or null to stop
+     */
+    public void setMetrics(OrderedMetrics metrics){
+        this.metrics = metrics;
+    }
+
+    /**
+     * Get the metrics this set records to.
+     * @return the metrics, or null if they are off
+     */
+    public OrderedMetrics getMetrics(){
+        return metrics;
+    }
+
     /**
      * Reverse the order of the set. If the set is in a lowest to highest 
      * (non descending) state, this function will put it into highest to lowest 
@@ -391,23 +1076,11 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
      * more items would maintain the highest to lowest order of the set. If the 
      * set is in a highest to lowest (descending) state state, calling this method
      *  would order the elements lowest to highest. Adding additional elements 
-     * would then maintain the lowest to highest order.
-     * 
+     * would then maintain the lowest to highest order. The backing array is not
+     * touched, so this takes constant time.
      */
     public void reverse(){
-        int size = numElements;
-        R rev_Data;
-        for(int i = 0; i < size/2 ; i++){
-            rev_Data = data[i];
-            data[i] = data[size - i - 1];
-            data[size - i - 1] = rev_Data;
-        }
-        if(this.descending){
-            this.descending = false;
-        }
-        else{
-            this.descending = true;
-        } 
+        this.descending = !this.descending;
     }
 
     
@@ -420,17 +1093,76 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
         sb.append("<");
         for(int i = 0; i < numElements; i++){
             if(i != numElements - 1){
-                sb.append(data[i].toString());
+                sb.append(data[physical(i)].toString());
                 sb.append(", ");   
             }
             else{
-                sb.append(data[i].toString());
+                sb.append(data[physical(i)].toString());
             }
         }
             sb.append(">");
             return sb.toString();
         }
     
+    /**
+     * Writes a compact binary snapshot of this set, including its direction. Integer and Long
+     * elements are delta encoded as varints, Strings as UTF-8 and any other elements must be
+     * Serializable. The stream is flushed but not closed.
+     * @param out the stream to write to
+     * @throws IOException if the stream fails or an element cannot be written
+     */
+    public void writeTo(OutputStream out)throws IOException{
+        BufferedOutputStream buffered = new BufferedOutputStream(out);
+        OrderedSnapshot.write(buffered, Arrays.asList(data).subList(0, numElements), numElements, descending);
+        buffered.flush();
+    }
+
+    /**
+     * Writes a compact binary snapshot of this set to a channel. The channel is not closed.
+     * @param channel the channel to write to
+     * @throws IOException if the channel fails or an element cannot be written
+     */
+    public void writeTo(WritableByteChannel channel)throws IOException{
+        writeTo(Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Loads a set from a snapshot written by writeTo. The elements are already in order, so
+     * they are placed straight into the backing array and the load takes O(n). Exactly the
+     * bytes of the snapshot are read; pass a buffered stream for speed.
+     * Serialized elements are only accepted for the JDK value types and for classes the
+     * jdk.serialFilter system property allows.
+     * @param in the stream to read from
+     * @return the loaded set, with the direction it was written with
+     * @throws IOException if the stream fails or does not hold a valid snapshot
+     */
+    public static <R extends Comparable<R>> OrderedSet<R> readFrom(InputStream in)throws IOException{
+        OrderedSnapshot.Loaded<R> loaded = OrderedSnapshot.read(in);
+        return new OrderedSet<>(loaded.elements, loaded.elements.length, loaded.descending);
+    }
+
+    /**
+     * Loads a set from a snapshot read from a channel. The channel is read through a buffer, so
+     * it may be read past the end of the snapshot.
+     * @param channel the channel to read from
+     * @return the loaded set, with the direction it was written with
+     * @throws IOException if the channel fails or does not hold a valid snapshot
+     */
+    public static <R extends Comparable<R>> OrderedSet<R> readFrom(ReadableByteChannel channel)throws IOException{
+        return readFrom(new BufferedInputStream(Channels.newInputStream(channel)));
+    }
+
+    /**
+     * Provides a Spliterator over the elements in the current order of the set. It reads the
+     * backing array directly, splits in constant time and reports SORTED, DISTINCT, SIZED,
+     * SUBSIZED, ORDERED and NONNULL, with a null comparator for an ascending set and the reverse
+     * of natural order for a descending one. The set should not be changed while it is in use.
+     * @return a spliterator over the elements of the set
+     */
+    public Spliterator<R> spliterator(){
+        return new OrderedSpliterator<>(data, 0, numElements, descending, descending);
+    }
+
     /**
      * Provides a method for traversing an array using a well-known Java interface.
      */
@@ -452,7 +1184,10 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
 
         /** Returns the next element of the collection. */
         public R next(){
-            R nextData = data[index];
+            if(index >= numElements){
+                throw new NoSuchElementException();
+            }
+            R nextData = data[physical(index)];
             index++;
             return nextData;
             
@@ -466,4 +1201,171 @@ public class OrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
             return result;
         }
     }
+
+    /**
+     * A live view of the elements of the set between two bounds. The slots the range covers are
+     * found again on every call, so the view always reflects the current contents of the set.
+     */
+    private class RangeView extends AbstractSet<R>{
+        /** The keys the view covers */
+        private final OrderedRange<R> range;
+
+        /**
+         * Create a view.
+         * @param range the keys the view covers
+         */
+        private RangeView(OrderedRange<R> range){
+            this.range = range;
+        }
+
+        /**
+         * The first slot in the range.
+         * @return the first slot, lowest to highest
+         */
+        private int start(){
+            if(range.low == null){
+                return 0;
+            }
+            return range.lowInclusive ? ceilingSlot(range.low) : higherSlot(range.low);
+        }
+
+        /**
+         * The slot after the last slot in the range.
+         * @return the end slot, lowest to highest
+         */
+        private int end(){
+            if(range.high == null){
+                return numElements;
+            }
+            return range.highInclusive ? higherSlot(range.high) : ceilingSlot(range.high);
+        }
+
+        /** @return the number of elements in the range */
+        public int size(){
+            return Math.max(0, end() - start());
+        }
+
+        /**
+         * @param item the object to look for
+         * @return true if item is in the range and in the set
+         */
+        public boolean contains(Object item){
+            return range.contains(item) && OrderedSet.this.contains(item);
+        }
+
+        /**
+         * Adds an element inside the range to the set.
+         * @param element the element to add
+         * @return true if the set changed
+         * @throws IllegalArgumentException if element is null or outside of the range
+         */
+        public boolean add(R element)throws IllegalArgumentException{
+            if(element == null || !range.contains(element)){
+                throw new IllegalArgumentException();
+            }
+            return OrderedSet.this.add(element);
+        }
+
+        /**
+         * Removes an element inside the range from the set.
+         * @param item the element to remove
+         * @return true if the set changed
+         */
+        public boolean remove(Object item){
+            return range.contains(item) && OrderedSet.this.remove((Comparable) item);
+        }
+
+        /** Removes every element of the range from the set with a single shift. */
+        public void clear(){
+            int start = start();
+            int end = end();
+            if(end > start){
+                if(hashIndex != null){
+                    for(int i = start; i < end; i++){
+                        hashIndex.remove(data[i]);
+                    }
+                }
+                System.arraycopy(data, end, data, start, numElements - end);
+                copied();
+                for(int i = numElements - (end - start); i < numElements; i++){
+                    data[i] = null;
+                }
+                numElements -= end - start;
+                shrinkIfSparse();
+            }
+        }
+
+        /**
+         * @return the elements of the range, in the current order of the set
+         */
+        public Iterator<R> iterator(){
+            return new RangeIterator(start(), end());
+        }
+
+        /**
+         * @return the elements of the range in the form &lt;e, e, e&gt;
+         */
+        public String toString(){
+            StringBuilder sb = new StringBuilder();
+            sb.append("<");
+            Iterator<R> it = iterator();
+            while(it.hasNext()){
+                sb.append(it.next().toString());
+                if(it.hasNext()){
+                    sb.append(", ");
+                }
+            }
+            sb.append(">");
+            return sb.toString();
+        }
+    }
+
+    /** Iterator over a run of slots in the current direction of the set. */
+    private class RangeIterator implements Iterator<R>{
+        /** The slot to return next */
+        private int next;
+        /** The number of elements left to return */
+        private int remaining;
+        /** The slot returned last, or -1 if it cannot be removed */
+        private int last;
+
+        /**
+         * Create an iterator over the slots from start up to, but not including, end.
+         * @param start first slot, lowest to highest
+         * @param end slot after the last one
+         */
+        private RangeIterator(int start, int end){
+            this.remaining = Math.max(0, end - start);
+            this.next = descending ? end - 1 : start;
+            this.last = -1;
+        }
+
+        /** Determines if there are elements left in the range. */
+        public boolean hasNext(){
+            return remaining > 0;
+        }
+
+        /** Returns the next element of the range. */
+        public R next(){
+            if(remaining <= 0){
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = descending ? next - 1 : next + 1;
+            remaining--;
+            return data[last];
+        }
+
+        /** Removes the element returned last from the set. */
+        public void remove(){
+            if(last < 0){
+                throw new IllegalStateException();
+            }
+            removeAt(last);
+            if(!descending){
+                next--;
+            }
+            last = -1;
+        }
+    }
 }
@@ -0,0 +1,465 @@
+package orderedSet;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This is a concrete implementation of a Set using a skip list. Like OrderedLink it models the
+ * mathematical set abstraction in which the set must not contain duplicates and the values in
+ * the set must be ordered (determined using the compareTo method of each object element), but
+ * each node carries a tower of forward links so that add, contains and remove only visit an
+ * expected O(log n) nodes instead of walking the whole list.
+ * <br>
+ * The nodes are always linked lowest to highest. The bottom level is also linked backwards, so
+ * when the set is descending the elements are simply read from the tail towards the head.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public class OrderedSkipLink<R extends Comparable<R>> implements OrderedInterface<R>{
+
+    /** The most levels a tower in the skip list can have */
+    private static final int MAX_LEVEL = 32;
+
+    /** boolean representing whether the skip list is descending or ascending */
+    private boolean descending;
+    /** Sentinel node whose towers point at the first node of every level */
+    private Node<R> head;
+    /** The last (highest) node in the list, or null when empty */
+    private Node<R> tail;
+    /** The number of levels currently in use */
+    private int level;
+    /** The count of elements in this skip list */
+    private int numElements;
+    /** State of the generator used to pick tower heights */
+    private int seed;
+
+    /** Create an OrderedSkipLink */
+    public OrderedSkipLink(){
+        this.descending = false;
+        this.head = new Node<>(null, MAX_LEVEL);
+        this.tail = null;
+        this.level = 1;
+        this.numElements = 0;
+        this.seed = (int) System.nanoTime() | 1;
+    }
+
+    /**
+     * Creates an 'descending' empty set.
+     * @param descending if set is to be descending
+     */
+    public OrderedSkipLink(boolean descending){
+        this();
+        this.descending = descending;
+    }
+
+    /**
+     * Create a OrderedSkipLink based on the values from any Collection.
+     * @param collection collection whose data to be added to this OrderedSkipLink
+     * @param descending if set is to be descending
+     * @throws IllegalArgumentException if collection is null
+     */
+    public OrderedSkipLink(Collection<R> collection, boolean descending)throws IllegalArgumentException{
+        this(descending);
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        addAll(collection);
+    }
+
+    /** Clear the set so that the are 0 elements. */
+    public void clear(){
+        for(int i = 0; i < MAX_LEVEL; i++){
+            head.next[i] = null;
+        }
+        this.tail = null;
+        this.level = 1;
+        this.numElements = 0;
+    }
+
+    /** Return true if this set is empty.
+     * @return boolean indicating if set is empty
+     */
+    public boolean isEmpty(){
+        return numElements == 0;
+    }
+
+    /** Get the number of elements in this skip list.
+     * @return number of elements in this skip list
+     */
+    public int size(){
+        return this.numElements;
+    }
+
+    /** Print each item in the set. */
+    public void printList(){
+        for(R data:this){
+            System.out.println(data);
+        }
+    }
+
+    /**
+     * Display this class as a String.
+     * @return elements in the skip list in displayable format
+     */
+    public String toString(){
+        StringBuilder sb = new StringBuilder();
+        sb.append("<");
+        Iterator<R> it = iterator();
+        while(it.hasNext()){
+            sb.append(it.next().toString());
+            if(it.hasNext()){
+                sb.append(", ");
+            }
+        }
+        sb.append(">");
+        return sb.toString();
+    }
+
+    /**
+     * Get the item at the index position specified, counting from the front of the set in its
+     * current direction.
+     * @param location index to retrieve an item from
+     * @return the item from a particular index
+     * @throws NoSuchElementException if location is outside of the set
+     */
+    public R get(int location)throws NoSuchElementException{
+        if(location < 0 || location >= numElements){
+            throw new NoSuchElementException();
+        }
+        Iterator<R> it = iterator();
+        for(int i = 0; i < location; i++){
+            it.next();
+        }
+        return it.next();
+    }
+
+    /**
+     * Pick the height of a new tower. Each extra level is added with probability 1/2.
+     * @return the number of levels for a new node
+     */
+    private int randomLevel(){
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        int height = Integer.numberOfTrailingZeros(seed) + 1;
+        return Math.min(height, MAX_LEVEL);
+    }
+
+    /**
+     * Find, for every level, the last node whose data is lower than key.
+     * @param key the element being searched for
+     * @param update array filled with the predecessor on each level, may be null
+     * @return the node on the bottom level directly after the predecessors
+     */
+    private Node<R> findPredecessors(R key, Node<R>[] update){
+        Node<R> current = head;
+        for(int i = level - 1; i >= 0; i--){
+            while(current.next[i] != null && current.next[i].data.compareTo(key) < 0){
+                current = current.next[i];
+            }
+            if(update != null){
+                update[i] = current;
+            }
+        }
+        return current.next[0];
+    }
+
+    /**
+     * Locate the node holding an element equal to input.
+     * @param input the object to find
+     * @return the node holding input or null if it is not in the set
+     * @throws IllegalArgumentException if input is null
+     */
+    private Node<R> findNode(Object input)throws IllegalArgumentException{
+        if(input == null){
+            throw new IllegalArgumentException();
+        }
+        Node<R> result = null;
+        if(input instanceof Comparable){
+            try{
+                Node<R> candidate = findPredecessors((R) input, null);
+                if(candidate != null && candidate.data.compareTo((R) input) == 0){
+                    result = candidate;
+                }
+            }
+            catch(ClassCastException e){
+                result = null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add an item in order where it needs to go within the set
+     * @param element the element to add
+     * @return boolean indicating if item was added
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean add(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        Node<R>[] update = (Node<R>[]) new Node[MAX_LEVEL];
+        Node<R> found = findPredecessors(element, update);
+        if(found != null && found.data.compareTo(element) == 0){
+            return false;
+        }
+        int height = randomLevel();
+        if(height > level){
+            for(int i = level; i < height; i++){
+                update[i] = head;
+            }
+            level = height;
+        }
+        Node<R> newElement = new Node<>(element, height);
+        for(int i = 0; i < height; i++){
+            newElement.next[i] = update[i].next[i];
+            update[i].next[i] = newElement;
+        }
+        newElement.prev = (update[0] == head) ? null : update[0];
+        if(newElement.next[0] != null){
+            newElement.next[0].prev = newElement;
+        }
+        else{
+            tail = newElement;
+        }
+        numElements++;
+        return true;
+    }
+
+    /**
+     * Add all items from another Collection to this set.
+     * @param collection whose data to add all elements from
+     * @return boolean indicating if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    public boolean addAll(Collection<? extends R> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        int prevSize = numElements;
+        for(R data : collection){
+            add(data);
+        }
+        return numElements != prevSize;
+    }
+
+    /**
+     * Determine if a specific object is in the set.
+     * @param element to check if contained within this set
+     * @return boolean indicating if element passed is contained within this set
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean contains(Object element)throws IllegalArgumentException{
+        return findNode(element) != null;
+    }
+
+    /**
+     * Returns true if this set contains all of the elements of the specified Collection.
+     * @param collection to check if all its data is contained within ours
+     * @return boolean
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean containsAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        for(Object item : collection){
+            if(!contains(item)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     * @param item to remove from set
+     * @return boolean indicating if item was succesfully removed
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean remove(Comparable item)throws IllegalArgumentException{
+        if(findNode(item) == null){
+            return false;
+        }
+        Node<R>[] update = (Node<R>[]) new Node[MAX_LEVEL];
+        Node<R> target = findPredecessors((R) item, update);
+        unlink(target, update);
+        return true;
+    }
+
+    /**
+     * Unlink a node given the predecessors on every level.
+     * @param target node to remove
+     * @param update predecessors found by findPredecessors
+     */
+    private void unlink(Node<R> target, Node<R>[] update){
+        for(int i = 0; i < target.next.length; i++){
+            update[i].next[i] = target.next[i];
+        }
+        if(target.next[0] != null){
+            target.next[0].prev = target.prev;
+        }
+        else{
+            tail = target.prev;
+        }
+        while(level > 1 && head.next[level - 1] == null){
+            level--;
+        }
+        numElements--;
+    }
+
+    /**
+     * Removes from this set all of its elements that are contained in the specified Collection.
+     * @param collection whose data to remove all from in this set
+     * @return boolean indicating if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    public boolean removeAll(Collection<?> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        int prevSize = numElements;
+        for(Object data : collection){
+            if(data instanceof Comparable){
+                remove((Comparable) data);
+            }
+        }
+        return numElements != prevSize;
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the specified Collection.
+     * @param collection whose elements to retain
+     * @return boolean indicating if the set changed
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean retainAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        int prevSize = numElements;
+        Node<R> current = head.next[0];
+        while(current != null){
+            Node<R> following = current.next[0];
+            if(!collection.contains(current.data)){
+                remove(current.data);
+            }
+            current = following;
+        }
+        return numElements != prevSize;
+    }
+
+    /**
+     * Compares the specified object with this set for equality. Returns true if the specified
+     * object is also a Collection, the two have the same size, and every member of the specified
+     * collection is contained in this set.
+     * @param other the specified object to be compared
+     * @return boolean indicating if items were equal or not
+     */
+    public boolean equals(Object other){
+        boolean result = false;
+        if(other instanceof Collection){
+            Collection<?> temp = (Collection<?>) other;
+            result = this.size() == temp.size() && containsAll(temp);
+        }
+        return result;
+    }
+
+    /**
+     * Hash code consistent with equals, the sum of the hash codes of the elements.
+     * @return hash code of this set
+     */
+    public int hashCode(){
+        int hash = 0;
+        for(R data : this){
+            hash += data.hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * This function will return true if this set is descending and false if it is ascending.
+     * @return boolean indicating if set is descending or ascending
+     */
+    public boolean isReversed(){
+        return this.descending;
+    }
+
+    /**
+     * Reverse the order of the set. The nodes themselves stay linked lowest to highest; only the
+     * direction they are read in changes, so this runs in constant time. Adding more items keeps
+     * the new order.
+     */
+    public void reverse(){
+        this.descending = !this.descending;
+    }
+
+    /**
+     * Return an iterator for this OrderedSkipLink
+     * @return iterator over the set in its current order
+     */
+    public Iterator<R> iterator(){
+        return new SkipIterator();
+    }
+
+    /**
+     * An iterator that walks the bottom level of the skip list in the current direction.
+     */
+    private class SkipIterator implements Iterator<R>{
+
+        /** The node to return next */
+        private Node<R> current;
+
+        /** Creates a SkipIterator */
+        private SkipIterator(){
+            this.current = descending ? tail : head.next[0];
+        }
+
+        /** Is there another element to access in this skip list?
+         * @return true if there is another element
+         */
+        public boolean hasNext(){
+            return current != null;
+        }
+
+        /** Get the next element in the skip list if one exists.
+         * @return the data of the next node
+         * @throws NoSuchElementException if the iteration is over
+         */
+        public R next(){
+            if(current == null){
+                throw new NoSuchElementException();
+            }
+            R data = current.data;
+            current = descending ? current.prev : current.next[0];
+            return data;
+        }
+    }
+
+    /**
+     * A node in the skip list with a tower of forward links and a back link on the bottom level.
+     */
+    private static class Node<R extends Comparable<R>>{
+        /** The data contained within the node */
+        private R data;
+        /** The next node on each level of this node's tower */
+        private Node<R>[] next;
+        /** The previous node on the bottom level */
+        private Node<R> prev;
+
+        /**
+         * Constructs a node
+         * @param item data within node
+         * @param height number of levels in the tower
+         */
+        private Node(R item, int height){
+            this.data = item;
+            this.next = (Node<R>[]) new Node[height];
+            this.prev = null;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package orderedSet;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Reads and writes the binary snapshot format shared by OrderedSet and OrderedLink.
+ * <br>
+ * A snapshot is the magic number, a version byte, a flags byte (bit 0 set for a descending set),
+ * an element type byte and the element count as a varint, followed by the elements lowest to
+ * highest. Integer and Long sets are written as the first value zigzag encoded and then the gap
+ * to each following value as an unsigned varint, so dense id sets take one or two bytes per
+ * element. Strings are written as a varint byte length and their UTF-8 bytes. Any other
+ * Serializable elements are written with Java serialization. Because the elements are stored in
+ * order a loader can fill its storage directly without searching or sorting.
+ * <br>
+ * A snapshot may come from anywhere, so reading one never trusts its header: arrays are grown
+ * as elements actually arrive rather than sized from the count, and serialized elements are
+ * only accepted for the JDK value types (boxed primitives, String, BigInteger, BigDecimal, enums,
+ * java.time, UUID and Date) or for classes the process wide jdk.serialFilter allows, within a
+ * bounded depth and array length.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+final class OrderedSnapshot{
+
+    /** Identifies a snapshot */
+    private static final int MAGIC = 0x4F534E50;
+    /** Version of the format */
+    private static final int VERSION = 1;
+    /** Flag bit set when the set is descending */
+    private static final int DESCENDING_FLAG = 1;
+    /** Type of an empty set */
+    private static final int TYPE_EMPTY = 0;
+    /** Type of a set of Integer */
+    private static final int TYPE_INTEGER = 1;
+    /** Type of a set of Long */
+    private static final int TYPE_LONG = 2;
+    /** Type of a set of String */
+    private static final int TYPE_STRING = 3;
+    /** Type of a set of other Serializable elements */
+    private static final int TYPE_OBJECT = 4;
+    /** Most elements or bytes allocated before they have been read */
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    /** Deepest object graph accepted for a serialized element */
+    private static final int MAX_DEPTH = 16;
+    /** Longest array accepted inside a serialized element */
+    private static final int MAX_ARRAY_LENGTH = 1 << 16;
+
+    /** Not instantiable */
+    private OrderedSnapshot(){
+    }
+
+    /**
+     * The contents of a snapshot that has been read back.
+     */
+    static final class Loaded<R>{
+        /** The elements, lowest to highest */
+        final R[] elements;
+        /** true if the set was descending */
+        final boolean descending;
+
+        /**
+         * Holds the result of a read.
+         * @param elements the elements, lowest to highest
+         * @param descending true if the set was descending
+         */
+        private Loaded(R[] elements, boolean descending){
+            this.elements = elements;
+            this.descending = descending;
+        }
+    }
+
+    /**
+     * Write a snapshot of a set. The stream is flushed but not closed.
+     * @param out the stream to write to
+     * @param ascending the elements of the set lowest to highest; iterated twice
+     * @param count the number of elements
+     * @param descending true if the set is descending
+     * @throws IOException if the stream fails or an element cannot be serialized
+     */
+    static void write(OutputStream out, Iterable<?> ascending, int count, boolean descending)
+            throws IOException{
+        int type = typeOf(ascending, count);
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeByte(descending ? DESCENDING_FLAG : 0);
+        data.writeByte(type);
+        writeVarLong(data, count);
+        if(type == TYPE_INTEGER || type == TYPE_LONG){
+            boolean first = true;
+            long previous = 0;
+            for(Object element : ascending){
+                long value = ((Number) element).longValue();
+                if(first){
+                    writeVarLong(data, (value << 1) ^ (value >> 63));
+                    first = false;
+                }
+                else{
+                    writeVarLong(data, value - previous);
+                }
+                previous = value;
+            }
+        }
+        else if(type == TYPE_STRING){
+            for(Object element : ascending){
+                byte[] bytes = ((String) element).getBytes(StandardCharsets.UTF_8);
+                writeVarLong(data, bytes.length);
+                data.write(bytes);
+            }
+        }
+        else if(type == TYPE_OBJECT){
+            ObjectOutputStream objects = new ObjectOutputStream(data);
+            for(Object element : ascending){
+                objects.writeObject(element);
+            }
+            objects.flush();
+        }
+        data.flush();
+    }
+
+    /**
+     * Pick the most compact encoding that fits every element.
+     * @param ascending the elements
+     * @param count the number of elements
+     * @return the element type to write
+     * @throws IOException if the elements cannot be written at all
+     */
+    private static int typeOf(Iterable<?> ascending, int count)throws IOException{
+        if(count == 0){
+            return TYPE_EMPTY;
+        }
+        Class<?> common = null;
+        for(Object element : ascending){
+            if(common == null){
+                common = element.getClass();
+            }
+            else if(common != element.getClass()){
+                common = Object.class;
+            }
+            if(!(element instanceof Serializable)){
+                throw new IOException("Element cannot be written: " + element.getClass().getName());
+            }
+        }
+        int type = TYPE_OBJECT;
+        if(common == Integer.class){
+            type = TYPE_INTEGER;
+        }
+        else if(common == Long.class){
+            type = TYPE_LONG;
+        }
+        else if(common == String.class){
+            type = TYPE_STRING;
+        }
+        return type;
+    }
+
+    /**
+     * Read a snapshot. Exactly the bytes of the snapshot are consumed, except that elements
+     * written with Java serialization are read through an ObjectInputStream, which may read ahead.
+     * The elements are checked to be strictly increasing, which costs one comparison each. A
+     * corrupt header fails with StreamCorruptedException or EOFException rather than allocating
+     * what it claims.
+     * @param in the stream to read from
+     * @return the elements and direction of the set
+     * @throws IOException if the stream fails or does not hold a valid snapshot
+     */
+    static <R extends Comparable<R>> Loaded<R> read(InputStream in)throws IOException{
+        DataInputStream data = new DataInputStream(in);
+        if(data.readInt() != MAGIC){
+            throw new StreamCorruptedException("Not an ordered set snapshot");
+        }
+        if(data.readUnsignedByte() != VERSION){
+            throw new StreamCorruptedException("Unsupported snapshot version");
+        }
+        boolean descending = (data.readUnsignedByte() & DESCENDING_FLAG) != 0;
+        int type = data.readUnsignedByte();
+        long count = readVarLong(data);
+        if(count < 0 || count > Integer.MAX_VALUE - 8 || (count == 0) != (type == TYPE_EMPTY)){
+            throw new StreamCorruptedException("Bad element count");
+        }
+        Object[] elements = new Comparable[(int) Math.min(count, INITIAL_CAPACITY)];
+        if(type == TYPE_INTEGER || type == TYPE_LONG){
+            long value = 0;
+            for(int i = 0; i < count; i++){
+                long encoded = readVarLong(data);
+                elements = room(elements, i, count);
+                value = (i == 0) ? (encoded >>> 1) ^ -(encoded & 1) : value + encoded;
+                if(type == TYPE_INTEGER){
+                    if(value != (int) value){
+                        throw new StreamCorruptedException("Integer out of range");
+                    }
+                    elements[i] = (int) value;
+                }
+                else{
+                    elements[i] = value;
+                }
+            }
+        }
+        else if(type == TYPE_STRING){
+            for(int i = 0; i < count; i++){
+                long length = readVarLong(data);
+                if(length < 0 || length > Integer.MAX_VALUE - 8){
+                    throw new StreamCorruptedException("Bad string length");
+                }
+                byte[] bytes = readBytes(data, (int) length);
+                elements = room(elements, i, count);
+                elements[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        else if(type == TYPE_OBJECT){
+            ObjectInputStream objects = new ObjectInputStream(data);
+            objects.setObjectInputFilter(OrderedSnapshot::checkElement);
+            try{
+                for(int i = 0; i < count; i++){
+                    Object element = objects.readObject();
+                    if(!(element instanceof Comparable)){
+                        throw new StreamCorruptedException("Element is not Comparable");
+                    }
+                    elements = room(elements, i, count);
+                    elements[i] = element;
+                }
+            }
+            catch(ClassNotFoundException e){
+                throw new IOException("Element class not found", e);
+            }
+        }
+        else if(type != TYPE_EMPTY){
+            throw new StreamCorruptedException("Unknown element type " + type);
+        }
+        R[] result = (R[]) elements;
+        try{
+            for(int i = 1; i < result.length; i++){
+                if(result[i - 1].compareTo(result[i]) >= 0){
+                    throw new StreamCorruptedException("Elements are not in order");
+                }
+            }
+        }
+        catch(ClassCastException e){
+            throw new StreamCorruptedException("Elements cannot be compared");
+        }
+        return new Loaded<>(result, descending);
+    }
+
+    /**
+     * Make sure an array read from a snapshot has a slot for the next element, doubling it up to
+     * the element count when it is full.
+     * @param elements the elements read so far
+     * @param index the position of the next element
+     * @param count the number of elements in the snapshot
+     * @return elements, or a larger copy of it
+     */
+    private static Object[] room(Object[] elements, int index, long count){
+        if(index < elements.length){
+            return elements;
+        }
+        return Arrays.copyOf(elements, (int) Math.min(count, (long) elements.length * 2));
+    }
+
+    /**
+     * Read a run of bytes whose length came from the snapshot, growing the buffer as the bytes
+     * arrive so that a bad length runs out of input instead of memory.
+     * @param in the stream to read from
+     * @param length the number of bytes to read
+     * @return the bytes
+     * @throws IOException if the stream fails or ends first
+     */
+    private static byte[] readBytes(DataInputStream in, int length)throws IOException{
+        byte[] bytes = new byte[Math.min(length, INITIAL_CAPACITY)];
+        int filled = 0;
+        while(filled < length){
+            if(filled == bytes.length){
+                bytes = Arrays.copyOf(bytes, (int) Math.min(length, (long) bytes.length * 2));
+            }
+            int read = in.read(bytes, filled, bytes.length - filled);
+            if(read < 0){
+                throw new EOFException();
+            }
+            filled += read;
+        }
+        return bytes;
+    }
+
+    /**
+     * Decide whether a class met while deserializing an element may be read. Graphs deeper than
+     * MAX_DEPTH and arrays longer than MAX_ARRAY_LENGTH are refused; a class is accepted if it is
+     * one of the JDK value types or the process wide serial filter allows it.
+     * @param info the class, depth and array length being read
+     * @return ALLOWED, REJECTED or UNDECIDED for a check that names no class
+     */
+    private static ObjectInputFilter.Status checkElement(ObjectInputFilter.FilterInfo info){
+        if(info.depth() > MAX_DEPTH || info.arrayLength() > MAX_ARRAY_LENGTH){
+            return ObjectInputFilter.Status.REJECTED;
+        }
+        Class<?> type = info.serialClass();
+        if(type == null){
+            return ObjectInputFilter.Status.UNDECIDED;
+        }
+        while(type.isArray()){
+            type = type.getComponentType();
+        }
+        if(isValueClass(type)){
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        ObjectInputFilter process = ObjectInputFilter.Config.getSerialFilter();
+        if(process != null && process.checkInput(info) == ObjectInputFilter.Status.ALLOWED){
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        return ObjectInputFilter.Status.REJECTED;
+    }
+
+    /**
+     * Determine whether a class is a JDK value type whose serialized form cannot run other code.
+     * @param type the class, or the element type of an array
+     * @return true if the class may always be read
+     */
+    private static boolean isValueClass(Class<?> type){
+        String name = type.getPackageName();
+        return type.isPrimitive() || type == String.class || type == Boolean.class
+                || type == Character.class || Enum.class.isAssignableFrom(type)
+                || Number.class.isAssignableFrom(type) && (name.equals("java.lang") || name.equals("java.math"))
+                || name.equals("java.time") || type == UUID.class || type == Date.class;
+    }
+
+    /**
+     * Write a long as an unsigned LEB128 varint.
+     * @param out the stream to write to
+     * @param value the value, treated as unsigned
+     * @throws IOException if the stream fails
+     */
+    private static void writeVarLong(DataOutputStream out, long value)throws IOException{
+        while((value & ~0x7FL) != 0){
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Read an unsigned LEB128 varint.
+     * @param in the stream to read from
+     * @return the value
+     * @throws IOException if the stream fails or the varint is too long
+     */
+    private static long readVarLong(DataInputStream in)throws IOException{
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7){
+            int next = in.read();
+            if(next < 0){
+                throw new EOFException();
+            }
+            value |= (long) (next & 0x7F) << shift;
+            if((next & 0x80) == 0){
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Varint too long");
+    }
+}
@@ -0,0 +1,135 @@
+package orderedSet;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A Spliterator over a range of an array whose elements are already sorted and distinct. The
+ * range can be read from either end, so an ascending array can be traversed highest to lowest
+ * without copying it. Splitting hands off the first half of what is left in encounter order and
+ * takes constant time.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+final class OrderedSpliterator<T> implements Spliterator<T>{
+
+    /** Characteristics of every ordered set spliterator */
+    static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT
+            | Spliterator.NONNULL | Spliterator.SIZED | Spliterator.SUBSIZED;
+
+    /** The elements */
+    private final Object[] array;
+    /** First slot of the range that has not been read */
+    private int low;
+    /** Slot after the last slot of the range that has not been read */
+    private int high;
+    /** true if the range is read from high to low */
+    private final boolean backward;
+    /** true if the elements are encountered highest to lowest */
+    private final boolean descending;
+
+    /**
+     * Create a spliterator over part of an array.
+     * @param array the elements
+     * @param low the first slot of the range
+     * @param high the slot after the last slot of the range
+     * @param backward true to read the range from its last slot to its first
+     * @param descending true if the elements are encountered highest to lowest
+     */
+    OrderedSpliterator(Object[] array, int low, int high, boolean backward, boolean descending){
+        this.array = array;
+        this.low = low;
+        this.high = high;
+        this.backward = backward;
+        this.descending = descending;
+    }
+
+    /**
+     * Split off the first half of the remaining elements.
+     * @return a spliterator over that half, or null if there are too few elements to split
+     */
+    public Spliterator<T> trySplit(){
+        int mid = (low + high) >>> 1;
+        if(mid <= low){
+            return null;
+        }
+        OrderedSpliterator<T> prefix;
+        if(backward){
+            prefix = new OrderedSpliterator<>(array, mid, high, true, descending);
+            high = mid;
+        }
+        else{
+            prefix = new OrderedSpliterator<>(array, low, mid, false, descending);
+            low = mid;
+        }
+        return prefix;
+    }
+
+    /**
+     * Pass the next element to an action.
+     * @param action the action
+     * @return false if there were no elements left
+     */
+    public boolean tryAdvance(Consumer<? super T> action){
+        if(action == null){
+            throw new NullPointerException();
+        }
+        if(low >= high){
+            return false;
+        }
+        T element = (T) (backward ? array[--high] : array[low++]);
+        action.accept(element);
+        return true;
+    }
+
+    /**
+     * Pass every remaining element to an action.
+     * @param action the action
+     */
+    public void forEachRemaining(Consumer<? super T> action){
+        if(action == null){
+            throw new NullPointerException();
+        }
+        int from = low;
+        int to = high;
+        low = high;
+        if(backward){
+            for(int i = to - 1; i >= from; i--){
+                action.accept((T) array[i]);
+            }
+        }
+        else{
+            for(int i = from; i < to; i++){
+                action.accept((T) array[i]);
+            }
+        }
+    }
+
+    /** @return the exact number of elements left */
+    public long estimateSize(){
+        return high - low;
+    }
+
+    /** @return the characteristics shared by every ordered set spliterator */
+    public int characteristics(){
+        return CHARACTERISTICS;
+    }
+
+    /** @return null for natural order, or the reverse of natural order when descending */
+    public Comparator<? super T> getComparator(){
+        return comparator(descending);
+    }
+
+    /**
+     * The comparator a SORTED spliterator reports for a set with the given direction.
+     * @param descending true if the set is ordered highest to lowest
+     * @return null for natural order, or the reverse of natural order when descending
+     */
+    static <T> Comparator<? super T> comparator(boolean descending){
+        return descending ? (Comparator<? super T>) Collections.reverseOrder() : null;
+    }
+}
@@ -0,0 +1,229 @@
+package orderedSet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Package private helpers shared by the OrderedInterface implementations. None of these methods
+ * keep any state; they only work on the arguments they are given.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+final class OrderedSupport{
+
+    /** Not instantiable */
+    private OrderedSupport(){
+    }
+
+    /**
+     * Compare two elements in the order of a set with the given direction.
+     * @param first the first element
+     * @param second the second element
+     * @param descending true if the set is ordered highest to lowest
+     * @return a negative number, zero, or a positive number as first comes before, is equal to,
+     * or comes after second
+     */
+    static <R extends Comparable<R>> int compare(R first, R second, boolean descending){
+        int cmp = first.compareTo(second);
+        return descending ? -cmp : cmp;
+    }
+
+    /**
+     * Copy a batch of elements into an array sorted in the order of a set with the given
+     * direction, with duplicates removed.
+     * @param collection the elements to sort
+     * @param descending true if the batch should be ordered highest to lowest
+     * @return a new array holding each distinct element of collection exactly once, in order
+     * @throws IllegalArgumentException if the collection contains a null element
+     */
+    static <R extends Comparable<R>> R[] sortedDistinct(Collection<? extends R> collection,
+            boolean descending)throws IllegalArgumentException{
+        R[] batch = (R[]) new Comparable[collection.size()];
+        int size = 0;
+        for(R element : collection){
+            if(element == null){
+                throw new IllegalArgumentException();
+            }
+            if(size == batch.length){
+                batch = Arrays.copyOf(batch, Math.max(8, size * 2));
+            }
+            batch[size++] = element;
+        }
+        if(size != batch.length){
+            batch = Arrays.copyOf(batch, size);
+        }
+        if(descending){
+            Arrays.sort(batch, Collections.reverseOrder());
+        }
+        else{
+            Arrays.sort(batch);
+        }
+        int count = 0;
+        for(int i = 0; i < batch.length; i++){
+            if(count == 0 || batch[count - 1].compareTo(batch[i]) != 0){
+                batch[count] = batch[i];
+                count++;
+            }
+        }
+        return count == batch.length ? batch : Arrays.copyOf(batch, count);
+    }
+
+    /**
+     * Compare two elements of possibly different sets in the order of a set with the given
+     * direction.
+     * @param first the first element, which must be Comparable
+     * @param second the second element
+     * @param descending true if the order is highest to lowest
+     * @return a negative number, zero, or a positive number as first comes before, is equal to,
+     * or comes after second
+     * @throws ClassCastException if the elements cannot be compared to each other
+     */
+    static int compareRaw(Object first, Object second, boolean descending){
+        int cmp = ((Comparable<Object>) first).compareTo(second);
+        return descending ? -cmp : cmp;
+    }
+
+    /**
+     * Iterate over the elements of an ordered set in the requested direction, whatever the
+     * direction of the set itself. When the directions match this is the set's own iterator;
+     * otherwise the elements are read backwards, by index for an OrderedSet or from a copy of
+     * the elements for any other implementation.
+     * @param set the set to iterate over
+     * @param descending true to read the elements highest to lowest
+     * @return an iterator over the elements of set in the requested order
+     */
+    static Iterator<?> inOrder(OrderedInterface<?> set, boolean descending){
+        if(set.isReversed() == descending){
+            return set.iterator();
+        }
+        final int size = set.size();
+        final Object[] elements;
+        if(set instanceof OrderedSet){
+            elements = null;
+        }
+        else{
+            elements = new Object[size];
+            int index = 0;
+            for(Object element : set){
+                elements[index++] = element;
+            }
+        }
+        return new Iterator<Object>(){
+            private int index = size - 1;
+
+            public boolean hasNext(){
+                return index >= 0;
+            }
+
+            public Object next(){
+                if(index < 0){
+                    throw new NoSuchElementException();
+                }
+                Object element = elements == null ? ((OrderedSet<?>) set).getElement(index) : elements[index];
+                index--;
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Determine whether every element of an ordered set is also in another ordered sequence by
+     * walking the two side by side.
+     * @param mine iterator over this set, in its own direction
+     * @param other the set whose elements must all be found
+     * @param descending the direction of mine
+     * @return true if every element of other is returned by mine
+     */
+    static boolean containsAllSorted(Iterator<?> mine, OrderedInterface<?> other, boolean descending){
+        Iterator<?> theirs = inOrder(other, descending);
+        Object current = mine.hasNext() ? mine.next() : null;
+        try{
+            while(theirs.hasNext()){
+                Object wanted = theirs.next();
+                while(current != null && compareRaw(current, wanted, descending) < 0){
+                    current = mine.hasNext() ? mine.next() : null;
+                }
+                if(current == null || compareRaw(current, wanted, descending) != 0){
+                    return false;
+                }
+                current = mine.hasNext() ? mine.next() : null;
+            }
+        }
+        catch(ClassCastException e){
+            // the two sets hold elements that cannot be compared, so they share none of them
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Answers membership questions about a collection for elements asked about in ascending
+     * order. An OrderedInterface collection is walked side by side with the questions, so a whole
+     * pass costs a single read of it; any other collection, or an ordered one whose elements turn
+     * out not to be comparable with the ones asked about, is asked through its contains method.
+     */
+    static final class Membership{
+        /** The collection being asked about */
+        private final Collection<?> collection;
+        /** Its elements in ascending order, or null once it is asked through contains */
+        private Iterator<?> others;
+        /** The smallest element of the collection not yet passed, or null if there is none */
+        private Object other;
+
+        /**
+         * Start answering questions about a collection.
+         * @param collection the collection to test membership in
+         */
+        Membership(Collection<?> collection){
+            this.collection = collection;
+            if(collection instanceof OrderedInterface){
+                others = inOrder((OrderedInterface<?>) collection, false);
+                other = others.hasNext() ? others.next() : null;
+            }
+        }
+
+        /**
+         * Determine whether an element is in the collection. Each element must be greater than
+         * the one asked about before it.
+         * @param element the element to look for
+         * @return true if the collection contains element
+         */
+        boolean contains(Object element){
+            if(others != null){
+                try{
+                    while(other != null && compareRaw(other, element, false) < 0){
+                        other = others.hasNext() ? others.next() : null;
+                    }
+                    return other != null && compareRaw(other, element, false) == 0;
+                }
+                catch(ClassCastException e){
+                    others = null;
+                    other = null;
+                }
+            }
+            return collection.contains(element);
+        }
+    }
+
+    /**
+     * Estimate the heap taken by a HashSet index over a number of elements, not counting the
+     * elements themselves, which are shared with the set. Assumes a 64-bit JVM with compressed
+     * references: about 80 bytes for the HashSet and its HashMap, 32 bytes for each entry and 4
+     * bytes for each slot of the table, which is the smallest power of two that keeps the load
+     * factor at or under 0.75.
+     * @param entries the number of elements in the index
+     * @return the estimated size of the index in bytes
+     */
+    static long hashIndexBytes(int entries){
+        long table = 16;
+        while(table * 3 / 4 < entries){
+            table <<= 1;
+        }
+        return 80 + 16 + table * 4 + (long) entries * 32;
+    }
+}
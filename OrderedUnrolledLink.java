@@ -0,0 +1,661 @@
+package orderedSet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This is a concrete implementation of a Set using an unrolled linked list. Like OrderedLink it
+ * models the mathematical set abstraction in which the set must not contain duplicates and the
+ * values in the set must be ordered (determined using the compareTo method of each object
+ * element), but each node holds a sorted chunk of up to chunkCapacity elements instead of a
+ * single one.
+ * <br>
+ * Walking the list therefore follows one link per chunk rather than one per element, and the
+ * chunk that holds a key is searched with a binary search. A full chunk is split in two when an
+ * element is added to it, and a chunk that falls below a quarter full borrows from or merges with
+ * its neighbour, so inserting in the middle of the list still only shifts elements within a
+ * single chunk. The chunks are always linked lowest to highest; a descending set is read from the
+ * tail, so reverse() takes constant time.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public class OrderedUnrolledLink<R extends Comparable<R>> implements OrderedInterface<R>{
+
+    /** The default number of elements a chunk can hold */
+    private static final int DEFAULT_CHUNK_CAPACITY = 64;
+    /** The smallest chunk capacity allowed */
+    private static final int MIN_CHUNK_CAPACITY = 4;
+
+    /** boolean representing whether the list is descending or ascending */
+    private boolean descending;
+    /** The most elements a chunk holds */
+    private final int chunkCapacity;
+    /** The lowest chunk, or null when empty */
+    private Chunk<R> head;
+    /** The highest chunk, or null when empty */
+    private Chunk<R> tail;
+    /** The number of chunks in the list */
+    private int numChunks;
+    /** The count of elements in this list */
+    private int numElements;
+
+    /** Create an OrderedUnrolledLink */
+    public OrderedUnrolledLink(){
+        this(DEFAULT_CHUNK_CAPACITY);
+    }
+
+    /**
+     * Creates an empty set whose chunks hold a given number of elements.
+     * @param chunkCapacity the most elements a chunk holds
+     * @throws IllegalArgumentException if chunkCapacity is less than 4
+     */
+    public OrderedUnrolledLink(int chunkCapacity)throws IllegalArgumentException{
+        if(chunkCapacity < MIN_CHUNK_CAPACITY){
+            throw new IllegalArgumentException();
+        }
+        this.descending = false;
+        this.chunkCapacity = chunkCapacity;
+        this.head = null;
+        this.tail = null;
+        this.numChunks = 0;
+        this.numElements = 0;
+    }
+
+    /**
+     * Creates an 'descending' empty set.
+     * @param descending if set is to be descending
+     */
+    public OrderedUnrolledLink(boolean descending){
+        this();
+        this.descending = descending;
+    }
+
+    /**
+     * Create a OrderedUnrolledLink based on the values from any Collection.
+     * @param collection collection whose data to be added to this OrderedUnrolledLink
+     * @param descending if set is to be descending
+     * @throws IllegalArgumentException if collection is null
+     */
+    public OrderedUnrolledLink(Collection<R> collection, boolean descending)throws IllegalArgumentException{
+        this(descending);
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        addAll(collection);
+    }
+
+    /** Clear the set so that the are 0 elements. */
+    public void clear(){
+        this.head = null;
+        this.tail = null;
+        this.numChunks = 0;
+        this.numElements = 0;
+    }
+
+    /** Return true if this set is empty.
+     * @return boolean indicating if set is empty
+     */
+    public boolean isEmpty(){
+        return numElements == 0;
+    }
+
+    /** Get the number of elements in this list.
+     * @return number of elements in this list
+     */
+    public int size(){
+        return this.numElements;
+    }
+
+    /** Print each item in the set. */
+    public void printList(){
+        for(R data:this){
+            System.out.println(data);
+        }
+    }
+
+    /**
+     * Display this class as a String.
+     * @return elements in the list in displayable format
+     */
+    public String toString(){
+        StringBuilder sb = new StringBuilder();
+        sb.append("<");
+        Iterator<R> it = iterator();
+        while(it.hasNext()){
+            sb.append(it.next().toString());
+            if(it.hasNext()){
+                sb.append(", ");
+            }
+        }
+        sb.append(">");
+        return sb.toString();
+    }
+
+    /**
+     * Get the item at the index position specified, counting from the front of the set in its
+     * current direction. The walk skips a whole chunk at a time, starting from whichever end of
+     * the list is closer.
+     * @param location index to retrieve an item from
+     * @return the item from a particular index
+     * @throws NoSuchElementException if location is outside of the set
+     */
+    public R get(int location)throws NoSuchElementException{
+        if(location < 0 || location >= numElements){
+            throw new NoSuchElementException();
+        }
+        int fromHead = descending ? numElements - 1 - location : location;
+        if(fromHead < numElements / 2){
+            Chunk<R> current = head;
+            while(fromHead >= current.count){
+                fromHead -= current.count;
+                current = current.next;
+            }
+            return current.items[fromHead];
+        }
+        int fromTail = numElements - 1 - fromHead;
+        Chunk<R> current = tail;
+        while(fromTail >= current.count){
+            fromTail -= current.count;
+            current = current.prev;
+        }
+        return current.items[current.count - 1 - fromTail];
+    }
+
+    /**
+     * Find the chunk a key belongs in: the first chunk whose highest element is not lower than
+     * key, or the tail if key is higher than every element. A key past the tail is found without
+     * a walk.
+     * @param key the key
+     * @return the chunk, or null if the list is empty
+     */
+    private Chunk<R> chunkFor(R key){
+        if(tail == null || tail.items[tail.count - 1].compareTo(key) < 0){
+            return tail;
+        }
+        Chunk<R> current = head;
+        while(current.items[current.count - 1].compareTo(key) < 0){
+            current = current.next;
+        }
+        return current;
+    }
+
+    /**
+     * Binary search a chunk for a key.
+     * @param chunk the chunk
+     * @param key the key
+     * @return the slot of key, or -(insertion point) - 1 if it is not in the chunk
+     */
+    private static <R extends Comparable<R>> int search(Chunk<R> chunk, R key){
+        int low = 0;
+        int high = chunk.count - 1;
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            int cmp = chunk.items[mid].compareTo(key);
+            if(cmp < 0){
+                low = mid + 1;
+            }
+            else if(cmp > 0){
+                high = mid - 1;
+            }
+            else{
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Add an item in order where it needs to go within the set. A full chunk is split in half
+     * first.
+     * @param element the element to add
+     * @return boolean indicating if item was added
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean add(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        Chunk<R> chunk = chunkFor(element);
+        if(chunk == null){
+            chunk = new Chunk<>(chunkCapacity);
+            linkAfter(chunk, null);
+        }
+        int slot = search(chunk, element);
+        if(slot >= 0){
+            return false;
+        }
+        slot = -(slot + 1);
+        if(chunk.count == chunkCapacity){
+            Chunk<R> upper = split(chunk);
+            if(slot > chunk.count){
+                slot -= chunk.count;
+                chunk = upper;
+            }
+        }
+        System.arraycopy(chunk.items, slot, chunk.items, slot + 1, chunk.count - slot);
+        chunk.items[slot] = element;
+        chunk.count++;
+        numElements++;
+        return true;
+    }
+
+    /**
+     * Move the upper half of a chunk into a new chunk linked directly after it.
+     * @param chunk the chunk to split
+     * @return the new chunk
+     */
+    private Chunk<R> split(Chunk<R> chunk){
+        Chunk<R> upper = new Chunk<>(chunkCapacity);
+        int keep = chunk.count / 2;
+        upper.count = chunk.count - keep;
+        System.arraycopy(chunk.items, keep, upper.items, 0, upper.count);
+        Arrays.fill(chunk.items, keep, chunk.count, null);
+        chunk.count = keep;
+        linkAfter(upper, chunk);
+        return upper;
+    }
+
+    /**
+     * Link a chunk into the list directly after another one.
+     * @param chunk the chunk to link
+     * @param predecessor the chunk to link after, or null to link at the head
+     */
+    private void linkAfter(Chunk<R> chunk, Chunk<R> predecessor){
+        Chunk<R> successor = (predecessor == null) ? head : predecessor.next;
+        chunk.prev = predecessor;
+        chunk.next = successor;
+        if(predecessor == null){
+            head = chunk;
+        }
+        else{
+            predecessor.next = chunk;
+        }
+        if(successor == null){
+            tail = chunk;
+        }
+        else{
+            successor.prev = chunk;
+        }
+        numChunks++;
+    }
+
+    /**
+     * Take a chunk out of the list.
+     * @param chunk the chunk to unlink
+     */
+    private void unlink(Chunk<R> chunk){
+        if(chunk.prev == null){
+            head = chunk.next;
+        }
+        else{
+            chunk.prev.next = chunk.next;
+        }
+        if(chunk.next == null){
+            tail = chunk.prev;
+        }
+        else{
+            chunk.next.prev = chunk.prev;
+        }
+        numChunks--;
+    }
+
+    /**
+     * Add all items from another Collection to this set. When the batch is large enough that
+     * finding each element's chunk would cost more than a pass over the whole list, the batch is
+     * sorted and merged with the elements already in the set and the chunks are rebuilt;
+     * otherwise the elements are added one at a time.
+     * @param collection whose data to add all elements from
+     * @return boolean indicating if the set changed
+     * @throws NullPointerException if collection is null
+     * @throws IllegalArgumentException if the collection contains null
+     */
+    public boolean addAll(Collection<? extends R> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        int prevSize = numElements;
+        if((long) collection.size() * numChunks < numElements){
+            for(R data : collection){
+                add(data);
+            }
+            return numElements != prevSize;
+        }
+        R[] batch = OrderedSupport.sortedDistinct(collection, false);
+        R[] merged = (R[]) new Comparable[numElements + batch.length];
+        int count = 0;
+        int theirs = 0;
+        for(Chunk<R> chunk = head; chunk != null; chunk = chunk.next){
+            for(int i = 0; i < chunk.count; i++){
+                R mine = chunk.items[i];
+                while(theirs < batch.length && batch[theirs].compareTo(mine) < 0){
+                    merged[count++] = batch[theirs++];
+                }
+                if(theirs < batch.length && batch[theirs].compareTo(mine) == 0){
+                    theirs++;
+                }
+                merged[count++] = mine;
+            }
+        }
+        while(theirs < batch.length){
+            merged[count++] = batch[theirs++];
+        }
+        rebuild(merged, count);
+        return numElements != prevSize;
+    }
+
+    /**
+     * Replace the contents of the list with sorted elements, packing each chunk three quarters
+     * full so that later adds do not split straight away.
+     * @param sorted distinct elements lowest to highest
+     * @param count the number of elements to use
+     */
+    private void rebuild(R[] sorted, int count){
+        clear();
+        int fill = Math.max(1, chunkCapacity * 3 / 4);
+        for(int from = 0; from < count; from += fill){
+            Chunk<R> chunk = new Chunk<>(chunkCapacity);
+            chunk.count = Math.min(fill, count - from);
+            System.arraycopy(sorted, from, chunk.items, 0, chunk.count);
+            linkAfter(chunk, tail);
+        }
+        numElements = count;
+    }
+
+    /**
+     * Determine if a specific object is in the set.
+     * @param element to check if contained within this set
+     * @return boolean indicating if element passed is contained within this set
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean contains(Object element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        if(!(element instanceof Comparable) || tail == null){
+            return false;
+        }
+        try{
+            R key = (R) element;
+            return search(chunkFor(key), key) >= 0;
+        }
+        catch(ClassCastException e){
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if this set contains all of the elements of the specified Collection. An
+     * OrderedInterface argument is checked with a single merge pass over both sets.
+     * @param collection to check if all its data is contained within ours
+     * @return boolean
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean containsAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        if(collection instanceof OrderedInterface){
+            return OrderedSupport.containsAllSorted(iterator(), (OrderedInterface<?>) collection, descending);
+        }
+        for(Object item : collection){
+            if(!contains(item)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present. A chunk left less than a
+     * quarter full borrows elements from a neighbour, or merges with it if the two fit in one
+     * chunk.
+     * @param item to remove from set
+     * @return boolean indicating if item was succesfully removed
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean remove(Comparable item)throws IllegalArgumentException{
+        if(!contains(item)){
+            return false;
+        }
+        R key = (R) item;
+        Chunk<R> chunk = chunkFor(key);
+        int slot = search(chunk, key);
+        System.arraycopy(chunk.items, slot + 1, chunk.items, slot, chunk.count - slot - 1);
+        chunk.count--;
+        chunk.items[chunk.count] = null;
+        numElements--;
+        if(chunk.count == 0){
+            unlink(chunk);
+        }
+        else if(chunk.count < chunkCapacity / 4){
+            rebalance(chunk);
+        }
+        return true;
+    }
+
+    /**
+     * Refill a chunk that has fallen below a quarter full from its neighbour.
+     * @param chunk the chunk
+     */
+    private void rebalance(Chunk<R> chunk){
+        Chunk<R> lower = chunk;
+        Chunk<R> upper = chunk.next;
+        if(upper == null){
+            upper = chunk;
+            lower = chunk.prev;
+            if(lower == null){
+                return;
+            }
+        }
+        int total = lower.count + upper.count;
+        if(total <= chunkCapacity * 3 / 4){
+            System.arraycopy(upper.items, 0, lower.items, lower.count, upper.count);
+            lower.count = total;
+            unlink(upper);
+        }
+        else{
+            int target = total / 2;
+            if(lower.count < target){
+                int moved = target - lower.count;
+                System.arraycopy(upper.items, 0, lower.items, lower.count, moved);
+                System.arraycopy(upper.items, moved, upper.items, 0, upper.count - moved);
+                Arrays.fill(upper.items, upper.count - moved, upper.count, null);
+                lower.count += moved;
+                upper.count -= moved;
+            }
+            else{
+                int moved = lower.count - target;
+                System.arraycopy(upper.items, 0, upper.items, moved, upper.count);
+                System.arraycopy(lower.items, target, upper.items, 0, moved);
+                Arrays.fill(lower.items, target, lower.count, null);
+                lower.count = target;
+                upper.count += moved;
+            }
+        }
+    }
+
+    /**
+     * Removes from this set all of its elements that are contained in the specified Collection.
+     * @param collection whose data to remove all from in this set
+     * @return boolean indicating if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    public boolean removeAll(Collection<?> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        return sweep(collection, false);
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the specified Collection.
+     * @param collection whose elements to retain
+     * @return boolean indicating if the set changed
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean retainAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        return sweep(collection, true);
+    }
+
+    /**
+     * Walk the list once, keeping each element whose membership in a collection matches retain,
+     * and rebuild the chunks from the elements kept. An OrderedInterface collection is walked
+     * side by side with the list.
+     * @param collection the collection to test membership in
+     * @param retain true to keep the elements found in collection, false to remove them
+     * @return true if the set changed
+     */
+    private boolean sweep(Collection<?> collection, boolean retain){
+        int prevSize = numElements;
+        OrderedSupport.Membership membership = new OrderedSupport.Membership(collection);
+        R[] kept = (R[]) new Comparable[numElements];
+        int count = 0;
+        for(Chunk<R> chunk = head; chunk != null; chunk = chunk.next){
+            for(int i = 0; i < chunk.count; i++){
+                R mine = chunk.items[i];
+                boolean found = membership.contains(mine);
+                if(found == retain){
+                    kept[count++] = mine;
+                }
+            }
+        }
+        if(count != prevSize){
+            rebuild(kept, count);
+        }
+        return count != prevSize;
+    }
+
+    /**
+     * Compares the specified object with this set for equality. Returns true if the specified
+     * object is also a Collection, the two have the same size, and every member of the specified
+     * collection is contained in this set.
+     * @param other the specified object to be compared
+     * @return boolean indicating if items were equal or not
+     */
+    public boolean equals(Object other){
+        boolean result = false;
+        if(other instanceof Collection){
+            Collection<?> temp = (Collection<?>) other;
+            result = this.size() == temp.size() && containsAll(temp);
+        }
+        return result;
+    }
+
+    /**
+     * Hash code consistent with equals, the sum of the hash codes of the elements.
+     * @return hash code of this set
+     */
+    public int hashCode(){
+        int hash = 0;
+        for(R data : this){
+            hash += data.hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * This function will return true if this set is descending and false if it is ascending.
+     * @return boolean indicating if set is descending or ascending
+     */
+    public boolean isReversed(){
+        return this.descending;
+    }
+
+    /**
+     * Reverse the order of the set. The chunks stay ordered lowest to highest; only the direction
+     * they are read in changes, so this runs in constant time.
+     */
+    public void reverse(){
+        this.descending = !this.descending;
+    }
+
+    /**
+     * Return an iterator for this OrderedUnrolledLink
+     * @return iterator over the set in its current order
+     */
+    public Iterator<R> iterator(){
+        return new ChunkIterator();
+    }
+
+    /**
+     * An iterator that reads each chunk's array in turn in the current direction.
+     */
+    private class ChunkIterator implements Iterator<R>{
+
+        /** The chunk being read */
+        private Chunk<R> chunk;
+        /** The slot to return next within chunk */
+        private int slot;
+
+        /** Creates a ChunkIterator starting from the front of the set in its current direction */
+        private ChunkIterator(){
+            this.chunk = descending ? tail : head;
+            this.slot = (descending && chunk != null) ? chunk.count - 1 : 0;
+        }
+
+        /** Is there another element to access in this list?
+         * @return true if there is another element
+         */
+        public boolean hasNext(){
+            return chunk != null;
+        }
+
+        /** Get the next element in the list if one exists.
+         * @return the next element
+         * @throws NoSuchElementException if the iteration is over
+         */
+        public R next(){
+            if(chunk == null){
+                throw new NoSuchElementException();
+            }
+            R data = chunk.items[slot];
+            if(descending){
+                slot--;
+                if(slot < 0){
+                    chunk = chunk.prev;
+                    slot = (chunk == null) ? 0 : chunk.count - 1;
+                }
+            }
+            else{
+                slot++;
+                if(slot >= chunk.count){
+                    chunk = chunk.next;
+                    slot = 0;
+                }
+            }
+            return data;
+        }
+    }
+
+    /**
+     * A node of the list holding a sorted run of elements.
+     */
+    private static class Chunk<R extends Comparable<R>>{
+        /** The elements of the chunk, lowest to highest, in slots 0 to count - 1 */
+        private final R[] items;
+        /** The number of elements in the chunk */
+        private int count;
+        /** The next (higher) chunk in the list */
+        private Chunk<R> next;
+        /** The previous (lower) chunk in the list */
+        private Chunk<R> prev;
+
+        /**
+         * Constructs an empty chunk
+         * @param capacity the most elements the chunk can hold
+         */
+        private Chunk(int capacity){
+            this.items = (R[]) new Comparable[capacity];
+            this.count = 0;
+            this.next = null;
+            this.prev = null;
+        }
+    }
+}
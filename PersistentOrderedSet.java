@@ -0,0 +1,747 @@
+package orderedSet;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * This is a thread safe implementation of an OrderedInterface whose versions are immutable. The
+ * elements are held in a balanced binary search tree whose nodes never change once built: a
+ * change copies only the O(log n) nodes on the path to the element and shares the rest of the
+ * tree with the previous version, then publishes the new root with a compare and set. A version
+ * that has been read stays valid for as long as anyone holds it.
+ * <br>
+ * This makes snapshot() constant time, and every read - contains, get, indexOf, iteration,
+ * toString, equals - works on the single version that was current when it started, so it never
+ * sees a half finished change and never throws ConcurrentModificationException. Readers never
+ * block writers and writers never block readers; writers that collide retry against the newer
+ * version. with and without return changed copies and leave this set alone.
+ * <br>
+ * add, remove and contains take O(log n), get and indexOf use the subtree sizes to take
+ * O(log n), size takes constant time and the tree is kept balanced with AVL rotations. The tree
+ * is always ordered lowest to highest and the direction is part of each version, so reverse()
+ * takes constant time.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public class PersistentOrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
+
+    /** The current version of the set */
+    private final AtomicReference<Version<R>> version;
+
+    /** Create an empty ascending PersistentOrderedSet */
+    public PersistentOrderedSet(){
+        this(false);
+    }
+
+    /**
+     * Creates an empty set.
+     * @param descending if set is to be descending
+     */
+    public PersistentOrderedSet(boolean descending){
+        this(new Version<>(null, descending));
+    }
+
+    /**
+     * Create a PersistentOrderedSet based on the values from any Collection.
+     * @param collection collection whose data to be added to this set
+     * @param descending if set is to be descending
+     * @throws IllegalArgumentException if collection is null or contains null
+     */
+    public PersistentOrderedSet(Collection<R> collection, boolean descending)throws IllegalArgumentException{
+        this(descending);
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        R[] sorted = OrderedSupport.sortedDistinct(collection, false);
+        version.set(new Version<>(build(sorted, 0, sorted.length), descending));
+    }
+
+    /**
+     * Creates a set that starts from an existing version.
+     * @param start the version to start from
+     */
+    private PersistentOrderedSet(Version<R> start){
+        this.version = new AtomicReference<>(start);
+    }
+
+    /**
+     * Take a snapshot of the set in constant time. The snapshot is a separate set that starts
+     * with the current elements and direction and shares the whole tree with this one; later
+     * changes to either set are not seen by the other.
+     * @return the snapshot
+     */
+    public PersistentOrderedSet<R> snapshot(){
+        return new PersistentOrderedSet<>(version.get());
+    }
+
+    /**
+     * Return a copy of this set with an element added, leaving this set unchanged. The copy
+     * shares all but O(log n) nodes with this set.
+     * @param element the element to add
+     * @return the new set, or a snapshot of this one if element was already present
+     * @throws IllegalArgumentException if element is null
+     */
+    public PersistentOrderedSet<R> with(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        Version<R> current = version.get();
+        return new PersistentOrderedSet<>(new Version<>(insert(current.root, element), current.descending));
+    }
+
+    /**
+     * Return a copy of this set with an element removed, leaving this set unchanged. The copy
+     * shares all but O(log n) nodes with this set.
+     * @param item the element to remove
+     * @return the new set, or a snapshot of this one if item was not present
+     * @throws IllegalArgumentException if item is null
+     */
+    public PersistentOrderedSet<R> without(Comparable item)throws IllegalArgumentException{
+        if(item == null){
+            throw new IllegalArgumentException();
+        }
+        Version<R> current = version.get();
+        Node<R> root = current.root;
+        if(find(root, item)){
+            root = delete(root, (R) item);
+        }
+        return new PersistentOrderedSet<>(new Version<>(root, current.descending));
+    }
+
+    /**
+     * Apply a change to the tree and publish the result, retrying if another writer published
+     * first.
+     * @param change builds the new root from the current one, returning the same root if it
+     * changes nothing; it must have no side effects, as it may run more than once
+     * @return true if the set changed
+     */
+    private boolean update(UnaryOperator<Node<R>> change){
+        while(true){
+            Version<R> current = version.get();
+            Node<R> root = change.apply(current.root);
+            if(root == current.root){
+                return false;
+            }
+            if(version.compareAndSet(current, new Version<>(root, current.descending))){
+                return true;
+            }
+        }
+    }
+
+    /** Clear the set so that the are 0 elements. */
+    public void clear(){
+        update(root -> null);
+    }
+
+    /** Return true if this set is empty.
+     * @return boolean indicating if set is empty
+     */
+    public boolean isEmpty(){
+        return version.get().root == null;
+    }
+
+    /** Get the number of elements in this set, in constant time.
+     * @return size of set
+     */
+    public int size(){
+        return size(version.get().root);
+    }
+
+    /** Print each item in the set. */
+    public void printList(){
+        for(R data : this){
+            System.out.println(data);
+        }
+    }
+
+    /**
+     * Display this class as a String.
+     * @return elements of one version of the set in displayable format
+     */
+    public String toString(){
+        StringBuilder sb = new StringBuilder();
+        sb.append("<");
+        Iterator<R> it = iterator();
+        while(it.hasNext()){
+            sb.append(it.next().toString());
+            if(it.hasNext()){
+                sb.append(", ");
+            }
+        }
+        sb.append(">");
+        return sb.toString();
+    }
+
+    /**
+     * Get the item at the index position specified, counting from the front of the set in its
+     * current direction. Found by descending the tree using the subtree sizes, in O(log n).
+     * @param location index to retrieve an item from
+     * @return the item from a particular index
+     * @throws NoSuchElementException if location is outside of the set
+     */
+    public R get(int location)throws NoSuchElementException{
+        Version<R> current = version.get();
+        int count = size(current.root);
+        if(location < 0 || location >= count){
+            throw new NoSuchElementException();
+        }
+        int rank = current.descending ? count - 1 - location : location;
+        Node<R> node = current.root;
+        while(true){
+            int leftSize = size(node.left);
+            if(rank < leftSize){
+                node = node.left;
+            }
+            else if(rank == leftSize){
+                return node.data;
+            }
+            else{
+                rank -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Find the index of an element, counting from the front of the set in its current direction,
+     * in O(log n).
+     * @param element the element to look for
+     * @return the index of element, or -1 if it is not in the set
+     * @throws IllegalArgumentException if element is null
+     */
+    public int indexOf(Object element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        if(!(element instanceof Comparable)){
+            return -1;
+        }
+        Version<R> current = version.get();
+        try{
+            R key = (R) element;
+            int rank = 0;
+            Node<R> node = current.root;
+            while(node != null){
+                int cmp = key.compareTo(node.data);
+                if(cmp < 0){
+                    node = node.left;
+                }
+                else if(cmp > 0){
+                    rank += size(node.left) + 1;
+                    node = node.right;
+                }
+                else{
+                    rank += size(node.left);
+                    return current.descending ? size(current.root) - 1 - rank : rank;
+                }
+            }
+        }
+        catch(ClassCastException e){
+            return -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Search a tree for a key.
+     * @param root the root of the tree
+     * @param key the key to look for
+     * @return true if key is in the tree
+     * @throws ClassCastException if key cannot be compared with the elements
+     */
+    private static <R extends Comparable<R>> boolean find(Node<R> root, Object key){
+        Node<R> current = root;
+        while(current != null){
+            int cmp = ((R) key).compareTo(current.data);
+            if(cmp == 0){
+                return true;
+            }
+            current = (cmp < 0) ? current.left : current.right;
+        }
+        return false;
+    }
+
+    /**
+     * Add an item in order where it needs to go within the set.
+     * @param element the element to add
+     * @return boolean indicating if item was added
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean add(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        return update(root -> insert(root, element));
+    }
+
+    /**
+     * Add all items from another Collection to this set, publishing one new version. A large
+     * batch is sorted, merged with the elements already in the set and the tree is rebuilt
+     * perfectly balanced in O(n + m log m); a small batch is inserted one element at a time.
+     * @param collection whose data to add all elements from
+     * @return boolean indicating if the set changed
+     * @throws NullPointerException if collection is null
+     * @throws IllegalArgumentException if the collection contains null
+     */
+    public boolean addAll(Collection<? extends R> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        R[] batch = OrderedSupport.sortedDistinct(collection, false);
+        return update(root -> {
+            if(batch.length < size(root) / 4){
+                Node<R> result = root;
+                for(R data : batch){
+                    result = insert(result, data);
+                }
+                return result;
+            }
+            R[] merged = (R[]) new Comparable[size(root) + batch.length];
+            int count = 0;
+            int theirs = 0;
+            Iterator<R> mine = new TreeIterator(root, false);
+            while(mine.hasNext()){
+                R data = mine.next();
+                while(theirs < batch.length && batch[theirs].compareTo(data) < 0){
+                    merged[count++] = batch[theirs++];
+                }
+                if(theirs < batch.length && batch[theirs].compareTo(data) == 0){
+                    theirs++;
+                }
+                merged[count++] = data;
+            }
+            while(theirs < batch.length){
+                merged[count++] = batch[theirs++];
+            }
+            return count == size(root) ? root : build(merged, 0, count);
+        });
+    }
+
+    /**
+     * Determine if a specific object is in the set.
+     * @param element to check if contained within this set
+     * @return boolean indicating if element passed is contained within this set
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean contains(Object element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        if(!(element instanceof Comparable)){
+            return false;
+        }
+        try{
+            return find(version.get().root, element);
+        }
+        catch(ClassCastException e){
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if this set contains all of the elements of the specified Collection. Every
+     * element is looked for in the same version.
+     * @param collection to check if all its data is contained within ours
+     * @return boolean
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean containsAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        Node<R> root = version.get().root;
+        for(Object item : collection){
+            if(item == null || !(item instanceof Comparable)){
+                return false;
+            }
+            try{
+                if(!find(root, item)){
+                    return false;
+                }
+            }
+            catch(ClassCastException e){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     * @param item to remove from set
+     * @return boolean indicating if item was succesfully removed
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean remove(Comparable item)throws IllegalArgumentException{
+        if(!contains(item)){
+            return false;
+        }
+        return update(root -> delete(root, (R) item));
+    }
+
+    /**
+     * Removes from this set all of its elements that are contained in the specified Collection,
+     * publishing one new version.
+     * @param collection whose data to remove all from in this set
+     * @return boolean indicating if the set changed
+     * @throws NullPointerException if collection is null
+     */
+    public boolean removeAll(Collection<?> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        return update(root -> {
+            Node<R> result = root;
+            for(Object data : collection){
+                try{
+                    if(data instanceof Comparable && find(result, data)){
+                        result = delete(result, (R) data);
+                    }
+                }
+                catch(ClassCastException e){
+                    // not an element of this set
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the specified Collection. The
+     * kept elements are collected in order, a balanced tree is built from them and published as
+     * one new version.
+     * @param collection whose elements to retain
+     * @return boolean indicating if the set changed
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean retainAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        return update(root -> {
+            R[] kept = (R[]) new Comparable[size(root)];
+            int count = 0;
+            Iterator<R> it = new TreeIterator(root, false);
+            while(it.hasNext()){
+                R data = it.next();
+                if(collection.contains(data)){
+                    kept[count++] = data;
+                }
+            }
+            return count == kept.length ? root : build(kept, 0, count);
+        });
+    }
+
+    /**
+     * Compares the specified object with this set for equality. Returns true if the specified
+     * object is also a Collection, the two have the same size, and every member of the specified
+     * collection is contained in this set.
+     * @param other the specified object to be compared
+     * @return boolean indicating if items were equal or not
+     */
+    public boolean equals(Object other){
+        boolean result = false;
+        if(other instanceof Collection){
+            Collection<?> temp = (Collection<?>) other;
+            PersistentOrderedSet<R> frozen = snapshot();
+            result = frozen.size() == temp.size() && frozen.containsAll(temp);
+        }
+        return result;
+    }
+
+    /**
+     * Hash code consistent with equals, the sum of the hash codes of the elements.
+     * @return hash code of this set
+     */
+    public int hashCode(){
+        int hash = 0;
+        for(R data : this){
+            hash += data.hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * This function will return true if this set is descending and false if it is ascending.
+     * @return boolean indicating if set is descending or ascending
+     */
+    public boolean isReversed(){
+        return version.get().descending;
+    }
+
+    /**
+     * Reverse the order of the set. The tree stays ordered lowest to highest and is shared with
+     * the new version, so this runs in constant time.
+     */
+    public void reverse(){
+        while(true){
+            Version<R> current = version.get();
+            if(version.compareAndSet(current, new Version<>(current.root, !current.descending))){
+                return;
+            }
+        }
+    }
+
+    /**
+     * Return an iterator over the version of the set that is current now. Removing through the
+     * iterator removes from the set, not from the version being read.
+     * @return iterator over the set in its current order
+     */
+    public Iterator<R> iterator(){
+        Version<R> current = version.get();
+        return new TreeIterator(current.root, current.descending);
+    }
+
+    /**
+     * Build a perfectly balanced tree from part of a sorted array.
+     * @param sorted distinct elements lowest to highest
+     * @param from first slot to use
+     * @param to slot after the last slot to use
+     * @return the root of the tree, or null if the range is empty
+     */
+    private static <R extends Comparable<R>> Node<R> build(R[] sorted, int from, int to){
+        if(from >= to){
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        return new Node<>(sorted[mid], build(sorted, from, mid), build(sorted, mid + 1, to));
+    }
+
+    /**
+     * Insert a key into a tree, copying the path to it.
+     * @param node the root of the tree
+     * @param key the key to insert
+     * @return the root of the new tree, or node itself if key was already present
+     */
+    private static <R extends Comparable<R>> Node<R> insert(Node<R> node, R key){
+        if(node == null){
+            return new Node<>(key, null, null);
+        }
+        int cmp = key.compareTo(node.data);
+        if(cmp < 0){
+            Node<R> left = insert(node.left, key);
+            return (left == node.left) ? node : balance(node.data, left, node.right);
+        }
+        if(cmp > 0){
+            Node<R> right = insert(node.right, key);
+            return (right == node.right) ? node : balance(node.data, node.left, right);
+        }
+        return node;
+    }
+
+    /**
+     * Delete a key from a tree, copying the path to it.
+     * @param node the root of the tree
+     * @param key the key to delete
+     * @return the root of the new tree, or node itself if key was not present
+     */
+    private static <R extends Comparable<R>> Node<R> delete(Node<R> node, R key){
+        if(node == null){
+            return null;
+        }
+        int cmp = key.compareTo(node.data);
+        if(cmp < 0){
+            Node<R> left = delete(node.left, key);
+            return (left == node.left) ? node : balance(node.data, left, node.right);
+        }
+        if(cmp > 0){
+            Node<R> right = delete(node.right, key);
+            return (right == node.right) ? node : balance(node.data, node.left, right);
+        }
+        if(node.left == null){
+            return node.right;
+        }
+        if(node.right == null){
+            return node.left;
+        }
+        Node<R> successor = node.right;
+        while(successor.left != null){
+            successor = successor.left;
+        }
+        return balance(successor.data, node.left, deleteLowest(node.right));
+    }
+
+    /**
+     * Delete the lowest key of a non empty tree, copying the path to it.
+     * @param node the root of the tree
+     * @return the root of the new tree
+     */
+    private static <R extends Comparable<R>> Node<R> deleteLowest(Node<R> node){
+        if(node.left == null){
+            return node.right;
+        }
+        return balance(node.data, deleteLowest(node.left), node.right);
+    }
+
+    /**
+     * Get the size of a subtree.
+     * @param node the root of the subtree, or null
+     * @return the number of nodes in the subtree
+     */
+    private static int size(Node<?> node){
+        return (node == null) ? 0 : node.size;
+    }
+
+    /**
+     * Get the height of a subtree.
+     * @param node the root of the subtree, or null
+     * @return the height of the subtree, 0 when empty
+     */
+    private static int height(Node<?> node){
+        return (node == null) ? 0 : node.height;
+    }
+
+    /**
+     * Build a node over two balanced subtrees whose heights differ by at most two, rotating
+     * into new nodes where needed to restore the AVL balance.
+     * @param data the data of the node
+     * @param left the subtree of lower elements
+     * @param right the subtree of higher elements
+     * @return the root of the balanced subtree
+     */
+    private static <R extends Comparable<R>> Node<R> balance(R data, Node<R> left, Node<R> right){
+        int balance = height(left) - height(right);
+        if(balance > 1){
+            if(height(left.left) >= height(left.right)){
+                return new Node<>(left.data, left.left, new Node<>(data, left.right, right));
+            }
+            Node<R> pivot = left.right;
+            return new Node<>(pivot.data, new Node<>(left.data, left.left, pivot.left),
+                    new Node<>(data, pivot.right, right));
+        }
+        if(balance < -1){
+            if(height(right.right) >= height(right.left)){
+                return new Node<>(right.data, new Node<>(data, left, right.left), right.right);
+            }
+            Node<R> pivot = right.left;
+            return new Node<>(pivot.data, new Node<>(data, left, pivot.left),
+                    new Node<>(right.data, pivot.right, right.right));
+        }
+        return new Node<>(data, left, right);
+    }
+
+    /**
+     * An in-order iterator over one version of the tree that keeps the path to the next node on a
+     * stack.
+     */
+    private class TreeIterator implements Iterator<R>{
+
+        /** The nodes still to be returned, with the next one on top */
+        private final ArrayDeque<Node<R>> path;
+        /** true to walk from highest to lowest */
+        private final boolean backward;
+        /** The last element returned by next, for remove */
+        private R last;
+
+        /**
+         * Creates a TreeIterator.
+         * @param root the root of the version to walk
+         * @param backward true to walk from highest to lowest
+         */
+        private TreeIterator(Node<R> root, boolean backward){
+            this.path = new ArrayDeque<>();
+            this.backward = backward;
+            this.last = null;
+            descend(root);
+        }
+
+        /**
+         * Push a node and its chain of children towards the next element.
+         * @param node the node to start from
+         */
+        private void descend(Node<R> node){
+            while(node != null){
+                path.push(node);
+                node = backward ? node.right : node.left;
+            }
+        }
+
+        /** Is there another element to access in this tree?
+         * @return true if there is another element
+         */
+        public boolean hasNext(){
+            return !path.isEmpty();
+        }
+
+        /** Get the next element in the tree if one exists.
+         * @return the next element
+         * @throws NoSuchElementException if the iteration is over
+         */
+        public R next(){
+            if(path.isEmpty()){
+                throw new NoSuchElementException();
+            }
+            Node<R> node = path.pop();
+            descend(backward ? node.left : node.right);
+            last = node.data;
+            return node.data;
+        }
+
+        /** Remove the last element returned by next from the set.
+         * @throws IllegalStateException if next has not been called since the last remove
+         */
+        public void remove(){
+            if(last == null){
+                throw new IllegalStateException();
+            }
+            PersistentOrderedSet.this.remove(last);
+            last = null;
+        }
+    }
+
+    /**
+     * One published version of the set: a tree and the direction it is read in.
+     */
+    private static final class Version<R extends Comparable<R>>{
+        /** The root of the tree, or null when empty */
+        private final Node<R> root;
+        /** true if the set is read highest to lowest */
+        private final boolean descending;
+
+        /**
+         * Create a version.
+         * @param root the root of the tree
+         * @param descending true if the set is read highest to lowest
+         */
+        private Version(Node<R> root, boolean descending){
+            this.root = root;
+            this.descending = descending;
+        }
+    }
+
+    /**
+     * An immutable node of the tree that records the height and size of the subtree below it.
+     */
+    private static final class Node<R extends Comparable<R>>{
+        /** The data contained within the node */
+        private final R data;
+        /** The subtree of lower elements */
+        private final Node<R> left;
+        /** The subtree of higher elements */
+        private final Node<R> right;
+        /** The height of this subtree */
+        private final int height;
+        /** The number of nodes in this subtree */
+        private final int size;
+
+        /**
+         * Constructs a node over two subtrees.
+         * @param item data within node
+         * @param left the subtree of lower elements, or null
+         * @param right the subtree of higher elements, or null
+         */
+        private Node(R item, Node<R> left, Node<R> right){
+            this.data = item;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package orderedSet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * This is a thread safe implementation of an OrderedInterface for workloads that read far more
+ * often than they write. The elements are kept in a sorted array that is never changed once it
+ * has been published: every write builds a new array under a lock and publishes it with a single
+ * volatile write, so readers never lock, never wait and never see a half finished change.
+ * contains, get, size and iteration read whichever array was current when they started, and
+ * scale with the number of reading threads.
+ * <br>
+ * Every write copies the array, so a single add or remove costs O(n). Changes that come in
+ * groups should go through addAll, removeAll, retainAll or batch, which copy once for the whole
+ * group. Adding an element that is already present is detected without taking the lock.
+ * <br>
+ * Iterators, spliterators, toString, equals and the bulk reads work on a snapshot: they see
+ * exactly the elements and direction that were current when they started and never throw
+ * ConcurrentModificationException. Iterators do not support remove.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public class ReadMostlyOrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
+
+    /** The published elements and direction */
+    private volatile State<R> state;
+    /** Held by writers while they build and publish a new state */
+    private final Object writeLock;
+
+    /** Create an empty ascending ReadMostlyOrderedSet */
+    public ReadMostlyOrderedSet(){
+        this(false);
+    }
+
+    /**
+     * Creates an empty set.
+     * @param descending if set is to be descending
+     */
+    public ReadMostlyOrderedSet(boolean descending){
+        this.state = new State<>((R[]) new Comparable[0], descending);
+        this.writeLock = new Object();
+    }
+
+    /**
+     * Create a ReadMostlyOrderedSet based on the values from any Collection.
+     * @param collection collection whose data to be added to this set
+     * @param descending if set is to be descending
+     * @throws IllegalArgumentException if collection is null or contains null
+     */
+    public ReadMostlyOrderedSet(Collection<R> collection, boolean descending)throws IllegalArgumentException{
+        this(descending);
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        this.state = new State<>(OrderedSupport.sortedDistinct(collection, false), descending);
+    }
+
+    /**
+     * Binary search a published array.
+     * @param elements distinct elements lowest to highest
+     * @param key the element to look for
+     * @return the slot of key, or -(insertion point) - 1 if it is not present
+     */
+    private static int search(Object[] elements, Object key){
+        return Arrays.binarySearch(elements, key);
+    }
+
+    /**
+     * Adds the specified element to this set if it is not already present.
+     * @param element element to be added to this set
+     * @return true if the set did not already contain the element
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean add(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        if(search(state.elements, element) >= 0){
+            return false;
+        }
+        synchronized(writeLock){
+            State<R> current = state;
+            int index = search(current.elements, element);
+            if(index >= 0){
+                return false;
+            }
+            index = -(index + 1);
+            R[] grown = (R[]) new Comparable[current.elements.length + 1];
+            System.arraycopy(current.elements, 0, grown, 0, index);
+            grown[index] = element;
+            System.arraycopy(current.elements, index, grown, index + 1, current.elements.length - index);
+            state = new State<>(grown, current.descending);
+            return true;
+        }
+    }
+
+    /**
+     * Adds every element of a collection with a single copy of the array.
+     * @param collection elements to be added
+     * @return true if the set changed
+     * @throws NullPointerException if collection is null
+     * @throws IllegalArgumentException if the collection contains null
+     */
+    public boolean addAll(Collection<? extends R> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        R[] batch = OrderedSupport.sortedDistinct(collection, false);
+        if(batch.length == 0){
+            return false;
+        }
+        synchronized(writeLock){
+            State<R> current = state;
+            R[] mine = current.elements;
+            R[] merged = (R[]) new Comparable[mine.length + batch.length];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while(i < mine.length || j < batch.length){
+                int cmp = (i == mine.length) ? 1 : (j == batch.length) ? -1 : mine[i].compareTo(batch[j]);
+                if(cmp < 0){
+                    merged[count++] = mine[i++];
+                }
+                else if(cmp > 0){
+                    merged[count++] = batch[j++];
+                }
+                else{
+                    merged[count++] = mine[i++];
+                    j++;
+                }
+            }
+            if(count == mine.length){
+                return false;
+            }
+            state = new State<>(count == merged.length ? merged : Arrays.copyOf(merged, count), current.descending);
+            return true;
+        }
+    }
+
+    /**
+     * Applies a group of changes with a single copy of the array. The changes are made to a
+     * private OrderedSet holding the current elements in the current direction, and its contents
+     * and direction are published when changes returns. Readers see either none of the changes
+     * or all of them. Other writers wait until the batch is finished.
+     * @param changes the changes to make
+     * @throws IllegalArgumentException if changes is null
+     */
+    public void batch(Consumer<? super OrderedSet<R>> changes)throws IllegalArgumentException{
+        if(changes == null){
+            throw new IllegalArgumentException();
+        }
+        synchronized(writeLock){
+            OrderedSet<R> working = toOrderedSet();
+            changes.accept(working);
+            R[] result = (R[]) new Comparable[working.size()];
+            int index = working.isReversed() ? result.length - 1 : 0;
+            for(R element : working){
+                result[index] = element;
+                index += working.isReversed() ? -1 : 1;
+            }
+            state = new State<>(result, working.isReversed());
+        }
+    }
+
+    /** Removes all of the elements from this set. */
+    public void clear(){
+        synchronized(writeLock){
+            state = new State<>((R[]) new Comparable[0], state.descending);
+        }
+    }
+
+    /**
+     * Returns true if this set contains the specified element, without locking.
+     * @param item object to be checked for containment in this set
+     * @return true if this set contains the specified element
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean contains(Object item)throws IllegalArgumentException{
+        if(item == null){
+            throw new IllegalArgumentException();
+        }
+        if(!(item instanceof Comparable)){
+            return false;
+        }
+        try{
+            return search(state.elements, item) >= 0;
+        }
+        catch(ClassCastException e){
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if this set contains all of the elements of the specified collection. The
+     * check is made against a single snapshot.
+     * @param collection collection to be checked for containment in this set
+     * @return true if this set contains all of the elements of the specified collection
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean containsAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        State<R> current = state;
+        if(collection instanceof OrderedInterface){
+            return OrderedSupport.containsAllSorted(new SnapshotIterator(current), (OrderedInterface<?>) collection,
+                    current.descending);
+        }
+        for(Object item : collection){
+            if(item == null || !(item instanceof Comparable)){
+                return false;
+            }
+            try{
+                if(search(current.elements, item) < 0){
+                    return false;
+                }
+            }
+            catch(ClassCastException e){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if this set contains no elements.
+     * @return true if this set contains no elements
+     */
+    public boolean isEmpty(){
+        return state.elements.length == 0;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     * @param item object to be removed from this set, if present
+     * @return true if this set contained the specified element
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean remove(Comparable item)throws IllegalArgumentException{
+        if(!contains(item)){
+            return false;
+        }
+        synchronized(writeLock){
+            State<R> current = state;
+            int index = search(current.elements, item);
+            if(index < 0){
+                return false;
+            }
+            R[] shrunk = (R[]) new Comparable[current.elements.length - 1];
+            System.arraycopy(current.elements, 0, shrunk, 0, index);
+            System.arraycopy(current.elements, index + 1, shrunk, index, shrunk.length - index);
+            state = new State<>(shrunk, current.descending);
+            return true;
+        }
+    }
+
+    /**
+     * Removes from this set all of its elements that are contained in the specified collection,
+     * with a single copy of the array.
+     * @param collection collection containing elements to be removed from this set
+     * @return true if this set changed as a result of the call
+     * @throws NullPointerException if collection is null
+     */
+    public boolean removeAll(Collection<?> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        return filter(collection, false);
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the specified collection,
+     * with a single copy of the array.
+     * @param collection collection containing elements to be retained in this set
+     * @return true if this set changed as a result of the call
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean retainAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        return filter(collection, true);
+    }
+
+    /**
+     * Publish the elements whose membership in a collection matches retain.
+     * @param collection the collection to test membership in
+     * @param retain true to keep the elements found in collection, false to remove them
+     * @return true if the set changed
+     */
+    private boolean filter(Collection<?> collection, boolean retain){
+        synchronized(writeLock){
+            State<R> current = state;
+            R[] kept = (R[]) new Comparable[current.elements.length];
+            int count = 0;
+            for(R element : current.elements){
+                if(collection.contains(element) == retain){
+                    kept[count++] = element;
+                }
+            }
+            if(count == kept.length){
+                return false;
+            }
+            state = new State<>(Arrays.copyOf(kept, count), current.descending);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the number of elements in this set, in constant time.
+     * @return the number of elements in this set
+     */
+    public int size(){
+        return state.elements.length;
+    }
+
+    /**
+     * Get the item at the index position specified, counting from the front of the set in its
+     * current direction, without locking.
+     * @param location index to retrieve an item from
+     * @return the item from a particular index
+     * @throws NoSuchElementException if location is outside of the set
+     */
+    public R get(int location)throws NoSuchElementException{
+        State<R> current = state;
+        int count = current.elements.length;
+        if(location < 0 || location >= count){
+            throw new NoSuchElementException();
+        }
+        return current.elements[current.descending ? count - 1 - location : location];
+    }
+
+    /**
+     * Copies the current elements into a new, unshared OrderedSet with the same direction.
+     * @return the copy
+     */
+    public OrderedSet<R> toOrderedSet(){
+        State<R> current = state;
+        R[] copy = Arrays.copyOf(current.elements, Math.max(OrderedSet.DEFAULT_CAPACITY, current.elements.length));
+        return new OrderedSet<>(copy, current.elements.length, current.descending);
+    }
+
+    /** Print each item in the set. */
+    public void printList(){
+        for(R data : this){
+            System.out.println(data);
+        }
+    }
+
+    /**
+     * Display this class as a String.
+     * @return elements of one snapshot of the set in displayable format
+     */
+    public String toString(){
+        StringBuilder sb = new StringBuilder();
+        sb.append("<");
+        Iterator<R> it = iterator();
+        while(it.hasNext()){
+            sb.append(it.next().toString());
+            if(it.hasNext()){
+                sb.append(", ");
+            }
+        }
+        sb.append(">");
+        return sb.toString();
+    }
+
+    /**
+     * Compares the specified object with this set for equality. Returns true if the specified
+     * object is also a Collection, the two have the same size, and every member of the specified
+     * collection is contained in this set.
+     * @param other the specified object to be compared
+     * @return boolean indicating if items were equal or not
+     */
+    public boolean equals(Object other){
+        boolean result = false;
+        if(other instanceof Collection){
+            Collection<?> temp = (Collection<?>) other;
+            State<R> current = state;
+            result = current.elements.length == temp.size() && containsAll(temp);
+        }
+        return result;
+    }
+
+    /**
+     * Hash code consistent with equals, the sum of the hash codes of the elements.
+     * @return hash code of this set
+     */
+    public int hashCode(){
+        int hash = 0;
+        for(R data : state.elements){
+            hash += data.hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * This function will return true if this set is descending and false if it is ascending.
+     * @return boolean indicating if set is descending or ascending
+     */
+    public boolean isReversed(){
+        return state.descending;
+    }
+
+    /**
+     * Reverse the order of the set. The new state shares the array of the old one, so this takes
+     * constant time.
+     */
+    public void reverse(){
+        synchronized(writeLock){
+            State<R> current = state;
+            state = new State<>(current.elements, !current.descending);
+        }
+    }
+
+    /**
+     * Return an iterator over one snapshot of the set.
+     * @return iterator over the set in the order it had when the iterator was created
+     */
+    public Iterator<R> iterator(){
+        return new SnapshotIterator(state);
+    }
+
+    /**
+     * Provides a Spliterator over one snapshot of the set. It splits in constant time and
+     * reports SORTED, DISTINCT, SIZED, SUBSIZED, ORDERED and NONNULL.
+     * @return a spliterator over the set in the order it had when it was created
+     */
+    public Spliterator<R> spliterator(){
+        State<R> current = state;
+        return new OrderedSpliterator<>(current.elements, 0, current.elements.length, current.descending,
+                current.descending);
+    }
+
+    /**
+     * An iterator over a published array in the direction published with it.
+     */
+    private class SnapshotIterator implements Iterator<R>{
+
+        /** The state being read */
+        private final State<R> snapshot;
+        /** The number of elements returned so far */
+        private int index;
+
+        /**
+         * Creates a SnapshotIterator.
+         * @param snapshot the state to read
+         */
+        private SnapshotIterator(State<R> snapshot){
+            this.snapshot = snapshot;
+            this.index = 0;
+        }
+
+        /** Is there another element in the snapshot?
+         * @return true if there is another element
+         */
+        public boolean hasNext(){
+            return index < snapshot.elements.length;
+        }
+
+        /** Get the next element of the snapshot.
+         * @return the next element
+         * @throws NoSuchElementException if the iteration is over
+         */
+        public R next(){
+            int count = snapshot.elements.length;
+            if(index >= count){
+                throw new NoSuchElementException();
+            }
+            R data = snapshot.elements[snapshot.descending ? count - 1 - index : index];
+            index++;
+            return data;
+        }
+    }
+
+    /**
+     * One published version of the set. Neither the array nor the direction ever change.
+     */
+    private static final class State<R>{
+        /** The elements, lowest to highest, exactly filling the array */
+        private final R[] elements;
+        /** true if the set is read highest to lowest */
+        private final boolean descending;
+
+        /**
+         * Create a state.
+         * @param elements the elements, lowest to highest
+         * @param descending true if the set is read highest to lowest
+         */
+        private State(R[] elements, boolean descending){
+            this.elements = elements;
+            this.descending = descending;
+        }
+    }
+}
@@ -0,0 +1,844 @@
+package orderedSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * This is a thread safe implementation of an OrderedInterface built for many threads adding at
+ * once. The key space is cut into ranges by a sorted array of split points, and each range is
+ * held by its own OrderedSet shard with its own lock, so threads working on different ranges
+ * never wait for one another. Reading the set in order reads the shards one after another.
+ * <br>
+ * A new set has a single shard. Once a shard holds more than twice its share of the elements
+ * (and at least MIN_REBALANCE_SIZE of them) the split points are moved to the quantiles of the
+ * current contents and the elements are redistributed, so skewed or sorted input is spread back
+ * out over up to the requested number of shards. rebalance(sample) places the split points up
+ * front from a sample of the expected keys, which avoids the early rebalances during a bulk
+ * load. Single element operations lock one shard; rebalance, clear and reverse lock the whole
+ * set.
+ * <br>
+ * addAll, removeAll and retainAll split their work by shard and, for sets or batches of at least
+ * PARALLEL_THRESHOLD elements, run the shards in parallel on the common fork join pool. The
+ * collection passed to removeAll or retainAll is first copied into a HashSet on the calling
+ * thread, so membership is decided by equals and hashCode, and the collection may be this set.
+ * <br>
+ * Iterators are <i>weakly consistent</i>: they never throw ConcurrentModificationException, they
+ * return every element that was present for the whole iteration exactly once, in order, and they
+ * may or may not return elements added or removed while they run. The same is true of toString,
+ * printList, equals and containsAll. size is updated together with the shard, before the set
+ * can be rebalanced or cleared, so it always settles on the true count. get locks every shard to
+ * see one consistent set.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public class ShardedOrderedSet<R extends Comparable<R>> implements OrderedInterface<R>{
+
+    /** The number of shards used when none is given */
+    public static final int DEFAULT_SHARDS = 32;
+    /** The fewest elements a shard must hold before it can trigger a rebalance */
+    public static final int MIN_REBALANCE_SIZE = 1024;
+    /** The smallest batch or set for which bulk operations run shards in parallel */
+    public static final int PARALLEL_THRESHOLD = 4096;
+    /** How many times its share of the elements a shard may hold before the set rebalances */
+    private static final int SKEW = 2;
+
+    /** The most shards the set will split into */
+    private final int shardCount;
+    /** The lowest element of every shard but the first, lowest to highest */
+    private R[] bounds;
+    /** The shards, lowest range first; always one more than there are bounds */
+    private Shard<R>[] shards;
+    /** Shared by every operation, held exclusively while bounds or shards are replaced */
+    private final ReentrantReadWriteLock structure;
+    /** Number of elements in all shards */
+    private final AtomicInteger numElements;
+    /** true while a thread is waiting to rebalance, so that others do not queue behind it */
+    private final AtomicBoolean rebalancing;
+    /** boolean representing whether the set is currently read highest to lowest */
+    private volatile boolean descending;
+
+    /** Create an empty ascending ShardedOrderedSet of up to DEFAULT_SHARDS shards */
+    public ShardedOrderedSet(){
+        this(DEFAULT_SHARDS, false);
+    }
+
+    /**
+     * Creates an empty set.
+     * @param shardCount the most shards to split the set into
+     * @param descending if set is to be descending
+     * @throws IllegalArgumentException if shardCount is less than 1
+     */
+    public ShardedOrderedSet(int shardCount, boolean descending)throws IllegalArgumentException{
+        if(shardCount < 1){
+            throw new IllegalArgumentException();
+        }
+        this.shardCount = shardCount;
+        this.bounds = (R[]) new Comparable[0];
+        this.shards = new Shard[]{new Shard<R>(new OrderedSet<R>())};
+        this.structure = new ReentrantReadWriteLock();
+        this.numElements = new AtomicInteger();
+        this.rebalancing = new AtomicBoolean();
+        this.descending = descending;
+    }
+
+    /**
+     * Create a ShardedOrderedSet based on the values from any Collection, already split into
+     * shards of equal size.
+     * @param collection collection whose data to be added to this set
+     * @param descending if set is to be descending
+     * @throws IllegalArgumentException if collection is null or contains null
+     */
+    public ShardedOrderedSet(Collection<R> collection, boolean descending)throws IllegalArgumentException{
+        this(DEFAULT_SHARDS, descending);
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        R[] sorted = OrderedSupport.sortedDistinct(collection, false);
+        redistribute(sorted, sorted.length, quantiles(sorted, sorted.length));
+    }
+
+    /**
+     * Find the shard whose range holds a key.
+     * @param current the bounds to search
+     * @param key the key
+     * @return the index of the shard
+     * @throws ClassCastException if key cannot be compared with the bounds
+     */
+    private static int shardOf(Object[] current, Object key){
+        int index = Arrays.binarySearch(current, key);
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
+    /**
+     * Pick split points that cut a sorted array into equal pieces, one per shard.
+     * @param sorted distinct elements lowest to highest
+     * @param count the number of elements at the front of sorted
+     * @return the split points, lowest to highest
+     */
+    private R[] quantiles(R[] sorted, int count){
+        int pieces = Math.max(1, Math.min(shardCount, count));
+        R[] points = (R[]) new Comparable[pieces - 1];
+        for(int i = 1; i < pieces; i++){
+            points[i - 1] = sorted[(int) ((long) i * count / pieces)];
+        }
+        return points;
+    }
+
+    /**
+     * Copy every element, lowest to highest, into one array. The caller must hold the structure
+     * write lock.
+     * @return the elements, exactly filling the array
+     */
+    private R[] gather(){
+        R[] all = (R[]) new Comparable[numElements.get()];
+        int count = 0;
+        for(Shard<R> shard : shards){
+            for(R element : shard.set){
+                if(count == all.length){
+                    all = Arrays.copyOf(all, Math.max(1, count * 2));
+                }
+                all[count++] = element;
+            }
+        }
+        return count == all.length ? all : Arrays.copyOf(all, count);
+    }
+
+    /**
+     * Replace the shards with new ones cut at the given split points. The caller must hold the
+     * structure write lock, or be the constructor.
+     * @param sorted every element of the set, lowest to highest
+     * @param count the number of elements at the front of sorted
+     * @param points the new split points, lowest to highest
+     */
+    private void redistribute(R[] sorted, int count, R[] points){
+        Shard<R>[] rebuilt = new Shard[points.length + 1];
+        int start = 0;
+        for(int i = 0; i < rebuilt.length; i++){
+            int end = count;
+            if(i < points.length){
+                end = Arrays.binarySearch(sorted, start, count, points[i]);
+                end = end >= 0 ? end : -(end + 1);
+            }
+            R[] slice = (R[]) new Comparable[Math.max(OrderedSet.DEFAULT_CAPACITY, end - start)];
+            System.arraycopy(sorted, start, slice, 0, end - start);
+            rebuilt[i] = new Shard<>(new OrderedSet<>(slice, end - start, false));
+            start = end;
+        }
+        bounds = points;
+        shards = rebuilt;
+        numElements.set(count);
+    }
+
+    /**
+     * Move the split points to the quantiles of the current contents and redistribute the
+     * elements, so that every shard holds an equal share.
+     */
+    public void rebalance(){
+        structure.writeLock().lock();
+        try{
+            R[] all = gather();
+            redistribute(all, all.length, quantiles(all, all.length));
+        }
+        finally{
+            structure.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Move the split points to the quantiles of a sample of keys and redistribute the elements.
+     * A representative sample given before a bulk load spreads the load over every shard from
+     * the start.
+     * @param sample keys drawn from the expected distribution
+     * @throws IllegalArgumentException if sample is null or contains null
+     */
+    public void rebalance(Collection<? extends R> sample)throws IllegalArgumentException{
+        if(sample == null){
+            throw new IllegalArgumentException();
+        }
+        R[] points = OrderedSupport.sortedDistinct(sample, false);
+        points = quantiles(points, points.length);
+        structure.writeLock().lock();
+        try{
+            R[] all = gather();
+            redistribute(all, all.length, points);
+        }
+        finally{
+            structure.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Does a shard of this size hold too large a share of the set?
+     * @param shardSize the number of elements in the shard
+     * @param total the number of elements in the set
+     * @return true if the set should rebalance
+     */
+    private boolean skewed(int shardSize, int total){
+        return shardCount > 1 && shardSize >= MIN_REBALANCE_SIZE && (long) shardSize * shardCount > (long) SKEW * total;
+    }
+
+    /**
+     * Rebalance if some shard is still skewed once the set is locked. Only one thread waits to
+     * rebalance at a time; the others carry on.
+     */
+    private void rebalanceIfSkewed(){
+        if(!rebalancing.compareAndSet(false, true)){
+            return;
+        }
+        try{
+            structure.writeLock().lock();
+            try{
+                for(Shard<R> shard : shards){
+                    if(skewed(shard.set.size(), numElements.get())){
+                        R[] all = gather();
+                        redistribute(all, all.length, quantiles(all, all.length));
+                        return;
+                    }
+                }
+            }
+            finally{
+                structure.writeLock().unlock();
+            }
+        }
+        finally{
+            rebalancing.set(false);
+        }
+    }
+
+    /**
+     * The number of elements in each shard, lowest range first, for watching how evenly the
+     * set is spread.
+     * @return the shard sizes
+     */
+    public int[] shardSizes(){
+        structure.readLock().lock();
+        try{
+            int[] sizes = new int[shards.length];
+            for(int i = 0; i < sizes.length; i++){
+                Shard<R> shard = shards[i];
+                shard.lock.lock();
+                try{
+                    sizes[i] = shard.set.size();
+                }
+                finally{
+                    shard.lock.unlock();
+                }
+            }
+            return sizes;
+        }
+        finally{
+            structure.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the specified element to this set if it is not already present, locking only the
+     * shard whose range holds it.
+     * @param element element to be added to this set
+     * @return true if the set did not already contain the element
+     * @throws IllegalArgumentException if element is null
+     */
+    public boolean add(R element)throws IllegalArgumentException{
+        if(element == null){
+            throw new IllegalArgumentException();
+        }
+        boolean added;
+        int shardSize;
+        int total;
+        structure.readLock().lock();
+        try{
+            Shard<R> shard = shards[shardOf(bounds, element)];
+            shard.lock.lock();
+            try{
+                added = shard.set.add(element);
+                shardSize = shard.set.size();
+            }
+            finally{
+                shard.lock.unlock();
+            }
+            total = added ? numElements.incrementAndGet() : numElements.get();
+        }
+        finally{
+            structure.readLock().unlock();
+        }
+        if(added && skewed(shardSize, total)){
+            rebalanceIfSkewed();
+        }
+        return added;
+    }
+
+    /**
+     * Adds every element of a collection. The batch is sorted once, cut at the split points and
+     * merged into each shard, in parallel when it is large.
+     * @param collection elements to be added
+     * @return true if the set changed
+     * @throws NullPointerException if collection is null
+     * @throws IllegalArgumentException if the collection contains null
+     */
+    public boolean addAll(Collection<? extends R> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        R[] batch = OrderedSupport.sortedDistinct(collection, false);
+        if(batch.length == 0){
+            return false;
+        }
+        List<R> sorted = Arrays.asList(batch);
+        int[] sizes;
+        int added;
+        int total;
+        structure.readLock().lock();
+        try{
+            int[] starts = new int[shards.length + 1];
+            for(int i = 0; i < bounds.length; i++){
+                int start = Arrays.binarySearch(batch, starts[i], batch.length, bounds[i]);
+                starts[i + 1] = start >= 0 ? start : -(start + 1);
+            }
+            starts[shards.length] = batch.length;
+            sizes = new int[shards.length];
+            added = forEachShard(batch.length, i -> {
+                if(starts[i] == starts[i + 1]){
+                    return 0;
+                }
+                Shard<R> shard = shards[i];
+                shard.lock.lock();
+                try{
+                    int before = shard.set.size();
+                    shard.set.addAll(sorted.subList(starts[i], starts[i + 1]));
+                    sizes[i] = shard.set.size();
+                    return sizes[i] - before;
+                }
+                finally{
+                    shard.lock.unlock();
+                }
+            });
+            total = numElements.addAndGet(added);
+        }
+        finally{
+            structure.readLock().unlock();
+        }
+        if(added == 0){
+            return false;
+        }
+        for(int size : sizes){
+            if(skewed(size, total)){
+                rebalanceIfSkewed();
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Run a task for every shard, in parallel if work is at least PARALLEL_THRESHOLD. The caller
+     * must hold the structure read lock, which the tasks share.
+     * @param work the number of elements involved
+     * @param task takes a shard index and returns the change it made to the number of elements
+     * @return the sum of the changes
+     */
+    private int forEachShard(int work, IntUnaryOperator task){
+        IntStream indexes = IntStream.range(0, shards.length);
+        if(work >= PARALLEL_THRESHOLD && shards.length > 1){
+            indexes = indexes.parallel();
+        }
+        return indexes.map(task).sum();
+    }
+
+    /** Removes all of the elements from this set, keeping the split points. */
+    public void clear(){
+        structure.writeLock().lock();
+        try{
+            for(Shard<R> shard : shards){
+                shard.set.clear();
+            }
+            numElements.set(0);
+        }
+        finally{
+            structure.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns true if this set contains the specified element, locking only the shard whose
+     * range would hold it.
+     * @param item object to be checked for containment in this set
+     * @return true if this set contains the specified element
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean contains(Object item)throws IllegalArgumentException{
+        if(item == null){
+            throw new IllegalArgumentException();
+        }
+        if(!(item instanceof Comparable)){
+            return false;
+        }
+        structure.readLock().lock();
+        try{
+            Shard<R> shard = shards[shardOf(bounds, item)];
+            shard.lock.lock();
+            try{
+                return shard.set.contains(item);
+            }
+            finally{
+                shard.lock.unlock();
+            }
+        }
+        catch(ClassCastException e){
+            return false;
+        }
+        finally{
+            structure.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns true if this set contains all of the elements of the specified collection.
+     * @param collection collection to be checked for containment in this set
+     * @return true if this set contains all of the elements of the specified collection
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean containsAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        for(Object item : collection){
+            if(item == null || !contains(item)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if this set contains no elements.
+     * @return true if this set contains no elements
+     */
+    public boolean isEmpty(){
+        return numElements.get() == 0;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present, locking only the shard whose
+     * range would hold it.
+     * @param item object to be removed from this set, if present
+     * @return true if this set contained the specified element
+     * @throws IllegalArgumentException if item is null
+     */
+    public boolean remove(Comparable item)throws IllegalArgumentException{
+        if(item == null){
+            throw new IllegalArgumentException();
+        }
+        boolean removed;
+        structure.readLock().lock();
+        try{
+            Shard<R> shard = shards[shardOf(bounds, item)];
+            shard.lock.lock();
+            try{
+                removed = shard.set.remove(item);
+            }
+            finally{
+                shard.lock.unlock();
+            }
+            if(removed){
+                numElements.decrementAndGet();
+            }
+        }
+        catch(ClassCastException e){
+            return false;
+        }
+        finally{
+            structure.readLock().unlock();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes from this set all of its elements that are contained in the specified collection,
+     * filtering the shards in parallel when the set is large.
+     * @param collection collection containing elements to be removed from this set
+     * @return true if this set changed as a result of the call
+     * @throws NullPointerException if collection is null
+     */
+    public boolean removeAll(Collection<?> collection)throws NullPointerException{
+        if(collection == null){
+            throw new NullPointerException();
+        }
+        return filter(collection, false);
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the specified collection,
+     * filtering the shards in parallel when the set is large.
+     * @param collection collection containing elements to be retained in this set
+     * @return true if this set changed as a result of the call
+     * @throws IllegalArgumentException if collection is null
+     */
+    public boolean retainAll(Collection<?> collection)throws IllegalArgumentException{
+        if(collection == null){
+            throw new IllegalArgumentException();
+        }
+        return filter(collection, true);
+    }
+
+    /**
+     * Keep the elements of every shard whose membership in a collection matches retain. The
+     * collection is copied on the calling thread before any lock is taken, so the shard tasks
+     * never call into it; a collection that reads this set, or this set itself, cannot deadlock
+     * against a writer waiting for the structure lock.
+     * @param collection the collection to test membership in
+     * @param retain true to keep the elements found in collection, false to remove them
+     * @return true if the set changed
+     */
+    private boolean filter(Collection<?> collection, boolean retain){
+        Set<Object> members = new HashSet<>();
+        for(Object item : collection){
+            members.add(item);
+        }
+        int removed;
+        structure.readLock().lock();
+        try{
+            removed = forEachShard(numElements.get(), i -> {
+                Shard<R> shard = shards[i];
+                shard.lock.lock();
+                try{
+                    int before = shard.set.size();
+                    if(retain){
+                        shard.set.retainAll(members);
+                    }
+                    else{
+                        shard.set.removeAll(members);
+                    }
+                    return before - shard.set.size();
+                }
+                finally{
+                    shard.lock.unlock();
+                }
+            });
+            numElements.addAndGet(-removed);
+        }
+        finally{
+            structure.readLock().unlock();
+        }
+        return removed > 0;
+    }
+
+    /**
+     * Returns the number of elements in this set, in constant time.
+     * @return the number of elements in this set
+     */
+    public int size(){
+        return numElements.get();
+    }
+
+    /**
+     * Get the item at the index position specified, counting from the front of the set in its
+     * current direction. Every shard is locked while the shard holding the index is found.
+     * @param location index to retrieve an item from
+     * @return the item from a particular index
+     * @throws NoSuchElementException if location is outside of the set
+     */
+    public R get(int location)throws NoSuchElementException{
+        structure.readLock().lock();
+        Shard<R>[] current = shards;
+        for(Shard<R> shard : current){
+            shard.lock.lock();
+        }
+        try{
+            int total = 0;
+            for(Shard<R> shard : current){
+                total += shard.set.size();
+            }
+            if(location < 0 || location >= total){
+                throw new NoSuchElementException();
+            }
+            int index = descending ? total - 1 - location : location;
+            for(Shard<R> shard : current){
+                if(index < shard.set.size()){
+                    return shard.set.get(index);
+                }
+                index -= shard.set.size();
+            }
+            throw new NoSuchElementException();
+        }
+        finally{
+            for(Shard<R> shard : current){
+                shard.lock.unlock();
+            }
+            structure.readLock().unlock();
+        }
+    }
+
+    /** Print each item in the set. */
+    public void printList(){
+        for(R data : this){
+            System.out.println(data);
+        }
+    }
+
+    /**
+     * Display this class as a String.
+     * @return elements of the set in displayable format
+     */
+    public String toString(){
+        StringBuilder sb = new StringBuilder();
+        sb.append("<");
+        Iterator<R> it = iterator();
+        while(it.hasNext()){
+            sb.append(it.next().toString());
+            if(it.hasNext()){
+                sb.append(", ");
+            }
+        }
+        sb.append(">");
+        return sb.toString();
+    }
+
+    /**
+     * Compares the specified object with this set for equality. Returns true if the specified
+     * object is also a Collection, the two have the same size, and every member of the specified
+     * collection is contained in this set.
+     * @param other the specified object to be compared
+     * @return boolean indicating if items were equal or not
+     */
+    public boolean equals(Object other){
+        boolean result = false;
+        if(other instanceof Collection){
+            Collection<?> temp = (Collection<?>) other;
+            result = size() == temp.size() && containsAll(temp);
+        }
+        return result;
+    }
+
+    /**
+     * Hash code consistent with equals, the sum of the hash codes of the elements.
+     * @return hash code of this set
+     */
+    public int hashCode(){
+        int hash = 0;
+        for(R data : this){
+            hash += data.hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * This function will return true if this set is descending and false if it is ascending.
+     * @return boolean indicating if set is descending or ascending
+     */
+    public boolean isReversed(){
+        return descending;
+    }
+
+    /**
+     * Reverse the order of the set. The shards are always stored lowest to highest, so this only
+     * flips a flag; iterators already running keep the direction they started with.
+     */
+    public void reverse(){
+        structure.writeLock().lock();
+        try{
+            descending = !descending;
+        }
+        finally{
+            structure.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Return an iterator over the set that walks the shards in key order.
+     * @return weakly consistent iterator over the set
+     */
+    public Iterator<R> iterator(){
+        return new ShardIterator(descending);
+    }
+
+    /**
+     * Walks the set one shard at a time, copying the rest of a shard under its lock and then
+     * finding the next shard from the last key returned, so that a rebalance in between neither
+     * skips nor repeats elements.
+     */
+    private class ShardIterator implements Iterator<R>{
+
+        /** true if the iteration runs highest to lowest */
+        private final boolean backward;
+        /** The elements copied from the current shard, in iteration order */
+        private R[] chunk;
+        /** The position of the next element in chunk */
+        private int index;
+        /** The last element copied, where the next chunk starts from */
+        private R last;
+        /** The last element returned by next, for remove */
+        private R returned;
+        /** true once the last shard has been copied */
+        private boolean finished;
+
+        /**
+         * Creates a ShardIterator.
+         * @param backward true to run highest to lowest
+         */
+        private ShardIterator(boolean backward){
+            this.backward = backward;
+            this.chunk = (R[]) new Comparable[0];
+            this.index = 0;
+            this.last = null;
+            this.returned = null;
+            this.finished = false;
+        }
+
+        /**
+         * Copy the elements past last from the next shard that has any.
+         */
+        private void advance(){
+            structure.readLock().lock();
+            try{
+                int at;
+                if(last == null){
+                    at = backward ? shards.length - 1 : 0;
+                }
+                else{
+                    at = shardOf(bounds, last);
+                }
+                while(at >= 0 && at < shards.length){
+                    Shard<R> shard = shards[at];
+                    shard.lock.lock();
+                    try{
+                        Collection<R> rest = shard.set;
+                        if(last != null){
+                            rest = backward ? shard.set.headSet(last, false) : shard.set.tailSet(last, false);
+                        }
+                        if(!rest.isEmpty()){
+                            List<R> copy = new ArrayList<>();
+                            for(R element : rest){
+                                copy.add(element);
+                            }
+                            chunk = (R[]) copy.toArray(new Comparable[copy.size()]);
+                            if(backward){
+                                for(int i = 0, j = chunk.length - 1; i < j; i++, j--){
+                                    R temp = chunk[i];
+                                    chunk[i] = chunk[j];
+                                    chunk[j] = temp;
+                                }
+                            }
+                            index = 0;
+                            last = chunk[chunk.length - 1];
+                            return;
+                        }
+                    }
+                    finally{
+                        shard.lock.unlock();
+                    }
+                    at += backward ? -1 : 1;
+                }
+                finished = true;
+            }
+            finally{
+                structure.readLock().unlock();
+            }
+        }
+
+        /** Is there another element in the set?
+         * @return true if there is another element
+         */
+        public boolean hasNext(){
+            if(index == chunk.length && !finished){
+                advance();
+            }
+            return index < chunk.length;
+        }
+
+        /** Get the next element of the set.
+         * @return the next element
+         * @throws NoSuchElementException if the iteration is over
+         */
+        public R next(){
+            if(!hasNext()){
+                throw new NoSuchElementException();
+            }
+            returned = chunk[index++];
+            return returned;
+        }
+
+        /** Remove the last element returned by next from the set.
+         * @throws IllegalStateException if next has not been called since the last remove
+         */
+        public void remove(){
+            if(returned == null){
+                throw new IllegalStateException();
+            }
+            ShardedOrderedSet.this.remove(returned);
+            returned = null;
+        }
+    }
+
+    /**
+     * One range of the set and the lock that guards it.
+     */
+    private static final class Shard<R extends Comparable<R>>{
+        /** The elements of the range, lowest to highest */
+        private final OrderedSet<R> set;
+        /** Held while set is read or changed */
+        private final ReentrantLock lock;
+
+        /**
+         * Create a shard.
+         * @param set the elements of the range, ascending
+         */
+        private Shard(OrderedSet<R> set){
+            this.set = set;
+            this.lock = new ReentrantLock();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package orderedSet.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Accepts the usual JMH command line and always adds the GC
+ * profiler, so every result reports its allocation rate (gc.alloc.rate.norm is bytes allocated
+ * per operation).
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public final class BenchmarkRunner{
+
+    /** Not instantiable */
+    private BenchmarkRunner(){
+    }
+
+    /**
+     * Run the benchmarks.
+     * @param args JMH command line options
+     * @throws RunnerException if a benchmark fails
+     * @throws CommandLineOptionException if the options cannot be parsed
+     */
+    public static void main(String[] args)throws RunnerException, CommandLineOptionException{
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class).build()).run();
+    }
+}
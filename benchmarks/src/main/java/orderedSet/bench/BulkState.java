@@ -0,0 +1,36 @@
+package orderedSet.bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Fresh copies of the collection for benchmarks that consume it. They are rebuilt before every
+ * invocation, which JMH only measures cleanly when the operation itself is large, so this state
+ * is only used by the bulk operations.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+@State(Scope.Thread)
+public class BulkState{
+
+    /** A full copy of the collection */
+    Target full;
+    /** A collection holding every other key */
+    Target half;
+
+    /**
+     * Rebuild the copies.
+     * @param state the collection being measured
+     */
+    @Setup(Level.Invocation)
+    public void setUp(CollectionState state){
+        full = Target.create(state.implementation);
+        full.addAll(state.keys);
+        half = Target.create(state.implementation);
+        half.addAll(state.halfKeys);
+    }
+}
@@ -0,0 +1,102 @@
+package orderedSet.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A collection filled with <code>size</code> keys, plus the keys used to probe it. The keys are
+ * the even numbers 0, 2, ... so that odd numbers are guaranteed to be absent. <code>order</code>
+ * is the order in which the keys are offered when a benchmark inserts them one at a time.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+@State(Scope.Benchmark)
+public class CollectionState{
+
+    /** Seed for every random choice, so runs are repeatable */
+    private static final long SEED = 42;
+    /** Number of precomputed probe keys; a power of two */
+    private static final int PROBES = 1 << 12;
+
+    /** Which collection to measure; any name accepted by Target.create */
+    @Param({"OrderedSet", "OrderedLink", "OrderedArrayLink", "OrderedUnrolledLink",
+            "OrderedSkipLink", "ConcurrentOrderedSet", "ReadMostlyOrderedSet", "ShardedOrderedSet",
+            "PersistentOrderedSet", "OrderedIntSet", "OrderedRankTree", "OrderedBTree", "TreeSet",
+            "ArrayList"})
+    public String implementation;
+
+    /** Number of elements in the collection */
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    /** Order the keys are inserted in: RANDOM, ASCENDING or DESCENDING */
+    @Param({"RANDOM", "ASCENDING", "DESCENDING"})
+    public String order;
+
+    /** Every key, in insert order */
+    List<Integer> keys;
+    /** Every other key, in insert order, for retainAll */
+    List<Integer> halfKeys;
+    /** Random keys that are in the collection */
+    Integer[] present;
+    /** Random keys that are not in the collection */
+    Integer[] absent;
+    /** Random positions within the collection */
+    int[] indexes;
+    /** The filled collection */
+    Target target;
+    /** Position of the next probe */
+    private int next;
+
+    /** Build the keys and fill the collection. */
+    @Setup
+    public void setUp(){
+        Random random = new Random(SEED);
+        keys = new ArrayList<>(size);
+        for(int i = 0; i < size; i++){
+            keys.add(2 * i);
+        }
+        if(order.equals("RANDOM")){
+            Collections.shuffle(keys, random);
+        }
+        else if(order.equals("DESCENDING")){
+            Collections.reverse(keys);
+        }
+        else if(!order.equals("ASCENDING")){
+            throw new IllegalArgumentException("Unknown order " + order);
+        }
+        halfKeys = new ArrayList<>(size / 2 + 1);
+        for(int i = 0; i < size; i += 2){
+            halfKeys.add(keys.get(i));
+        }
+        present = new Integer[PROBES];
+        absent = new Integer[PROBES];
+        indexes = new int[PROBES];
+        for(int i = 0; i < PROBES; i++){
+            present[i] = 2 * random.nextInt(size);
+            absent[i] = 2 * random.nextInt(size) + 1;
+            indexes[i] = random.nextInt(size);
+        }
+        target = Target.create(implementation);
+        target.addAll(keys);
+        next = 0;
+    }
+
+    /**
+     * Advance to the next probe.
+     * @return the index of the probe to use
+     */
+    int nextProbe(){
+        next = (next + 1) & (PROBES - 1);
+        return next;
+    }
+}
@@ -0,0 +1,84 @@
+package orderedSet.bench;
+
+import java.util.Arrays;
+import java.util.List;
+
+import orderedSet.ConcurrentOrderedSet;
+import orderedSet.OrderedArrayLink;
+import orderedSet.OrderedBTree;
+import orderedSet.OrderedInterface;
+import orderedSet.OrderedLink;
+import orderedSet.OrderedRankTree;
+import orderedSet.OrderedSet;
+import orderedSet.OrderedSkipLink;
+import orderedSet.OrderedUnrolledLink;
+import orderedSet.PersistentOrderedSet;
+import orderedSet.ReadMostlyOrderedSet;
+import orderedSet.ShardedOrderedSet;
+
+/**
+ * Compares every ordered set holding Integers with every ordered set holding Strings, and checks
+ * that equals and containsAll answer false and that removeAll and retainAll fall back to contains
+ * instead of throwing ClassCastException from the merge pass. Run it from the benchmarks
+ * directory after mvn package with
+ * java -cp target/benchmarks.jar orderedSet.bench.CrossTypeCheck; it throws AssertionError on
+ * failure.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public final class CrossTypeCheck{
+
+    /** Not instantiable */
+    private CrossTypeCheck(){
+    }
+
+    /**
+     * Run the check.
+     * @param args unused
+     */
+    public static void main(String[] args){
+        int pairs = 0;
+        for(int i = 0; i < implementations().size(); i++){
+            for(int j = 0; j < implementations().size(); j++){
+                OrderedInterface<Integer> numbers = CrossTypeCheck.<Integer>implementations().get(i);
+                OrderedInterface<String> words = CrossTypeCheck.<String>implementations().get(j);
+                numbers.addAll(Arrays.asList(1, 2, 3));
+                words.addAll(Arrays.asList("a", "b", "c"));
+                String pair = numbers.getClass().getSimpleName() + " and " + words.getClass().getSimpleName();
+                check(!numbers.equals(words), pair + ": equals");
+                check(!words.equals(numbers), pair + ": reversed equals");
+                check(!numbers.containsAll(words), pair + ": containsAll");
+                check(!numbers.removeAll(words) && numbers.size() == 3, pair + ": removeAll");
+                check(numbers.retainAll(words) && numbers.isEmpty(), pair + ": retainAll");
+                pairs++;
+            }
+        }
+        System.out.println("CrossTypeCheck passed for " + pairs + " pairs");
+    }
+
+    /**
+     * A new empty instance of every ordered set implementation that accepts any element type.
+     * @param <R> the element type
+     * @return the empty sets
+     */
+    private static <R extends Comparable<R>> List<OrderedInterface<R>> implementations(){
+        return Arrays.asList(new OrderedSet<R>(), new OrderedLink<R>(), new OrderedArrayLink<R>(),
+                new OrderedUnrolledLink<R>(), new OrderedSkipLink<R>(), new ConcurrentOrderedSet<R>(),
+                new ReadMostlyOrderedSet<R>(), new ShardedOrderedSet<R>(), new PersistentOrderedSet<R>(),
+                new OrderedRankTree<R>(), new OrderedBTree<R>());
+    }
+
+    /**
+     * Fail the run if a condition does not hold.
+     * @param condition the condition
+     * @param message what was being checked
+     * @throws AssertionError if condition is false
+     */
+    private static void check(boolean condition, String message)throws AssertionError{
+        if(!condition){
+            throw new AssertionError(message);
+        }
+    }
+}
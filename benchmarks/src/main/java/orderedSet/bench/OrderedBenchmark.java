@@ -0,0 +1,148 @@
+package orderedSet.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the OrderedInterface operations on OrderedSet and OrderedLink against TreeSet and a
+ * sorted ArrayList. Single element operations leave the collection as they found it: add puts in
+ * an absent key and takes it out again, remove takes out a present key and puts it back, so the
+ * collection stays at <code>size</code> for the whole run.
+ * <br>
+ * buildByAdd inserts every key one at a time in the chosen order, which is quadratic for the
+ * linked and array implementations; restrict it with <code>-p size=...</code> at the larger
+ * sizes.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderedBenchmark{
+
+    /**
+     * Add an absent key, then remove it again.
+     * @param state the collection
+     * @return whether the key was added
+     */
+    @Benchmark
+    public boolean add(CollectionState state){
+        Integer key = state.absent[state.nextProbe()];
+        boolean added = state.target.add(key);
+        state.target.remove(key);
+        return added;
+    }
+
+    /**
+     * Remove a present key, then add it back.
+     * @param state the collection
+     * @return whether the key was removed
+     */
+    @Benchmark
+    public boolean remove(CollectionState state){
+        Integer key = state.present[state.nextProbe()];
+        boolean removed = state.target.remove(key);
+        state.target.add(key);
+        return removed;
+    }
+
+    /**
+     * Look up a present key.
+     * @param state the collection
+     * @return whether the key was found
+     */
+    @Benchmark
+    public boolean contains(CollectionState state){
+        return state.target.contains(state.present[state.nextProbe()]);
+    }
+
+    /**
+     * Read the element at a random position.
+     * @param state the collection
+     * @return the element
+     */
+    @Benchmark
+    public Integer get(CollectionState state){
+        return state.target.get(state.indexes[state.nextProbe()]);
+    }
+
+    /**
+     * Walk every element in order.
+     * @param state the collection
+     * @param blackhole consumes the elements
+     */
+    @Benchmark
+    public void iterate(CollectionState state, Blackhole blackhole){
+        for(Integer element : state.target.elements()){
+            blackhole.consume(element);
+        }
+    }
+
+    /**
+     * Sum every element with a parallel stream, which measures how well the collection's
+     * spliterator splits.
+     * @param state the collection
+     * @return the sum
+     */
+    @Benchmark
+    public long parallelSum(CollectionState state){
+        return state.target.elements().parallelStream().mapToLong(Integer::longValue).sum();
+    }
+
+    /**
+     * Flip the order of the collection.
+     * @param state the collection
+     */
+    @Benchmark
+    public void reverse(CollectionState state){
+        state.target.reverse();
+    }
+
+    /**
+     * Load every key into an empty collection with a single addAll.
+     * @param state the collection kind and keys
+     * @return the loaded collection
+     */
+    @Benchmark
+    public Target addAll(CollectionState state){
+        Target loaded = Target.create(state.implementation);
+        loaded.addAll(state.keys);
+        return loaded;
+    }
+
+    /**
+     * Insert every key into an empty collection one at a time, in the chosen order.
+     * @param state the collection kind and keys
+     * @return the loaded collection
+     */
+    @Benchmark
+    public Target buildByAdd(CollectionState state){
+        Target loaded = Target.create(state.implementation);
+        for(Integer key : state.keys){
+            loaded.add(key);
+        }
+        return loaded;
+    }
+
+    /**
+     * Intersect a full collection with one holding half of the keys.
+     * @param bulk fresh copies of the collection
+     * @return whether anything was removed
+     */
+    @Benchmark
+    public boolean retainAll(BulkState bulk){
+        return bulk.full.retainAll(bulk.half);
+    }
+}
@@ -0,0 +1,102 @@
+package orderedSet.bench;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import orderedSet.ShardedOrderedSet;
+
+/**
+ * Adds and removes from a ShardedOrderedSet on many threads while other threads rebalance,
+ * clear and filter it, then checks that nothing deadlocked and that size() matches the number
+ * of elements iterated. Run it from the benchmarks directory after mvn package with
+ * java -cp target/benchmarks.jar orderedSet.bench.ShardedOrderedSetStress; it throws
+ * AssertionError on failure.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+public final class ShardedOrderedSetStress{
+
+    /** Number of threads adding and removing */
+    private static final int WRITERS = 16;
+    /** Operations per writer per round */
+    private static final int OPERATIONS = 50000;
+    /** Number of rounds */
+    private static final int ROUNDS = 5;
+
+    /** Not instantiable */
+    private ShardedOrderedSetStress(){
+    }
+
+    /**
+     * Run the stress test.
+     * @param args unused
+     * @throws Exception if a worker fails or the run times out
+     */
+    public static void main(String[] args)throws Exception{
+        for(int round = 0; round < ROUNDS; round++){
+            runRound(round);
+        }
+        System.out.println("ShardedOrderedSetStress passed");
+    }
+
+    /**
+     * Run one round and check the count.
+     * @param round the round number, used as the seed
+     * @throws Exception if a worker fails or the round times out
+     */
+    private static void runRound(int round)throws Exception{
+        ShardedOrderedSet<Integer> set = new ShardedOrderedSet<>(8, round % 2 == 1);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + 2);
+        List<Future<?>> work = new ArrayList<>();
+        for(int w = 0; w < WRITERS; w++){
+            final long seed = round * 1000L + w;
+            work.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                for(int i = 0; i < OPERATIONS; i++){
+                    int key = random.nextInt(1 << 20);
+                    if(random.nextInt(3) == 0){
+                        set.remove(key);
+                    }
+                    else{
+                        set.add(key);
+                    }
+                }
+            }));
+        }
+        work.add(pool.submit(() -> {
+            for(int i = 0; i < 200; i++){
+                set.rebalance();
+                if(i % 50 == 49){
+                    set.clear();
+                }
+            }
+        }));
+        work.add(pool.submit(() -> {
+            for(int i = 0; i < 20; i++){
+                set.retainAll(set);
+            }
+        }));
+        pool.shutdown();
+        if(!pool.awaitTermination(5, TimeUnit.MINUTES)){
+            throw new AssertionError("round " + round + " did not finish; deadlock?");
+        }
+        for(Future<?> future : work){
+            future.get();
+        }
+        int iterated = 0;
+        for(Iterator<Integer> elements = set.iterator(); elements.hasNext(); elements.next()){
+            iterated++;
+        }
+        if(set.size() != iterated){
+            throw new AssertionError("round " + round + ": size() " + set.size() + " but iterated " + iterated);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package orderedSet.bench;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import orderedSet.ConcurrentOrderedSet;
+import orderedSet.OrderedArrayLink;
+import orderedSet.OrderedBTree;
+import orderedSet.OrderedIntSet;
+import orderedSet.OrderedInterface;
+import orderedSet.OrderedLink;
+import orderedSet.OrderedRankTree;
+import orderedSet.OrderedSet;
+import orderedSet.OrderedSkipLink;
+import orderedSet.OrderedUnrolledLink;
+import orderedSet.PersistentOrderedSet;
+import orderedSet.ReadMostlyOrderedSet;
+import orderedSet.ShardedOrderedSet;
+
+/**
+ * Gives every benchmarked collection the same small set of operations, so that one benchmark
+ * method can drive the ordered sets and the JDK baselines alike.
+ *
+ * @author Matthew Talle and Kevin Caverly
+ * @version Spring 2023
+ */
+
+abstract class Target{
+
+    /**
+     * Create an empty ascending collection of the named kind.
+     * @param implementation OrderedSet, OrderedLink, OrderedArrayLink, OrderedUnrolledLink,
+     * OrderedSkipLink, ConcurrentOrderedSet, ReadMostlyOrderedSet, ShardedOrderedSet,
+     * PersistentOrderedSet, OrderedIntSet, OrderedRankTree, OrderedBTree, TreeSet or ArrayList
+     * @return an empty collection wrapped as a Target
+     * @throws IllegalArgumentException for an unknown name
+     */
+    static Target create(String implementation)throws IllegalArgumentException{
+        switch(implementation){
+            case "OrderedSet":
+                OrderedSet<Integer> set = new OrderedSet<>();
+                return new Ordered(set, set::get);
+            case "OrderedLink":
+                OrderedLink<Integer> link = new OrderedLink<>();
+                return new Ordered(link, link::get);
+            case "OrderedArrayLink":
+                OrderedArrayLink<Integer> arrayLink = new OrderedArrayLink<>();
+                return new Ordered(arrayLink, arrayLink::get);
+            case "OrderedUnrolledLink":
+                OrderedUnrolledLink<Integer> unrolled = new OrderedUnrolledLink<>();
+                return new Ordered(unrolled, unrolled::get);
+            case "OrderedSkipLink":
+                OrderedSkipLink<Integer> skip = new OrderedSkipLink<>();
+                return new Ordered(skip, skip::get);
+            case "ConcurrentOrderedSet":
+                ConcurrentOrderedSet<Integer> concurrent = new ConcurrentOrderedSet<>();
+                return new Ordered(concurrent, concurrent::get);
+            case "ReadMostlyOrderedSet":
+                ReadMostlyOrderedSet<Integer> readMostly = new ReadMostlyOrderedSet<>();
+                return new Ordered(readMostly, readMostly::get);
+            case "ShardedOrderedSet":
+                ShardedOrderedSet<Integer> sharded = new ShardedOrderedSet<>();
+                return new Ordered(sharded, sharded::get);
+            case "PersistentOrderedSet":
+                PersistentOrderedSet<Integer> persistent = new PersistentOrderedSet<>();
+                return new Ordered(persistent, persistent::get);
+            case "OrderedIntSet":
+                OrderedIntSet ints = new OrderedIntSet();
+                return new Ordered(ints, ints::get);
+            case "OrderedRankTree":
+                OrderedRankTree<Integer> ranked = new OrderedRankTree<>();
+                return new Ordered(ranked, ranked::get);
+            case "OrderedBTree":
+                OrderedBTree<Integer> btree = new OrderedBTree<>();
+                return new Ordered(btree, btree::get);
+            case "TreeSet":
+                return new Tree();
+            case "ArrayList":
+                return new SortedList();
+            default:
+                throw new IllegalArgumentException("Unknown implementation " + implementation);
+        }
+    }
+
+    /**
+     * Add a key if it is not present.
+     * @param key the key
+     * @return true if it was added
+     */
+    abstract boolean add(Integer key);
+
+    /**
+     * Remove a key if it is present.
+     * @param key the key
+     * @return true if it was removed
+     */
+    abstract boolean remove(Integer key);
+
+    /**
+     * Look a key up.
+     * @param key the key
+     * @return true if it is present
+     */
+    abstract boolean contains(Integer key);
+
+    /**
+     * Get the element at a position in the current order.
+     * @param index the position
+     * @return the element
+     */
+    abstract Integer get(int index);
+
+    /**
+     * Add every key of a collection.
+     * @param keys the keys
+     * @return true if anything was added
+     */
+    abstract boolean addAll(Collection<Integer> keys);
+
+    /**
+     * Keep only the elements also in another target of the same kind.
+     * @param other the elements to keep
+     * @return true if anything was removed
+     */
+    abstract boolean retainAll(Target other);
+
+    /** Flip the order of the collection. */
+    abstract void reverse();
+
+    /**
+     * The elements in the current order.
+     * @return the underlying collection
+     */
+    abstract Collection<Integer> elements();
+
+    /** Adapter for every OrderedInterface implementation. */
+    private static final class Ordered extends Target{
+        /** The wrapped set */
+        private final OrderedInterface<Integer> set;
+        /** The set's own get(int) */
+        private final IntFunction<Integer> getter;
+
+        /**
+         * Wrap a set.
+         * @param set the set
+         * @param getter its get(int) method
+         */
+        private Ordered(OrderedInterface<Integer> set, IntFunction<Integer> getter){
+            this.set = set;
+            this.getter = getter;
+        }
+
+        boolean add(Integer key){
+            return set.add(key);
+        }
+
+        boolean remove(Integer key){
+            return set.remove((Object) key);
+        }
+
+        boolean contains(Integer key){
+            return set.contains(key);
+        }
+
+        Integer get(int index){
+            return getter.apply(index);
+        }
+
+        boolean addAll(Collection<Integer> keys){
+            return set.addAll(keys);
+        }
+
+        boolean retainAll(Target other){
+            return set.retainAll(((Ordered) other).set);
+        }
+
+        void reverse(){
+            set.reverse();
+        }
+
+        Collection<Integer> elements(){
+            return set;
+        }
+    }
+
+    /** Baseline: a red-black tree, reversed through its descending view. */
+    private static final class Tree extends Target{
+        /** The tree in its natural order */
+        private final TreeSet<Integer> tree = new TreeSet<>();
+        /** The tree seen in the current order */
+        private NavigableSet<Integer> view = tree;
+
+        boolean add(Integer key){
+            return tree.add(key);
+        }
+
+        boolean remove(Integer key){
+            return tree.remove(key);
+        }
+
+        boolean contains(Integer key){
+            return tree.contains(key);
+        }
+
+        Integer get(int index){
+            int position = 0;
+            for(Integer element : view){
+                if(position++ == index){
+                    return element;
+                }
+            }
+            throw new IndexOutOfBoundsException();
+        }
+
+        boolean addAll(Collection<Integer> keys){
+            return tree.addAll(keys);
+        }
+
+        boolean retainAll(Target other){
+            return tree.retainAll(((Tree) other).tree);
+        }
+
+        void reverse(){
+            view = (view == tree) ? tree.descendingSet() : tree;
+        }
+
+        Collection<Integer> elements(){
+            return view;
+        }
+    }
+
+    /** Baseline: an ArrayList kept sorted and searched with Collections.binarySearch. */
+    private static final class SortedList extends Target{
+        /** The elements in the current order */
+        private final ArrayList<Integer> list = new ArrayList<>();
+        /** The current order */
+        private Comparator<Integer> order = Comparator.naturalOrder();
+
+        boolean add(Integer key){
+            int index = Collections.binarySearch(list, key, order);
+            if(index >= 0){
+                return false;
+            }
+            list.add(-(index + 1), key);
+            return true;
+        }
+
+        boolean remove(Integer key){
+            int index = Collections.binarySearch(list, key, order);
+            if(index < 0){
+                return false;
+            }
+            list.remove(index);
+            return true;
+        }
+
+        boolean contains(Integer key){
+            return Collections.binarySearch(list, key, order) >= 0;
+        }
+
+        Integer get(int index){
+            return list.get(index);
+        }
+
+        boolean addAll(Collection<Integer> keys){
+            int before = list.size();
+            list.addAll(keys);
+            list.sort(order);
+            int write = 0;
+            for(int read = 0; read < list.size(); read++){
+                if(write == 0 || !list.get(write - 1).equals(list.get(read))){
+                    list.set(write++, list.get(read));
+                }
+            }
+            list.subList(write, list.size()).clear();
+            return list.size() != before;
+        }
+
+        boolean retainAll(Target other){
+            SortedList keep = (SortedList) other;
+            return list.removeIf(key -> Collections.binarySearch(keep.list, key, keep.order) < 0);
+        }
+
+        void reverse(){
+            Collections.reverse(list);
+            order = order.reversed();
+        }
+
+        Collection<Integer> elements(){
+            return list;
+        }
+    }
+}